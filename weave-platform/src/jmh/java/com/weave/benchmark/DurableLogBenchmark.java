@@ -0,0 +1,111 @@
+// FILE: src/jmh/java/com/weave/benchmark/DurableLogBenchmark.java
+// BENCHMARK: cost of durable topics per fsync policy
+
+package com.weave.benchmark;
+
+import com.weave.core.DurableTopicConfig;
+import com.weave.core.FsyncPolicy;
+import com.weave.core.Message;
+import com.weave.core.RetentionPolicy;
+import com.weave.core.WeaveMessageBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable Log Benchmark
+ * Publishes the same stream records to an in-memory topic and to durable
+ * topics under each fsync policy, one message at a time and in batches.
+ * Scores are messages per second. Durable logs keep at most 256MB so long
+ * runs do not fill the disk.
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main DurableLog
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurableLogBenchmark {
+    private static final int BATCH_SIZE = 500;
+    private static final String TOPIC = "stream.records";
+
+    /** MEMORY for a topic without a log, otherwise the log's fsync policy */
+    @Param({"MEMORY", "INTERVAL", "PER_BATCH", "PER_MESSAGE"})
+    public String durability;
+
+    private Path directory;
+    private WeaveMessageBus bus;
+    private List<Message> records;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        records = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("sample", "SAMPLE" + (i % 96));
+            payload.put("gene", "GENE" + i);
+            payload.put("expression", i * 0.37);
+            payload.put("reads", (long) i * 13);
+            records.add(new Message("stream.record", payload, "sequencer"));
+        }
+
+        directory = Files.createTempDirectory("weave-log-bench");
+        bus = new WeaveMessageBus();
+        bus.configureTopic(TOPIC, RetentionPolicy.none());
+        if (!durability.equals("MEMORY")) {
+            bus.enableDurability(TOPIC, new DurableTopicConfig.Builder()
+                    .directory(directory)
+                    .fsyncPolicy(FsyncPolicy.valueOf(durability))
+                    .retentionBytes(256L * 1024 * 1024)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        bus.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishEach() {
+        for (Message record : records) {
+            bus.publish(TOPIC, record);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishBatch() {
+        bus.publishAll(TOPIC, records);
+    }
+}
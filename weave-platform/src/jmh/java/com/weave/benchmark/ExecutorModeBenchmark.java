@@ -0,0 +1,122 @@
+// FILE: src/jmh/java/com/weave/benchmark/ExecutorModeBenchmark.java
+// BENCHMARK: platform thread pools vs virtual threads for blocking connector I/O
+
+package com.weave.benchmark;
+
+import com.weave.core.WeaveExecutors;
+import com.weave.integration.FileConnector;
+import com.weave.model.DataSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor Mode Benchmark
+ * Runs a batch of blocking tasks, each a simulated remote lookup followed by
+ * a small file read through FileConnector, on a fixed platform pool or on
+ * virtual threads. Scores are tasks per second. The virtual case needs JDK 21+.
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main ExecutorMode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ExecutorModeBenchmark {
+    private static final int TASKS = 1_000;
+
+    /** Size of a fixed platform pool, or "virtual" for one virtual thread per task */
+    @Param({"5", "200", "virtual"})
+    public String threads;
+
+    /** Simulated remote latency per task */
+    @Param({"10"})
+    public int latencyMs;
+
+    private ExecutorService executor;
+    private File input;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if ("virtual".equals(threads)) {
+            if (!WeaveExecutors.isVirtualThreadsAvailable()) {
+                throw new IllegalStateException("Virtual threads require JDK 21+, running on "
+                        + Runtime.version().feature());
+            }
+            executor = WeaveExecutors.newVirtualExecutor("bench-virtual");
+        } else {
+            executor = WeaveExecutors.newPlatformExecutor("bench-platform", Integer.parseInt(threads));
+        }
+
+        input = File.createTempFile("weave-bench", ".tsv");
+        try (PrintWriter writer = new PrintWriter(input)) {
+            for (int i = 0; i < 100; i++) {
+                writer.println("GENE" + i + "\t" + (i * 1.5) + "\tsample1");
+            }
+        }
+
+        // Connectors log every connect and read
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        System.setOut(console);
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        if (input != null) {
+            input.delete();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public long lookups() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> futures = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(latencyMs);
+                FileConnector connector = new FileConnector(input.getAbsolutePath());
+                connector.connect();
+                DataSet data = connector.read();
+                connector.disconnect();
+                return data.getRowCount();
+            }));
+        }
+        long rows = 0;
+        for (Future<Integer> future : futures) {
+            rows += future.get();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,145 @@
+// FILE: src/jmh/java/com/weave/benchmark/MessageAllocationBenchmark.java
+// BENCHMARK: allocation per message when building, publishing and handling stream records
+
+package com.weave.benchmark;
+
+import com.weave.core.Message;
+import com.weave.core.MessagePool;
+import com.weave.core.RetentionPolicy;
+import com.weave.core.WeaveExecutors;
+import com.weave.core.WeaveMessageBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Message Allocation Benchmark
+ * Builds stream records the way an ingest loop does, publishes them to a
+ * topic with one subscriber that reads two payload fields, and waits for
+ * delivery. Run with the GC profiler; gc.alloc.rate.norm is bytes per message.
+ * ingestFromVirtualThreads publishes each record from its own virtual thread,
+ * as bus handlers and workflow steps do in virtual mode, so it includes each
+ * thread's first-message cost (JDK 21+).
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main MessageAllocation -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageAllocationBenchmark {
+    private static final int BATCH = 1_000;
+    private static final String TOPIC = "ingest";
+
+    /**
+     * constructor: new Message(type, payload, source) from a reused payload map
+     * builder: Message.Builder with one addPayload per field
+     * pooled: MessagePool.acquire plus one set per field, recycled after delivery
+     */
+    @Param({"constructor", "builder", "pooled"})
+    public String mode;
+
+    private WeaveMessageBus bus;
+    private ExecutorService virtualThreads;
+    private final MessagePool pool = new MessagePool(4096);
+    private final Map<String, Object> payload = new HashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile Object sink;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        bus = new WeaveMessageBus();
+        bus.configureTopic(TOPIC, RetentionPolicy.none());
+        bus.subscribe(TOPIC, message -> {
+            sink = message.getPayload().get("gene");
+            sink = message.getPayload().get("reads");
+            delivered.incrementAndGet();
+        });
+        payload.put("sample", "SAMPLE0042");
+        payload.put("gene", "GENE01234");
+        payload.put("expression", 456.123);
+        payload.put("reads", 1_234_567L);
+        if (WeaveExecutors.isVirtualThreadsAvailable()) {
+            virtualThreads = WeaveExecutors.newVirtualExecutor("bench-ingest");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bus.shutdown();
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long ingest() {
+        long target = delivered.get() + BATCH;
+        for (int i = 0; i < BATCH; i++) {
+            bus.publish(TOPIC, create());
+        }
+        while (delivered.get() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long ingestFromVirtualThreads() {
+        if (virtualThreads == null) {
+            throw new IllegalStateException("Virtual threads require JDK 21+, running on "
+                    + Runtime.version().feature());
+        }
+        long target = delivered.get() + BATCH;
+        for (int i = 0; i < BATCH; i++) {
+            virtualThreads.execute(() -> bus.publish(TOPIC, create()));
+        }
+        while (delivered.get() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+
+    private Message create() {
+        if ("pooled".equals(mode)) {
+            return pool.acquire("stream.record", "sequencer")
+                    .set("sample", payload.get("sample"))
+                    .set("gene", payload.get("gene"))
+                    .set("expression", payload.get("expression"))
+                    .set("reads", payload.get("reads"));
+        }
+        if ("builder".equals(mode)) {
+            return new Message.Builder()
+                    .type("stream.record")
+                    .source("sequencer")
+                    .addPayload("sample", payload.get("sample"))
+                    .addPayload("gene", payload.get("gene"))
+                    .addPayload("expression", payload.get("expression"))
+                    .addPayload("reads", payload.get("reads"))
+                    .build();
+        }
+        return new Message("stream.record", payload, "sequencer");
+    }
+}
@@ -0,0 +1,104 @@
+// FILE: src/jmh/java/com/weave/benchmark/MessageBusDispatchBenchmark.java
+// BENCHMARK: executor-per-message dispatch vs ring dispatch on WeaveMessageBus
+
+package com.weave.benchmark;
+
+import com.weave.core.Message;
+import com.weave.core.RetentionPolicy;
+import com.weave.core.RingDispatchConfig;
+import com.weave.core.WaitStrategy;
+import com.weave.core.WeaveMessageBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Message Bus Dispatch Benchmark
+ * Publishes a batch of prebuilt messages to one topic with a single subscriber
+ * and waits until every message has been delivered. The score is messages per
+ * second end to end (publish + hand-off + handler).
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main MessageBusDispatch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageBusDispatchBenchmark {
+    private static final int BATCH = 10_000;
+    private static final String TOPIC = "bench";
+
+    /**
+     * executor: one executor task per message (the classic path)
+     * ring-*: ring dispatch with the named wait strategy and a dedicated consumer
+     * ring-pooled: ring dispatch draining on the bus executor
+     */
+    @Param({"executor", "ring-blocking", "ring-yielding", "ring-pooled"})
+    public String dispatch;
+
+    private WeaveMessageBus bus;
+    private Message[] messages;
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        bus = new WeaveMessageBus();
+        bus.configureTopic(TOPIC, RetentionPolicy.none());
+        if (dispatch.startsWith("ring")) {
+            RingDispatchConfig.Builder config = new RingDispatchConfig.Builder();
+            switch (dispatch) {
+                case "ring-yielding":
+                    config.waitStrategy(WaitStrategy.yielding());
+                    break;
+                case "ring-pooled":
+                    config.consumerMode(RingDispatchConfig.ConsumerMode.POOLED);
+                    break;
+                default:
+                    config.waitStrategy(WaitStrategy.blocking());
+            }
+            bus.enableRingDispatch(TOPIC, config.build());
+        }
+        bus.subscribe(TOPIC, message -> delivered.incrementAndGet());
+
+        messages = new Message[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            messages[i] = new Message("bench.event", Collections.singletonMap("seq", i), "benchmark");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bus.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long publishAndDeliver() {
+        long target = delivered.get() + BATCH;
+        for (Message message : messages) {
+            bus.publish(TOPIC, message);
+        }
+        while (delivered.get() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,94 @@
+// FILE: src/jmh/java/com/weave/benchmark/MessageCodecBenchmark.java
+// BENCHMARK: binary MessageCodec vs Gson JSON for encoding and decoding messages
+
+package com.weave.benchmark;
+
+import com.google.gson.Gson;
+import com.weave.core.Message;
+import com.weave.core.MessageCodec;
+import com.weave.core.StringTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message Codec Benchmark
+ * Encodes and decodes a typical stream record (the shape StreamProcessor
+ * publishes) with the binary codec and with Gson. The codec shares a string
+ * table between encoder and decoder, as a durable log does, so repeated keys
+ * and type names are written as small ids.
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main MessageCodec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageCodecBenchmark {
+    private final Gson gson = new Gson();
+    private MessageCodec codec;
+    private Message message;
+    private byte[] binary;
+    private String json;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> quality = new HashMap<>();
+        quality.put("score", 38);
+        quality.put("passed", true);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("sample", "SAMPLE0042");
+        payload.put("gene", "GENE01234");
+        payload.put("expression", 456.123);
+        payload.put("reads", 1_234_567L);
+        payload.put("lanes", Arrays.asList(1, 2, 3, 4));
+        payload.put("quality", quality);
+        message = new Message("stream.record", payload, "sequencer-01");
+        // Render the id up front so Gson, which reads fields, serializes it
+        message.getId();
+
+        codec = new MessageCodec(new StringTable());
+        binary = codec.toBytes(message);
+        json = gson.toJson(message);
+        System.out.println("Encoded size: codec=" + binary.length + " bytes, json="
+                + json.getBytes(StandardCharsets.UTF_8).length + " bytes");
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncode() {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public Message codecDecode() {
+        return codec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return gson.toJson(message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Message jsonDecode() {
+        return gson.fromJson(json, Message.class);
+    }
+}
@@ -0,0 +1,70 @@
+// FILE: src/jmh/java/com/weave/benchmark/TypedPayloadBenchmark.java
+// BENCHMARK: Map payloads vs MessageSchema records on the produce-and-read path
+
+package com.weave.benchmark;
+
+import com.weave.core.Message;
+import com.weave.core.MessageSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed Payload Benchmark
+ * A producer builds a stream record from primitive fields and a consumer
+ * reads three of them back, once through a Map payload (boxing, hashing,
+ * casts) and once through a registered payload record.
+ *
+ * Run: mvn -Pjmh package
+ *      java -cp target/weave-platform-1.0.0-jar-with-dependencies.jar org.openjdk.jmh.Main TypedPayload -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypedPayloadBenchmark {
+    public record GeneReading(String sample, String gene, double expression, long reads) {}
+
+    private static final MessageSchema<GeneReading> READINGS =
+            MessageSchema.register("bench.reading", GeneReading.class);
+
+    private final String sample = "SAMPLE0042";
+    private final String gene = "GENE01234";
+    private double expression = 456.123;
+    private long reads = 1_234_567L;
+
+    @Benchmark
+    public double mapPayload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("sample", sample);
+        payload.put("gene", gene);
+        payload.put("expression", expression);
+        payload.put("reads", reads++);
+        Message message = new Message("bench.reading", payload, "sequencer");
+
+        String readGene = (String) message.getPayloadValue("gene");
+        double readExpression = ((Number) message.getPayloadValue("expression")).doubleValue();
+        long readReads = ((Number) message.getPayloadValue("reads")).longValue();
+        return readGene.length() + readExpression + readReads;
+    }
+
+    @Benchmark
+    public double typedPayload() {
+        Message message = READINGS.message(new GeneReading(sample, gene, expression, reads++), "sequencer");
+
+        GeneReading reading = READINGS.payloadOf(message);
+        return reading.gene().length() + reading.expression() + reading.reads();
+    }
+}
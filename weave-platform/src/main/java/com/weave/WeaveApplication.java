@@ -2,20 +2,33 @@
 
 package com. weave;
 
+import com.weave.core.DrainConfig;
+import com.weave.core.ShutdownReport;
+import com.weave.core.WeaveExecutors;
 import com.weave.core.WeaveMessageBus;
 import com.weave.core.Message;
 import com.weave.workflow.*;
 import com.weave.integration.*;
 import com.weave.model.*;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Weave Platform - Main Application
  * Enterprise Bioinformatics Integration and Analytics Platform
  */
 public class WeaveApplication {
+    private static final List<String> HUMAN_CHROMOSOMES = Arrays.asList(
+            "chr1", "chr2", "chr3", "chr4", "chr5", "chr6", "chr7", "chr8", "chr9", "chr10", "chr11", "chr12",
+            "chr13", "chr14", "chr15", "chr16", "chr17", "chr18", "chr19", "chr20", "chr21", "chr22", "chrX", "chrY");
     
     public static void main(String[] args) {
         System.out.println("=================================================");
@@ -25,8 +38,24 @@ public class WeaveApplication {
         
         // Initialize core components
         System.out.println("Initializing core components...");
+        System.out.println("Execution mode: " + WeaveExecutors.describeMode());
         WeaveMessageBus messageBus = new WeaveMessageBus();
         WorkflowEngine workflowEngine = new WorkflowEngine(messageBus);
+        String stepCacheDir = System.getProperty("weave.step.cache.dir");
+        if (stepCacheDir != null) {
+            try {
+                workflowEngine.setStepCache(StepCache.open(Paths.get(stepCacheDir), 1L << 30));
+            } catch (IOException e) {
+                System.err.println("Step cache disabled: " + e.getMessage());
+            }
+        }
+        
+        // Drain on SIGTERM as well, so a rolling restart does not drop in-flight workflow events
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (messageBus.isRunning()) {
+                shutdown(workflowEngine, messageBus);
+            }
+        }, "weave-shutdown"));
         
         // Subscribe to workflow events
         setupEventListeners(messageBus);
@@ -49,12 +78,33 @@ public class WeaveApplication {
         // Shutdown
         System.out.println("\n=================================================");
         System.out.println("Shutting down Weave Platform...");
-        workflowEngine.shutdown();
-        messageBus.shutdown();
+        shutdown(workflowEngine, messageBus);
         System.out.println("Shutdown complete. Goodbye!");
         System.out.println("=================================================");
     }
     
+    /**
+     * Finish running workflows, then drain the bus so their last events are delivered
+     * Both share one deadline, -Dweave.shutdown.seconds (30 by default), so SIGTERM
+     * completes within the usual grace period; workflows get two thirds of it.
+     * Set weave.undelivered.dir to keep whatever misses the deadline for replay
+     */
+    private static void shutdown(WorkflowEngine workflowEngine, WeaveMessageBus messageBus) {
+        Duration budget = Duration.ofSeconds(Math.max(0, Integer.getInteger("weave.shutdown.seconds", 30)));
+        long deadline = System.nanoTime() + budget.toNanos();
+        workflowEngine.shutdown(budget.multipliedBy(2).dividedBy(3));
+        DrainConfig.Builder drain = new DrainConfig.Builder()
+                .deadline(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        String undeliveredDir = System.getProperty("weave.undelivered.dir");
+        if (undeliveredDir != null) {
+            drain.persistUndelivered(Paths.get(undeliveredDir));
+        }
+        ShutdownReport report = messageBus.shutdown(drain.build());
+        System.out.println("Message bus drained in " + report.getDrainTime().toMillis() + "ms, "
+                + report.getHandledDuringDrain() + " messages delivered during drain, "
+                + report.getUndeliveredCount() + " undelivered");
+    }
+    
     /**
      * Setup event listeners for workflow events
      */
@@ -105,6 +155,9 @@ public class WeaveApplication {
         pipeline.setDescription("Complete RNA-Seq analysis workflow");
         pipeline.setType("transcriptomics");
         
+        // Steps declare the keys they read and write; QC and alignment only need
+        // the inputs, so they run side by side
+        
         // Step 1: Quality Control
         pipeline.addStep(new PipelineStep() {
             @Override
@@ -117,6 +170,16 @@ public class WeaveApplication {
                 return "Run FastQC on input FASTQ files";
             }
             
+            @Override
+            public Set<String> getConsumedKeys() {
+                return Set.of("input_file");
+            }
+            
+            @Override
+            public Set<String> getProducedKeys() {
+                return Set.of("qc_passed", "qc_report");
+            }
+            
             @Override
             public void execute(ExecutionContext ctx) throws Exception {
                 System.out.println("  Running FastQC...");
@@ -144,6 +207,33 @@ public class WeaveApplication {
                 return "Align reads using STAR";
             }
             
+            @Override
+            public Set<String> getConsumedKeys() {
+                return Set.of("input_file", "reference_genome");
+            }
+            
+            @Override
+            public Set<String> getProducedKeys() {
+                return Set.of("alignment_file", "alignment_stats");
+            }
+            
+            // Alignment is the expensive step; reuse it while iterating on downstream analysis
+            @Override
+            public boolean isCacheable() {
+                return true;
+            }
+            
+            @Override
+            public Map<String, Object> getConfiguration() {
+                return Map.of("aligner", "STAR 2.7.11a", "outSAMtype", "BAM SortedByCoordinate");
+            }
+            
+            // STAR holds the whole genome index in memory
+            @Override
+            public ResourceHints getResources() {
+                return ResourceHints.of(8, 32000);
+            }
+            
             @Override
             public void execute(ExecutionContext ctx) throws Exception {
                 System.out.println("  Running STAR aligner...");
@@ -171,6 +261,26 @@ public class WeaveApplication {
                 return "Quantify gene expression using featureCounts";
             }
             
+            @Override
+            public Set<String> getConsumedKeys() {
+                return Set.of("alignment_file");
+            }
+            
+            @Override
+            public Set<String> getProducedKeys() {
+                return Set.of("counts_file", "genes_quantified");
+            }
+            
+            @Override
+            public boolean isCacheable() {
+                return true;
+            }
+            
+            @Override
+            public Map<String, Object> getConfiguration() {
+                return Map.of("tool", "featureCounts 2.0.6", "strandedness", 2);
+            }
+            
             @Override
             public void execute(ExecutionContext ctx) throws Exception {
                 System.out.println("  Running featureCounts...");
@@ -198,6 +308,16 @@ public class WeaveApplication {
                 return "Identify differentially expressed genes using DESeq2";
             }
             
+            @Override
+            public Set<String> getConsumedKeys() {
+                return Set.of("counts_file");
+            }
+            
+            @Override
+            public Set<String> getProducedKeys() {
+                return Set.of("de_results", "significant_genes");
+            }
+            
             @Override
             public void execute(ExecutionContext ctx) throws Exception {
                 System.out.println("  Running DESeq2...");
@@ -250,21 +370,42 @@ public class WeaveApplication {
             }
         });
         
-        pipeline.addStep(new PipelineStep() {
+        // HaplotypeCaller runs once per chromosome; the per-chromosome VCFs are merged afterwards
+        Pipeline perChromosome = new Pipeline("Variant Calling per chromosome");
+        perChromosome.addStep(new PipelineStep() {
             @Override
             public String getName() {
-                return "Variant Calling";
+                return "HaplotypeCaller";
             }
             
             @Override
             public void execute(ExecutionContext ctx) throws Exception {
-                System.out.println("  Calling variants with GATK HaplotypeCaller...");
-                Thread.sleep(700);
-                ctx.setOutput("vcf_file", "/results/variants.vcf");
-                ctx.setOutput("variant_count", 15234);
+                String chromosome = ctx.getInputAsString("chromosome");
+                Thread.sleep(30);
+                ctx.setOutput("vcf_file", "/results/variants." + chromosome + ".vcf");
+                ctx.setOutput("variant_count", 635);
             }
         });
         
+        pipeline.addStep(new ScatterGatherStep.Builder()
+                .name("Variant Calling")
+                .description("GATK HaplotypeCaller, scattered by chromosome")
+                .scatter(ctx -> ctx.hasInput("chromosomes")
+                        ? (Collection<?>) ctx.getInput("chromosomes") : HUMAN_CHROMOSOMES)
+                .as("chromosome")
+                .pipeline(perChromosome)
+                .produces("vcf_file", "variant_count")
+                .gather((shards, ctx) -> {
+                    int variants = 0;
+                    for (Map<String, Object> shard : shards) {
+                        variants += (Integer) shard.get("variant_count");
+                    }
+                    System.out.println("  Merging " + shards.size() + " per-chromosome VCFs...");
+                    ctx.setOutput("vcf_file", "/results/variants.vcf");
+                    ctx.setOutput("variant_count", variants);
+                })
+                .build(), Arrays.asList("Mark Duplicates"));
+        
         return pipeline;
     }
     
@@ -281,6 +422,7 @@ public class WeaveApplication {
         if (result.isSuccess()) {
             System.out.println("\n✓ Pipeline completed successfully");
             System.out.println("Results: " + result.getData());
+            System.out.println("Reused from step cache: " + result.getMetadata().get("cached_steps"));
         } else {
             System.err.println("\n✗ Pipeline failed: " + result.getMessage());
         }
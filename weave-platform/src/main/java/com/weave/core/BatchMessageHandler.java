@@ -0,0 +1,20 @@
+// FILE: src/main/java/com/weave/core/BatchMessageHandler.java
+
+package com.weave.core;
+
+import java.util.List;
+
+/**
+ * Functional interface for handling messages in batches
+ * Subscribed with WeaveMessageBus.subscribeBatch; batch size and linger time
+ * come from the subscription's SubscriptionConfig
+ */
+@FunctionalInterface
+public interface BatchMessageHandler {
+    /**
+     * Handle a batch of messages
+     * @param messages One or more messages, in publish order
+     * @throws Exception if handling fails; the whole batch counts as failed
+     */
+    void handleBatch(List<Message> messages) throws Exception;
+}
@@ -0,0 +1,238 @@
+// FILE: src/main/java/com/weave/core/BridgeConfig.java
+
+package com.weave.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+/**
+ * Configuration for a BusBridge
+ * Which topics are forwarded to peers, how messages are batched and
+ * compressed on the wire, how much is buffered for a disconnected peer and
+ * how reconnects back off.
+ */
+public class BridgeConfig {
+    private final String nodeId;
+    private final List<String> topics;
+    private final int maxBatchSize;
+    private final Duration maxLinger;
+    private final int compressionThreshold;
+    private final int compressionLevel;
+    private final int maxPendingMessages;
+    private final int maxInFlightBatches;
+    private final int maxFrameBytes;
+    private final Duration reconnectDelay;
+    private final Duration maxReconnectDelay;
+
+    private BridgeConfig(Builder builder) {
+        this.nodeId = builder.nodeId;
+        this.topics = Collections.unmodifiableList(new ArrayList<>(builder.topics));
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxLinger = builder.maxLinger;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.compressionLevel = builder.compressionLevel;
+        this.maxPendingMessages = builder.maxPendingMessages;
+        this.maxInFlightBatches = builder.maxInFlightBatches;
+        this.maxFrameBytes = builder.maxFrameBytes;
+        this.reconnectDelay = builder.reconnectDelay;
+        this.maxReconnectDelay = builder.maxReconnectDelay;
+    }
+
+    /**
+     * Get the name this node announces to its peers
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Get the topics and wildcard patterns forwarded to peers
+     */
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getMaxLinger() {
+        return maxLinger;
+    }
+
+    /**
+     * Get the batch size in bytes from which batches are deflated, or -1 if compression is off
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Get how many messages may be queued or unacknowledged per peer before new ones are dropped
+     */
+    public int getMaxPendingMessages() {
+        return maxPendingMessages;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public int getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    public Duration getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public Duration getMaxReconnectDelay() {
+        return maxReconnectDelay;
+    }
+
+    @Override
+    public String toString() {
+        return "BridgeConfig{" +
+                "nodeId='" + nodeId + '\'' +
+                ", topics=" + topics +
+                ", maxBatchSize=" + maxBatchSize +
+                ", maxLinger=" + maxLinger +
+                ", compressionThreshold=" + compressionThreshold +
+                ", maxPendingMessages=" + maxPendingMessages +
+                ", maxInFlightBatches=" + maxInFlightBatches +
+                '}';
+    }
+
+    /**
+     * Builder for bridge configs
+     */
+    public static class Builder {
+        private String nodeId = "node-" + UUID.randomUUID().toString().substring(0, 8);
+        private final List<String> topics = new ArrayList<>();
+        private int maxBatchSize = 256;
+        private Duration maxLinger = Duration.ofMillis(2);
+        private int compressionThreshold = 1024;
+        private int compressionLevel = Deflater.BEST_SPEED;
+        private int maxPendingMessages = 100_000;
+        private int maxInFlightBatches = 16;
+        private int maxFrameBytes = 16 * 1024 * 1024;
+        private Duration reconnectDelay = Duration.ofMillis(100);
+        private Duration maxReconnectDelay = Duration.ofSeconds(5);
+
+        public Builder nodeId(String nodeId) {
+            this.nodeId = nodeId;
+            return this;
+        }
+
+        /**
+         * Forward messages published locally on these topics or patterns ("workflow.>")
+         */
+        public Builder forward(String... topics) {
+            for (String topic : topics) {
+                SubscriptionTrie.validate(topic);
+                this.topics.add(topic);
+            }
+            return this;
+        }
+
+        /**
+         * Messages per frame; a full batch is sent without waiting for the linger time
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * How long a partial batch waits for more messages before it is sent
+         */
+        public Builder maxLinger(Duration maxLinger) {
+            this.maxLinger = maxLinger;
+            return this;
+        }
+
+        /**
+         * Deflate batches of at least this many bytes
+         * Deflating trades CPU for bandwidth; on fast local links noCompression() can move more messages
+         */
+        public Builder compressAbove(int bytes) {
+            this.compressionThreshold = bytes;
+            return this;
+        }
+
+        public Builder compressionLevel(int level) {
+            this.compressionLevel = level;
+            return this;
+        }
+
+        public Builder noCompression() {
+            this.compressionThreshold = -1;
+            return this;
+        }
+
+        public Builder maxPendingMessages(int maxPendingMessages) {
+            this.maxPendingMessages = maxPendingMessages;
+            return this;
+        }
+
+        /**
+         * Batches sent to a peer but not yet acknowledged before sending pauses
+         */
+        public Builder maxInFlightBatches(int maxInFlightBatches) {
+            this.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        /**
+         * Largest frame accepted from a peer; larger frames close the connection
+         */
+        public Builder maxFrameBytes(int maxFrameBytes) {
+            this.maxFrameBytes = maxFrameBytes;
+            return this;
+        }
+
+        /**
+         * First reconnect delay; doubles after each failed attempt up to the maximum
+         */
+        public Builder reconnectDelay(Duration reconnectDelay) {
+            this.reconnectDelay = reconnectDelay;
+            return this;
+        }
+
+        public Builder maxReconnectDelay(Duration maxReconnectDelay) {
+            this.maxReconnectDelay = maxReconnectDelay;
+            return this;
+        }
+
+        public BridgeConfig build() {
+            if (nodeId == null || nodeId.isEmpty()) {
+                throw new IllegalArgumentException("Node id cannot be empty");
+            }
+            if (maxBatchSize <= 0 || maxPendingMessages <= 0 || maxInFlightBatches <= 0) {
+                throw new IllegalArgumentException("Batch size, pending messages and in-flight batches must be positive");
+            }
+            if (maxLinger == null || maxLinger.isNegative()) {
+                throw new IllegalArgumentException("Max linger cannot be negative");
+            }
+            if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+            }
+            if (maxFrameBytes < 1024) {
+                throw new IllegalArgumentException("Max frame size must be at least 1024 bytes");
+            }
+            if (reconnectDelay == null || reconnectDelay.isNegative() || reconnectDelay.isZero()
+                    || maxReconnectDelay == null || maxReconnectDelay.compareTo(reconnectDelay) < 0) {
+                throw new IllegalArgumentException("Reconnect delays must be positive and max >= initial");
+            }
+            return new BridgeConfig(this);
+        }
+    }
+}
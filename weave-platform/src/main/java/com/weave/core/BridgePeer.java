@@ -0,0 +1,134 @@
+// FILE: src/main/java/com/weave/core/BridgePeer.java
+
+package com.weave.core;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * One remote node of a BusBridge
+ * Outlives its connections: messages queue here while the peer is away and
+ * batches stay unacknowledged until the peer confirms them, so they can be
+ * resent after a reconnect. The queue is shared with publishing threads;
+ * everything else belongs to the bridge's I/O thread.
+ */
+final class BridgePeer {
+    private final InetSocketAddress address;
+    private final int maxPending;
+    private final int maxBatchSize;
+
+    // Guarded by this
+    private final ArrayDeque<String> queuedTopics = new ArrayDeque<>();
+    private final ArrayDeque<Message> queuedMessages = new ArrayDeque<>();
+    private int pending;
+    private long firstQueuedAt;
+
+    // I/O thread only
+    final ArrayDeque<Batch> unacked = new ArrayDeque<>();
+    long nextSeq;
+    volatile String nodeId;
+    long remoteEpoch;
+    long lastReceivedSeq;
+    // A received batch is being published; the peer is not read meanwhile
+    boolean delivering;
+    volatile BusBridge.Connection connection;
+    long reconnectAt;
+    long reconnectDelayNanos;
+
+    BridgePeer(InetSocketAddress address, int maxPending, int maxBatchSize) {
+        this.address = address;
+        this.maxPending = maxPending;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Get the address this bridge dials, or null for a peer that dialed in
+     */
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Queue a message for the peer
+     * @return 1 if the I/O thread should be woken, 0 if not, -1 if the peer is full and the message was dropped
+     */
+    synchronized int offer(String topic, Message message) {
+        if (pending >= maxPending) {
+            return -1;
+        }
+        queuedTopics.add(topic);
+        queuedMessages.add(message);
+        pending++;
+        int queued = queuedMessages.size();
+        if (queued == 1) {
+            // Wake once to start the linger clock, then again when a batch fills
+            firstQueuedAt = System.nanoTime();
+            return 1;
+        }
+        return queued == maxBatchSize ? 1 : 0;
+    }
+
+    /**
+     * Take the next batch if it is full or has lingered long enough
+     * @return true if topics and messages were filled
+     */
+    synchronized boolean takeBatch(long now, long lingerNanos, List<String> topics, List<Message> messages) {
+        int queued = queuedMessages.size();
+        if (queued == 0 || (queued < maxBatchSize && now - firstQueuedAt < lingerNanos)) {
+            return false;
+        }
+        for (int i = 0; i < maxBatchSize && !queuedMessages.isEmpty(); i++) {
+            topics.add(queuedTopics.poll());
+            messages.add(queuedMessages.poll());
+        }
+        firstQueuedAt = now;
+        return true;
+    }
+
+    /**
+     * Get when the oldest queued message is due, or Long.MAX_VALUE if nothing is queued
+     */
+    synchronized long nextBatchDue(long lingerNanos) {
+        if (queuedMessages.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return queuedMessages.size() >= maxBatchSize ? 0 : firstQueuedAt + lingerNanos;
+    }
+
+    /**
+     * Forget messages the peer acknowledged
+     */
+    synchronized void acknowledged(int count) {
+        pending -= count;
+    }
+
+    synchronized int getPendingCount() {
+        return pending;
+    }
+
+    boolean isConnected() {
+        BusBridge.Connection current = connection;
+        return current != null && current.isReady();
+    }
+
+    @Override
+    public String toString() {
+        return "BridgePeer{nodeId=" + nodeId + ", address=" + address + '}';
+    }
+
+    /**
+     * A numbered run of messages sent to the peer and awaiting its ack
+     */
+    static final class Batch {
+        final long seq;
+        final List<String> topics;
+        final List<Message> messages;
+
+        Batch(long seq, List<String> topics, List<Message> messages) {
+            this.seq = seq;
+            this.topics = topics;
+            this.messages = messages;
+        }
+    }
+}
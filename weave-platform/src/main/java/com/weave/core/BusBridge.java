@@ -0,0 +1,966 @@
+// FILE: src/main/java/com/weave/core/BusBridge.java
+
+package com.weave.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Forwards topics between WeaveMessageBus instances in different JVMs over TCP
+ *
+ * Messages published locally on the configured topics are queued per peer
+ * and sent by one non-blocking I/O thread in length-prefixed frames, each
+ * carrying a numbered batch of MessageCodec-encoded messages, deflated once
+ * the batch is large enough. Peers publish what they receive on their own
+ * bus and acknowledge each batch. Received batches are published off the
+ * I/O thread, one at a time per peer; that peer's connection is not read
+ * until its batch is published, so a local subscriber that back-pressures
+ * the bus slows down only the peers sending to it.
+ *
+ * Delivery is at least once: batches stay buffered until acknowledged and
+ * are resent after a reconnect, and the receiver drops batches it has
+ * already published, so a resend after a lost ack is not delivered twice.
+ * Dialed peers are redialed with exponential backoff. A peer that stays away
+ * keeps queueing up to maxPendingMessages; beyond that new messages for it
+ * are dropped and counted.
+ *
+ * Messages received from a peer are not forwarded again, so connect every
+ * pair of nodes that should exchange messages, once, from either side.
+ */
+public final class BusBridge {
+    private static final byte FRAME_HELLO = 1;
+    private static final byte FRAME_BATCH = 2;
+    private static final byte FRAME_ACK = 3;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int PROTOCOL_VERSION = 1;
+    private static final String INBOX_PREFIX = "_inbox.";
+    private static final int MAX_CACHED_TOPICS = 10_000;
+
+    private final WeaveMessageBus bus;
+    private final BridgeConfig config;
+    private final long epoch;
+    private final long lingerNanos;
+    private final Selector selector;
+    private final Thread ioThread;
+    private final Executor deliveryExecutor = WeaveExecutors.ioExecutor();
+    // Set while a thread publishes messages received from a peer
+    private final ThreadLocal<Boolean> delivering = new ThreadLocal<>();
+    private final List<BridgePeer> peers = new CopyOnWriteArrayList<>();
+    private final List<ServerSocketChannel> servers = new CopyOnWriteArrayList<>();
+    private final Set<Connection> connections = new HashSet<>();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, Boolean> forwardedTopics = new ConcurrentHashMap<>();
+    private final PublishListener listener = this::published;
+    private final AtomicLong forwardedCount = new AtomicLong();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong resentCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * Start a bridge for a bus; it forwards nothing until it listens or connects
+     * @throws IllegalStateException if the selector cannot be opened
+     */
+    public BusBridge(WeaveMessageBus bus, BridgeConfig config) {
+        if (bus == null || config == null) {
+            throw new IllegalArgumentException("Bus and bridge config cannot be null");
+        }
+        this.bus = bus;
+        this.config = config;
+        // Lets peers tell a restarted node from a reconnecting one
+        this.epoch = ThreadLocalRandom.current().nextLong() | 1;
+        this.lingerNanos = config.getMaxLinger().toNanos();
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open selector for bridge " + config.getNodeId(), e);
+        }
+        this.running = true;
+        this.ioThread = new Thread(this::run, "weave-bridge-" + config.getNodeId());
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+        bus.addPublishListener(listener);
+    }
+
+    /**
+     * Accept peers on a port
+     * @param port The port, or 0 for any free port
+     * @return The bound port
+     * @throws IllegalStateException if the port cannot be bound
+     */
+    public int listen(int port) {
+        checkRunning();
+        try {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            servers.add(server);
+            submit(() -> {
+                try {
+                    server.register(selector, SelectionKey.OP_ACCEPT);
+                } catch (IOException e) {
+                    System.err.println("Bridge " + config.getNodeId() + " cannot accept on port " + port + ": " + e.getMessage());
+                }
+            });
+            int bound = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            System.out.println("Bridge " + config.getNodeId() + " listening on port " + bound);
+            return bound;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to listen on port " + port, e);
+        }
+    }
+
+    /**
+     * Dial a peer; the bridge keeps redialing it whenever the connection drops
+     * Messages are queued for the peer from now on, even before it answers
+     */
+    public void connect(String host, int port) {
+        checkRunning();
+        BridgePeer peer = new BridgePeer(new InetSocketAddress(host, port),
+                config.getMaxPendingMessages(), config.getMaxBatchSize());
+        peer.reconnectDelayNanos = config.getReconnectDelay().toNanos();
+        peer.reconnectAt = System.nanoTime();
+        peers.add(peer);
+        selector.wakeup();
+    }
+
+    /**
+     * Wait until at least this many peers are connected
+     * @return true if they connected in time
+     */
+    public boolean awaitConnected(int count, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (getConnectedPeerCount() < count) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Stop the bridge and close its connections
+     * Messages not yet acknowledged by a peer are discarded
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        bus.removePublishListener(listener);
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getNodeId() {
+        return config.getNodeId();
+    }
+
+    public BridgeConfig getConfig() {
+        return config;
+    }
+
+    public int getPeerCount() {
+        return peers.size();
+    }
+
+    public int getConnectedPeerCount() {
+        int connected = 0;
+        for (BridgePeer peer : peers) {
+            if (peer.isConnected()) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+
+    /**
+     * Get the messages queued or awaiting acknowledgement across all peers
+     */
+    public long getPendingCount() {
+        long pending = 0;
+        for (BridgePeer peer : peers) {
+            pending += peer.getPendingCount();
+        }
+        return pending;
+    }
+
+    /**
+     * Get the messages sent to peers, counting each peer once and not counting resends
+     */
+    public long getForwardedCount() {
+        return forwardedCount.get();
+    }
+
+    /**
+     * Get the messages received from peers and published on the local bus
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * Get the messages received again after a resend and not republished
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    /**
+     * Get the messages dropped because a peer had too many pending
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the received messages the local bus refused to publish
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the batches sent again after a reconnect
+     */
+    public long getResentCount() {
+        return resentCount.get();
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * Get the bytes written to peers, after compression
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException("Bridge " + config.getNodeId() + " is closed");
+        }
+    }
+
+    private void submit(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    // ---- publishing side ----
+
+    /**
+     * Queue a locally published message for every peer
+     * Runs on the publishing thread; messages this bridge publishes for a
+     * peer are not sent on
+     */
+    private void published(String topic, Message message) {
+        if (delivering.get() != null || peers.isEmpty() || !isForwarded(topic)) {
+            return;
+        }
+        Message copy = message.detach();
+        boolean wake = false;
+        for (BridgePeer peer : peers) {
+            int result = peer.offer(topic, copy);
+            if (result > 0) {
+                wake = true;
+            } else if (result < 0) {
+                droppedCount.incrementAndGet();
+            }
+        }
+        if (wake) {
+            selector.wakeup();
+        }
+    }
+
+    private boolean isForwarded(String topic) {
+        Boolean forwarded = forwardedTopics.get(topic);
+        if (forwarded == null) {
+            forwarded = false;
+            if (!topic.startsWith(INBOX_PREFIX)) {
+                for (String pattern : config.getTopics()) {
+                    if (SubscriptionTrie.matches(pattern, topic)) {
+                        forwarded = true;
+                        break;
+                    }
+                }
+            }
+            if (forwardedTopics.size() >= MAX_CACHED_TOPICS) {
+                forwardedTopics.clear();
+            }
+            forwardedTopics.put(topic, forwarded);
+        }
+        return forwarded;
+    }
+
+    // ---- I/O thread ----
+
+    private void run() {
+        while (running) {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                long now = System.nanoTime();
+                long next = service(now);
+                if (next - now <= 0) {
+                    selector.selectNow();
+                } else if (next == Long.MAX_VALUE) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - now)));
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Bridge " + config.getNodeId() + " I/O loop error: " + e.getMessage());
+            }
+        }
+        shutdownIo();
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept((ServerSocketChannel) key.channel());
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                connection.finishConnect();
+            }
+            if (key.isValid() && key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            disconnect(connection, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    /**
+     * Dial peers that are due, send batches that are full or have lingered
+     * @return The nanoTime at which something next falls due
+     */
+    private long service(long now) {
+        long next = Long.MAX_VALUE;
+        for (BridgePeer peer : peers) {
+            Connection connection = peer.connection;
+            if (connection == null) {
+                if (peer.getAddress() != null) {
+                    if (now - peer.reconnectAt >= 0) {
+                        dial(peer);
+                    } else {
+                        next = Math.min(next, peer.reconnectAt);
+                    }
+                }
+                continue;
+            }
+            if (!connection.ready) {
+                continue;
+            }
+            try {
+                sendBatches(peer, connection, now);
+            } catch (IOException e) {
+                disconnect(connection, e.getMessage());
+                continue;
+            }
+            if (peer.unacked.size() < config.getMaxInFlightBatches()) {
+                long due = peer.nextBatchDue(lingerNanos);
+                if (due != Long.MAX_VALUE) {
+                    next = Math.min(next, Math.max(due, now));
+                }
+            }
+        }
+        return next;
+    }
+
+    private void sendBatches(BridgePeer peer, Connection connection, long now) throws IOException {
+        boolean sent = false;
+        while (peer.unacked.size() < config.getMaxInFlightBatches()) {
+            List<String> topics = new ArrayList<>();
+            List<Message> messages = new ArrayList<>();
+            if (!peer.takeBatch(now, lingerNanos, topics, messages)) {
+                break;
+            }
+            BridgePeer.Batch batch = new BridgePeer.Batch(++peer.nextSeq, topics, messages);
+            peer.unacked.add(batch);
+            connection.sendBatch(batch);
+            forwardedCount.addAndGet(messages.size());
+            sent = true;
+        }
+        if (sent) {
+            connection.flush();
+        }
+    }
+
+    private void dial(BridgePeer peer) {
+        Connection connection = null;
+        try {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            connection = new Connection(channel, peer);
+            peer.connection = connection;
+            if (channel.connect(peer.getAddress())) {
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connection.sendHello();
+            } else {
+                connection.key = channel.register(selector, SelectionKey.OP_CONNECT, connection);
+            }
+        } catch (IOException e) {
+            if (connection != null) {
+                disconnect(connection, e.getMessage());
+            } else {
+                scheduleReconnect(peer);
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel server) {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel, null);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connection.sendHello();
+        } catch (IOException e) {
+            System.err.println("Bridge " + config.getNodeId() + " failed to accept a peer: " + e.getMessage());
+        }
+    }
+
+    private void disconnect(Connection connection, String reason) {
+        if (!connection.close()) {
+            return;
+        }
+        BridgePeer peer = connection.peer;
+        if (peer == null || peer.connection != connection) {
+            return;
+        }
+        peer.connection = null;
+        if (running) {
+            System.err.println("Bridge " + config.getNodeId() + " lost connection to " + describe(peer) + ": " + reason);
+        }
+        if (peer.getAddress() != null) {
+            scheduleReconnect(peer);
+        }
+    }
+
+    private void scheduleReconnect(BridgePeer peer) {
+        peer.reconnectAt = System.nanoTime() + peer.reconnectDelayNanos;
+        peer.reconnectDelayNanos = Math.min(peer.reconnectDelayNanos * 2, config.getMaxReconnectDelay().toNanos());
+        reconnectCount.incrementAndGet();
+    }
+
+    private void shutdownIo() {
+        for (Connection connection : new ArrayList<>(connections)) {
+            connection.close();
+        }
+        for (ServerSocketChannel server : servers) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("Error closing bridge listener: " + e.getMessage());
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing bridge selector: " + e.getMessage());
+        }
+        long pending = getPendingCount();
+        System.out.println("Bridge " + config.getNodeId() + " closed"
+                + (pending > 0 ? " with " + pending + " unacknowledged messages" : ""));
+    }
+
+    private static String describe(BridgePeer peer) {
+        return peer.nodeId != null ? peer.nodeId : String.valueOf(peer.getAddress());
+    }
+
+    // ---- frames ----
+
+    private void onHello(Connection connection, ByteBuffer frame) throws IOException {
+        int version = frame.getInt();
+        if (version != PROTOCOL_VERSION) {
+            throw new IOException("Unsupported bridge protocol version " + version);
+        }
+        long remoteEpoch = frame.getLong();
+        String nodeId = readString(frame);
+        if (nodeId.equals(config.getNodeId())) {
+            throw new IOException("Peer has this bridge's own node id " + nodeId);
+        }
+        BridgePeer peer = connection.peer;
+        if (peer == null) {
+            peer = inboundPeer(nodeId);
+            Connection previous = peer.connection;
+            if (previous != null && previous != connection) {
+                // The peer redialed before we noticed the old connection died
+                disconnect(previous, "replaced by a new connection");
+            }
+            peer.connection = connection;
+            connection.peer = peer;
+        }
+        peer.nodeId = nodeId;
+        if (peer.remoteEpoch != remoteEpoch) {
+            peer.remoteEpoch = remoteEpoch;
+            peer.lastReceivedSeq = 0;
+        }
+        peer.reconnectDelayNanos = config.getReconnectDelay().toNanos();
+        connection.ready = true;
+        for (BridgePeer.Batch batch : peer.unacked) {
+            connection.sendBatch(batch);
+            resentCount.incrementAndGet();
+        }
+        connection.flush();
+        System.out.println("Bridge " + config.getNodeId() + " connected to " + nodeId
+                + (peer.unacked.isEmpty() ? "" : ", resending " + peer.unacked.size() + " batches"));
+    }
+
+    private BridgePeer inboundPeer(String nodeId) {
+        for (BridgePeer peer : peers) {
+            if (peer.getAddress() == null && nodeId.equals(peer.nodeId)) {
+                return peer;
+            }
+        }
+        BridgePeer peer = new BridgePeer(null, config.getMaxPendingMessages(), config.getMaxBatchSize());
+        peer.nodeId = nodeId;
+        peers.add(peer);
+        return peer;
+    }
+
+    private void onBatch(Connection connection, ByteBuffer frame) throws IOException, DataFormatException {
+        BridgePeer peer = connection.peer;
+        if (peer == null || !connection.ready) {
+            throw new IOException("Batch received before hello");
+        }
+        long seq = frame.getLong();
+        byte flags = frame.get();
+        int rawLength = frame.getInt();
+        ByteBuffer raw = (flags & FLAG_DEFLATED) != 0 ? connection.inflate(frame, rawLength) : frame;
+
+        // New strings must be applied even for a duplicate: the sender's table moved on
+        int strings = raw.getInt();
+        for (int i = 0; i < strings; i++) {
+            connection.decodeStrings.intern(readString(raw));
+        }
+        int count = raw.getInt();
+        if (seq <= peer.lastReceivedSeq) {
+            duplicateCount.addAndGet(count);
+            connection.sendAck(seq);
+            return;
+        }
+        // Decoded here, as the string table follows the frame order
+        List<String> topics = new ArrayList<>(count);
+        List<Message> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            topics.add(readString(raw));
+            int length = raw.getInt();
+            messages.add(connection.decoder.decode(raw.slice(raw.position(), length)));
+            raw.position(raw.position() + length);
+        }
+        // A resend that arrives while this one is published is a duplicate
+        peer.lastReceivedSeq = seq;
+        peer.delivering = true;
+        deliveryExecutor.execute(() -> deliver(peer, seq, topics, messages));
+    }
+
+    /**
+     * Publish a received batch on the local bus, then acknowledge it and resume reading the peer
+     * Runs on the delivery executor, so a blocking publish stalls only this peer
+     */
+    private void deliver(BridgePeer peer, long seq, List<String> topics, List<Message> messages) {
+        delivering.set(Boolean.TRUE);
+        try {
+            int start = 0;
+            for (int i = 1; i <= topics.size(); i++) {
+                if (i == topics.size() || !topics.get(i).equals(topics.get(start))) {
+                    publish(topics.get(start), messages.subList(start, i));
+                    start = i;
+                }
+            }
+            receivedCount.addAndGet(messages.size());
+        } finally {
+            delivering.remove();
+            submit(() -> delivered(peer, seq));
+        }
+    }
+
+    private void delivered(BridgePeer peer, long seq) {
+        peer.delivering = false;
+        Connection connection = peer.connection;
+        if (connection == null) {
+            // Acknowledged when the peer reconnects and resends it
+            return;
+        }
+        try {
+            if (connection.ready) {
+                connection.sendAck(seq);
+            }
+            connection.resume();
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            disconnect(connection, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    /**
+     * Publish a run of received messages that share a topic
+     */
+    private void publish(String topic, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            bus.publishAll(topic, messages);
+        } catch (RuntimeException e) {
+            rejectedCount.addAndGet(messages.size());
+            System.err.println("Bridge " + config.getNodeId() + " could not publish " + messages.size()
+                    + " messages on " + topic + ": " + e.getMessage());
+        }
+    }
+
+    private void onAck(Connection connection, ByteBuffer frame) {
+        BridgePeer peer = connection.peer;
+        if (peer == null) {
+            return;
+        }
+        long seq = frame.getLong();
+        while (!peer.unacked.isEmpty() && peer.unacked.peek().seq <= seq) {
+            peer.acknowledged(peer.unacked.poll().messages.size());
+        }
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, 4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * One TCP connection to a peer, with its own string tables and compressors
+     * Used only by the I/O thread
+     */
+    final class Connection {
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> writes = new ArrayDeque<>();
+        private final MessageCodec encoder = new MessageCodec();
+        private final StringTable decodeStrings = new StringTable();
+        private final MessageCodec decoder = new MessageCodec(decodeStrings);
+        private final Deflater deflater = new Deflater(config.getCompressionLevel());
+        private final Inflater inflater = new Inflater();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+        private ByteBuffer encoded = ByteBuffer.allocate(64 * 1024);
+        private ByteBuffer body = ByteBuffer.allocate(64 * 1024);
+        private byte[] compressed = new byte[16 * 1024];
+        private byte[] inflated = new byte[16 * 1024];
+        private int stringsSent;
+        private boolean closed;
+        BridgePeer peer;
+        SelectionKey key;
+        volatile boolean ready;
+
+        Connection(SocketChannel channel, BridgePeer peer) {
+            this.channel = channel;
+            this.peer = peer;
+            connections.add(this);
+        }
+
+        boolean isReady() {
+            return ready;
+        }
+
+        void finishConnect() throws IOException {
+            channel.finishConnect();
+            key.interestOps(SelectionKey.OP_READ);
+            sendHello();
+        }
+
+        void sendHello() throws IOException {
+            byte[] node = config.getNodeId().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer frame = ByteBuffer.allocate(4 + 1 + 4 + 8 + 4 + node.length);
+            frame.putInt(frame.capacity() - 4).put(FRAME_HELLO).putInt(PROTOCOL_VERSION).putLong(epoch);
+            frame.putInt(node.length).put(node);
+            writes.add(frame.flip());
+            flush();
+        }
+
+        void sendAck(long seq) throws IOException {
+            ByteBuffer frame = ByteBuffer.allocate(4 + 1 + 8);
+            frame.putInt(9).put(FRAME_ACK).putLong(seq);
+            writes.add(frame.flip());
+            flush();
+        }
+
+        /**
+         * Encode a batch into a frame: strings interned since the last frame,
+         * then each message's topic and encoding, deflated when large enough
+         */
+        void sendBatch(BridgePeer.Batch batch) {
+            encoded.clear();
+            for (int i = 0; i < batch.messages.size(); i++) {
+                encoded = putString(encoded, batch.topics.get(i));
+                ByteBuffer message = encoder.encode(batch.messages.get(i));
+                encoded = ensure(encoded, 4 + message.remaining());
+                encoded.putInt(message.remaining());
+                encoded.put(message);
+            }
+            List<String> fresh = encoder.getStringTable().entriesFrom(stringsSent);
+            stringsSent += fresh.size();
+
+            body.clear();
+            body = ensure(body, 4);
+            body.putInt(fresh.size());
+            for (String value : fresh) {
+                body = putString(body, value);
+            }
+            body = ensure(body, 4 + encoded.position());
+            body.putInt(batch.messages.size());
+            body.put(encoded.array(), 0, encoded.position());
+
+            int rawLength = body.position();
+            byte[] data = body.array();
+            int dataLength = rawLength;
+            byte flags = 0;
+            int threshold = config.getCompressionThreshold();
+            if (threshold >= 0 && rawLength >= threshold) {
+                int deflatedLength = deflate(data, rawLength);
+                if (deflatedLength < rawLength) {
+                    data = compressed;
+                    dataLength = deflatedLength;
+                    flags = FLAG_DEFLATED;
+                }
+            }
+            ByteBuffer frame = ByteBuffer.allocate(4 + 1 + 8 + 1 + 4 + dataLength);
+            frame.putInt(frame.capacity() - 4).put(FRAME_BATCH).putLong(batch.seq).put(flags).putInt(rawLength);
+            frame.put(data, 0, dataLength);
+            writes.add(frame.flip());
+        }
+
+        private int deflate(byte[] data, int length) {
+            deflater.reset();
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            int size = 0;
+            while (!deflater.finished()) {
+                if (size == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                size += deflater.deflate(compressed, size, compressed.length - size);
+            }
+            return size;
+        }
+
+        ByteBuffer inflate(ByteBuffer frame, int rawLength) throws DataFormatException, IOException {
+            if (rawLength < 0 || rawLength > config.getMaxFrameBytes() * 8L) {
+                throw new IOException("Invalid batch length " + rawLength);
+            }
+            if (inflated.length < rawLength) {
+                inflated = new byte[rawLength];
+            }
+            inflater.reset();
+            inflater.setInput(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            int size = 0;
+            while (size < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(inflated, size, rawLength - size);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += n;
+            }
+            if (size != rawLength) {
+                throw new IOException("Truncated compressed batch");
+            }
+            return ByteBuffer.wrap(inflated, 0, rawLength);
+        }
+
+        /**
+         * Read what is available and handle every complete frame
+         */
+        void read() throws IOException, DataFormatException {
+            if (channel.read(readBuffer) < 0) {
+                throw new EOFException("connection closed by peer");
+            }
+            handleFrames();
+        }
+
+        /**
+         * Handle the frames read while a received batch was being published
+         */
+        void resume() throws IOException, DataFormatException {
+            if (!closed) {
+                handleFrames();
+            }
+        }
+
+        /**
+         * Handle buffered frames until a received batch is handed off for publishing
+         */
+        private void handleFrames() throws IOException, DataFormatException {
+            readBuffer.flip();
+            while (readBuffer.remaining() >= 4 && !closed && !isPaused()) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length <= 0 || length > config.getMaxFrameBytes()) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (readBuffer.remaining() - 4 < length) {
+                    break;
+                }
+                int start = readBuffer.position() + 4;
+                byte type = readBuffer.get(start);
+                ByteBuffer frame = readBuffer.slice(start + 1, length - 1);
+                readBuffer.position(start + length);
+                switch (type) {
+                    case FRAME_HELLO:
+                        onHello(this, frame);
+                        break;
+                    case FRAME_BATCH:
+                        onBatch(this, frame);
+                        break;
+                    case FRAME_ACK:
+                        onAck(this, frame);
+                        break;
+                    default:
+                        throw new IOException("Unknown frame type " + type);
+                }
+            }
+            readBuffer.compact();
+            if (readBuffer.position() >= 4) {
+                int needed = 4 + readBuffer.getInt(0);
+                if (needed > readBuffer.capacity()) {
+                    ByteBuffer grown = ByteBuffer.allocate(needed);
+                    readBuffer.flip();
+                    grown.put(readBuffer);
+                    readBuffer = grown;
+                }
+            }
+            updateInterest();
+        }
+
+        private boolean isPaused() {
+            return peer != null && peer.delivering;
+        }
+
+        /**
+         * Write queued frames; keeps write interest while the socket is full
+         */
+        void flush() throws IOException {
+            if (closed || !channel.isConnected()) {
+                return;
+            }
+            if (!writes.isEmpty()) {
+                long written = channel.write(writes.toArray(new ByteBuffer[0]));
+                bytesSent.addAndGet(written);
+                while (!writes.isEmpty() && !writes.peek().hasRemaining()) {
+                    writes.poll();
+                }
+            }
+            updateInterest();
+        }
+
+        /**
+         * Read unless a received batch is being published; write while frames are queued
+         */
+        private void updateInterest() {
+            if (key != null && key.isValid() && channel.isConnected()) {
+                int ops = isPaused() ? 0 : SelectionKey.OP_READ;
+                key.interestOps(writes.isEmpty() ? ops : ops | SelectionKey.OP_WRITE);
+            }
+        }
+
+        /**
+         * @return true if this call closed the connection
+         */
+        boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            ready = false;
+            connections.remove(this);
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing bridge connection: " + e.getMessage());
+            }
+            deflater.end();
+            inflater.end();
+            return true;
+        }
+    }
+}
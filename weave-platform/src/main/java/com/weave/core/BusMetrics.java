@@ -0,0 +1,266 @@
+// FILE: src/main/java/com/weave/core/BusMetrics.java
+
+package com.weave.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of a WeaveMessageBus
+ * The hot path only bumps striped LongAdders and lock-free latency
+ * histograms kept by topics, mailboxes and ring consumers; this class reads
+ * them on demand. A timer tick every five seconds turns the counters into
+ * one-minute exponentially weighted rates, like a load average. Snapshots
+ * are available directly and, once registered, as a platform MXBean.
+ */
+public final class BusMetrics implements BusMetricsMXBean {
+    private static final long TICK_SECONDS = 5;
+    private static final double ALPHA = 1 - Math.exp(-TICK_SECONDS / 60.0);
+    private static final long CACHE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final WeaveMessageBus bus;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, Rate> publishRates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Rate> dispatchRates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Subscription, Rate> handleRates = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> tick;
+    private volatile BusMetricsSnapshot cached;
+    private volatile long cachedAt;
+    private ObjectName registeredName;
+
+    BusMetrics(WeaveMessageBus bus, ExecutorService executor, ScheduledExecutorService timer) {
+        this.bus = bus;
+        this.executor = executor;
+        // Start rates from the current totals, so a busy bus does not report its history as one burst
+        tick(true);
+        this.tick = timer.scheduleAtFixedRate(() -> tick(false), TICK_SECONDS, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Take a snapshot of every topic and subscription
+     */
+    public BusMetricsSnapshot snapshot() {
+        List<BusMetricsSnapshot.TopicMetrics> topicMetrics = new ArrayList<>();
+        for (Map.Entry<String, TopicBuffer> entry : bus.topicBuffers().entrySet()) {
+            String topic = entry.getKey();
+            TopicBuffer buffer = entry.getValue();
+            topicMetrics.add(new BusMetricsSnapshot.TopicMetrics(topic,
+                    buffer.getPublishedCount(), rate(publishRates.get(topic)),
+                    buffer.getDispatchedCount(), rate(dispatchRates.get(topic)),
+                    buffer.size(), buffer.getBytes(), buffer.getDroppedCount(), buffer.getRejectedCount()));
+        }
+        List<BusMetricsSnapshot.SubscriptionMetrics> subscriptionMetrics = new ArrayList<>();
+        for (Subscription subscription : bus.allSubscriptions()) {
+            Mailbox mailbox = subscription.getMailbox();
+            RingConsumer consumer = subscription.getRingConsumer();
+            int capacity = mailbox != null ? mailbox.getCapacity() : consumer != null ? consumer.getCapacity() : 0;
+            subscriptionMetrics.add(new BusMetricsSnapshot.SubscriptionMetrics(subscription.getTopic(),
+                    mailbox != null ? "mailbox" : "ring",
+                    subscription.getHandledCount(), rate(handleRates.get(subscription)),
+                    subscription.getFailedCount(), subscription.getDroppedCount(), subscription.getRejectedCount(),
+                    subscription.getLag(), capacity, subscription.getLatency()));
+        }
+        int poolSize = -1;
+        int active = -1;
+        int queued = -1;
+        long completed = -1;
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            poolSize = pool.getPoolSize();
+            active = pool.getActiveCount();
+            queued = pool.getQueue().size();
+            completed = pool.getCompletedTaskCount();
+        }
+        return new BusMetricsSnapshot(System.currentTimeMillis(), topicMetrics, subscriptionMetrics,
+                poolSize, active, queued, completed, bus.getPendingRequestCount());
+    }
+
+    /**
+     * Register these metrics with the platform MBean server
+     * as com.weave:type=MessageBus,name=&lt;name&gt;; unregistered when the bus shuts down
+     * @throws IllegalStateException if the name is taken or invalid
+     */
+    public synchronized void registerMBean(String name) {
+        if (registeredName != null) {
+            throw new IllegalStateException("Bus metrics already registered as " + registeredName);
+        }
+        try {
+            ObjectName objectName = new ObjectName("com.weave:type=MessageBus,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register bus metrics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the name these metrics are registered under, or null
+     */
+    public synchronized ObjectName getRegisteredName() {
+        return registeredName;
+    }
+
+    /**
+     * Stop updating rates and unregister from JMX
+     */
+    synchronized void close() {
+        tick.cancel(false);
+        if (registeredName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(registeredName);
+            } catch (JMException e) {
+                System.err.println("Failed to unregister bus metrics: " + e.getMessage());
+            }
+            registeredName = null;
+        }
+    }
+
+    /**
+     * Fold the counters of the last interval into the moving rates
+     */
+    private void tick(boolean seed) {
+        for (Map.Entry<String, TopicBuffer> entry : bus.topicBuffers().entrySet()) {
+            TopicBuffer buffer = entry.getValue();
+            publishRates.computeIfAbsent(entry.getKey(), k -> new Rate(seed ? buffer.getPublishedCount() : 0))
+                    .update(buffer.getPublishedCount());
+            dispatchRates.computeIfAbsent(entry.getKey(), k -> new Rate(seed ? buffer.getDispatchedCount() : 0))
+                    .update(buffer.getDispatchedCount());
+        }
+        handleRates.keySet().removeIf(subscription -> !subscription.isActive());
+        for (Subscription subscription : bus.allSubscriptions()) {
+            handleRates.computeIfAbsent(subscription, k -> new Rate(seed ? subscription.getHandledCount() : 0))
+                    .update(subscription.getHandledCount());
+        }
+    }
+
+    private static double rate(Rate rate) {
+        return rate != null ? rate.perSecond : 0;
+    }
+
+    private BusMetricsSnapshot cachedSnapshot() {
+        long now = System.nanoTime();
+        BusMetricsSnapshot snapshot = cached;
+        if (snapshot == null || now - cachedAt > CACHE_NANOS) {
+            snapshot = snapshot();
+            cached = snapshot;
+            cachedAt = now;
+        }
+        return snapshot;
+    }
+
+    @Override
+    public long getPublishedCount() {
+        return cachedSnapshot().getPublishedCount();
+    }
+
+    @Override
+    public double getPublishRate() {
+        return cachedSnapshot().getPublishRate();
+    }
+
+    @Override
+    public long getHandledCount() {
+        return cachedSnapshot().getHandledCount();
+    }
+
+    @Override
+    public double getHandleRate() {
+        return cachedSnapshot().getHandleRate();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return cachedSnapshot().getFailedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return cachedSnapshot().getDroppedCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return cachedSnapshot().getRejectedCount();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return cachedSnapshot().getQueueDepth();
+    }
+
+    @Override
+    public long getMaxQueueDepth() {
+        return cachedSnapshot().getMaxQueueDepth();
+    }
+
+    @Override
+    public int getExecutorQueueDepth() {
+        return cachedSnapshot().getExecutorQueueDepth();
+    }
+
+    @Override
+    public int getExecutorActiveThreads() {
+        return cachedSnapshot().getExecutorActiveThreads();
+    }
+
+    @Override
+    public int getPendingRequests() {
+        return cachedSnapshot().getPendingRequests();
+    }
+
+    @Override
+    public int getTopicCount() {
+        return cachedSnapshot().getTopics().size();
+    }
+
+    @Override
+    public int getSubscriptionCount() {
+        return cachedSnapshot().getSubscriptions().size();
+    }
+
+    @Override
+    public List<BusMetricsSnapshot.TopicMetrics> getTopics() {
+        return cachedSnapshot().getTopics();
+    }
+
+    @Override
+    public List<BusMetricsSnapshot.SubscriptionMetrics> getSubscriptions() {
+        return cachedSnapshot().getSubscriptions();
+    }
+
+    /**
+     * One-minute exponentially weighted rate of a growing counter; updated by the tick only
+     */
+    private static final class Rate {
+        private long last;
+        private boolean started;
+        private volatile double perSecond;
+
+        Rate(long start) {
+            this.last = start;
+        }
+
+        void update(long count) {
+            if (count == last && !started) {
+                return;
+            }
+            double instant = (count - last) / (double) TICK_SECONDS;
+            last = count;
+            // The first interval seeds the average instead of climbing to it from zero
+            perSecond = started ? perSecond + ALPHA * (instant - perSecond) : instant;
+            started = true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+// FILE: src/main/java/com/weave/core/BusMetricsMXBean.java
+
+package com.weave.core;
+
+import java.util.List;
+
+/**
+ * JMX view of a WeaveMessageBus's metrics
+ * Attributes are read from a snapshot refreshed at most once a second, so a
+ * console polling every attribute does not walk the bus for each one.
+ */
+public interface BusMetricsMXBean {
+
+    long getPublishedCount();
+
+    double getPublishRate();
+
+    long getHandledCount();
+
+    double getHandleRate();
+
+    long getFailedCount();
+
+    long getDroppedCount();
+
+    long getRejectedCount();
+
+    long getQueueDepth();
+
+    long getMaxQueueDepth();
+
+    int getExecutorQueueDepth();
+
+    int getExecutorActiveThreads();
+
+    int getPendingRequests();
+
+    int getTopicCount();
+
+    int getSubscriptionCount();
+
+    List<BusMetricsSnapshot.TopicMetrics> getTopics();
+
+    List<BusMetricsSnapshot.SubscriptionMetrics> getSubscriptions();
+}
@@ -0,0 +1,347 @@
+// FILE: src/main/java/com/weave/core/BusMetricsSnapshot.java
+
+package com.weave.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point-in-time view of a WeaveMessageBus's metrics
+ * Counters are totals since the bus (or subscription) started; rates are
+ * one-minute moving averages in messages per second.
+ */
+public final class BusMetricsSnapshot {
+    private final long timestamp;
+    private final List<TopicMetrics> topics;
+    private final List<SubscriptionMetrics> subscriptions;
+    private final int executorPoolSize;
+    private final int executorActiveThreads;
+    private final int executorQueueDepth;
+    private final long executorCompletedTasks;
+    private final int pendingRequests;
+
+    BusMetricsSnapshot(long timestamp, List<TopicMetrics> topics, List<SubscriptionMetrics> subscriptions,
+                       int executorPoolSize, int executorActiveThreads, int executorQueueDepth,
+                       long executorCompletedTasks, int pendingRequests) {
+        this.timestamp = timestamp;
+        this.topics = Collections.unmodifiableList(topics);
+        this.subscriptions = Collections.unmodifiableList(subscriptions);
+        this.executorPoolSize = executorPoolSize;
+        this.executorActiveThreads = executorActiveThreads;
+        this.executorQueueDepth = executorQueueDepth;
+        this.executorCompletedTasks = executorCompletedTasks;
+        this.pendingRequests = pendingRequests;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public List<TopicMetrics> getTopics() {
+        return topics;
+    }
+
+    public List<SubscriptionMetrics> getSubscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * Get the metrics of one topic, or null if it has none yet
+     */
+    public TopicMetrics getTopic(String topic) {
+        for (TopicMetrics metrics : topics) {
+            if (metrics.getTopic().equals(topic)) {
+                return metrics;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the bus executor's thread count, or -1 when it runs on virtual threads
+     */
+    public int getExecutorPoolSize() {
+        return executorPoolSize;
+    }
+
+    public int getExecutorActiveThreads() {
+        return executorActiveThreads;
+    }
+
+    /**
+     * Get the drain tasks waiting for a bus thread, or -1 when it runs on virtual threads
+     */
+    public int getExecutorQueueDepth() {
+        return executorQueueDepth;
+    }
+
+    public long getExecutorCompletedTasks() {
+        return executorCompletedTasks;
+    }
+
+    public int getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public long getPublishedCount() {
+        long total = 0;
+        for (TopicMetrics topic : topics) {
+            total += topic.getPublishedCount();
+        }
+        return total;
+    }
+
+    public double getPublishRate() {
+        double total = 0;
+        for (TopicMetrics topic : topics) {
+            total += topic.getPublishRate();
+        }
+        return total;
+    }
+
+    public long getHandledCount() {
+        long total = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getHandledCount();
+        }
+        return total;
+    }
+
+    public double getHandleRate() {
+        double total = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getHandleRate();
+        }
+        return total;
+    }
+
+    public long getFailedCount() {
+        long total = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getFailedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Get the messages subscribers lost to mailbox overflow or cancellation
+     */
+    public long getDroppedCount() {
+        long total = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getDroppedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Get the publishes refused by a full topic or mailbox
+     */
+    public long getRejectedCount() {
+        long total = 0;
+        for (TopicMetrics topic : topics) {
+            total += topic.getRejectedCount();
+        }
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getRejectedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Get the messages waiting in all subscribers' mailboxes and rings
+     */
+    public long getQueueDepth() {
+        long total = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            total += subscription.getQueueDepth();
+        }
+        return total;
+    }
+
+    public long getMaxQueueDepth() {
+        long max = 0;
+        for (SubscriptionMetrics subscription : subscriptions) {
+            max = Math.max(max, subscription.getQueueDepth());
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BusMetricsSnapshot{topics=%d, subscriptions=%d, published=%d (%.1f/s), handled=%d (%.1f/s), "
+                        + "failed=%d, dropped=%d, rejected=%d, queueDepth=%d, executorQueue=%d}",
+                topics.size(), subscriptions.size(), getPublishedCount(), getPublishRate(), getHandledCount(),
+                getHandleRate(), getFailedCount(), getDroppedCount(), getRejectedCount(), getQueueDepth(),
+                executorQueueDepth);
+    }
+
+    /**
+     * Metrics of one concrete topic
+     */
+    public static final class TopicMetrics {
+        private final String topic;
+        private final long publishedCount;
+        private final double publishRate;
+        private final long dispatchedCount;
+        private final double dispatchRate;
+        private final int retainedCount;
+        private final long retainedBytes;
+        private final long droppedCount;
+        private final long rejectedCount;
+
+        TopicMetrics(String topic, long publishedCount, double publishRate, long dispatchedCount,
+                     double dispatchRate, int retainedCount, long retainedBytes, long droppedCount,
+                     long rejectedCount) {
+            this.topic = topic;
+            this.publishedCount = publishedCount;
+            this.publishRate = publishRate;
+            this.dispatchedCount = dispatchedCount;
+            this.dispatchRate = dispatchRate;
+            this.retainedCount = retainedCount;
+            this.retainedBytes = retainedBytes;
+            this.droppedCount = droppedCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public long getPublishedCount() {
+            return publishedCount;
+        }
+
+        public double getPublishRate() {
+            return publishRate;
+        }
+
+        /**
+         * Get the deliveries queued to subscribers (one per matching subscriber per message)
+         */
+        public long getDispatchedCount() {
+            return dispatchedCount;
+        }
+
+        public double getDispatchRate() {
+            return dispatchRate;
+        }
+
+        public int getRetainedCount() {
+            return retainedCount;
+        }
+
+        public long getRetainedBytes() {
+            return retainedBytes;
+        }
+
+        /**
+         * Get the messages evicted from retention by its overflow strategy
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TopicMetrics{topic='%s', published=%d (%.1f/s), dispatched=%d, retained=%d, dropped=%d, rejected=%d}",
+                    topic, publishedCount, publishRate, dispatchedCount, retainedCount, droppedCount, rejectedCount);
+        }
+    }
+
+    /**
+     * Metrics of one subscription
+     */
+    public static final class SubscriptionMetrics {
+        private final String topic;
+        private final String dispatch;
+        private final long handledCount;
+        private final double handleRate;
+        private final long failedCount;
+        private final long droppedCount;
+        private final long rejectedCount;
+        private final long queueDepth;
+        private final int capacity;
+        private final LatencyHistogram.Snapshot latency;
+
+        SubscriptionMetrics(String topic, String dispatch, long handledCount, double handleRate, long failedCount,
+                            long droppedCount, long rejectedCount, long queueDepth, int capacity,
+                            LatencyHistogram.Snapshot latency) {
+            this.topic = topic;
+            this.dispatch = dispatch;
+            this.handledCount = handledCount;
+            this.handleRate = handleRate;
+            this.failedCount = failedCount;
+            this.droppedCount = droppedCount;
+            this.rejectedCount = rejectedCount;
+            this.queueDepth = queueDepth;
+            this.capacity = capacity;
+            this.latency = latency;
+        }
+
+        /**
+         * Get the topic or pattern subscribed to
+         */
+        public String getTopic() {
+            return topic;
+        }
+
+        /**
+         * Get "mailbox" or "ring"
+         */
+        public String getDispatch() {
+            return dispatch;
+        }
+
+        public long getHandledCount() {
+            return handledCount;
+        }
+
+        public double getHandleRate() {
+            return handleRate;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /**
+         * Get the messages queued or in flight for this subscriber
+         */
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Get the mailbox or ring capacity
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Get the handler's time per call
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SubscriptionMetrics{topic='%s', handled=%d (%.1f/s), failed=%d, dropped=%d, depth=%d/%d, latency: %s}",
+                    topic, handledCount, handleRate, failedCount, droppedCount, queueDepth, capacity, latency);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+// FILE: src/main/java/com/weave/core/DrainConfig.java
+
+package com.weave.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * How WeaveMessageBus.shutdown drains its subscribers
+ * Publishing stops at once; mailboxes and rings are flushed until they are
+ * empty or the deadline passes. Messages still queued then are reported and,
+ * if a directory is set, written to one MessageLog per subscription so they
+ * can be replayed after a restart.
+ */
+public class DrainConfig {
+    private final Duration deadline;
+    private final Path persistDirectory;
+    private final FsyncPolicy fsyncPolicy;
+
+    private DrainConfig(Builder builder) {
+        this.deadline = builder.deadline;
+        this.persistDirectory = builder.persistDirectory;
+        this.fsyncPolicy = builder.fsyncPolicy;
+    }
+
+    /**
+     * Drain for up to ten seconds and report, without persisting, what is left
+     */
+    public static DrainConfig defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * Stop at once, like a bus without draining; pending messages are only reported
+     */
+    public static DrainConfig immediate() {
+        return new Builder().deadline(Duration.ZERO).build();
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Get the directory undelivered messages are written to, or null if they are only reported
+     */
+    public Path getPersistDirectory() {
+        return persistDirectory;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "DrainConfig{" +
+                "deadline=" + deadline +
+                ", persistDirectory=" + persistDirectory +
+                '}';
+    }
+
+    /**
+     * Builder for drain configs
+     */
+    public static class Builder {
+        private Duration deadline = Duration.ofSeconds(10);
+        private Path persistDirectory;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.PER_BATCH;
+
+        /**
+         * How long subscribers get to work off their queues, including handlers still running
+         */
+        public Builder deadline(Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Write undelivered messages under this directory, one log per subscription
+         */
+        public Builder persistUndelivered(Path directory) {
+            this.persistDirectory = directory;
+            return this;
+        }
+
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        public DrainConfig build() {
+            if (deadline == null || deadline.isNegative()) {
+                throw new IllegalArgumentException("Drain deadline cannot be negative");
+            }
+            if (fsyncPolicy == null) {
+                throw new IllegalArgumentException("Fsync policy cannot be null");
+            }
+            return new DrainConfig(this);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// FILE: src/main/java/com/weave/core/DurableTopicConfig.java
+
+package com.weave.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for a durable (persistent) message bus topic
+ * Messages are appended to segmented, memory-mapped log files under
+ * directory/topic and can be replayed from any retained offset
+ */
+public class DurableTopicConfig {
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration fsyncInterval;
+    private final Duration retentionAge;
+    private final long retentionBytes;
+    private final String compactionKey;
+    
+    private DurableTopicConfig(Builder builder) {
+        this.directory = builder.directory;
+        this.segmentBytes = builder.segmentBytes;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.fsyncInterval = builder.fsyncInterval;
+        this.retentionAge = builder.retentionAge;
+        this.retentionBytes = builder.retentionBytes;
+        this.compactionKey = builder.compactionKey;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+    
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+    
+    public Duration getFsyncInterval() {
+        return fsyncInterval;
+    }
+    
+    /**
+     * Get how long closed segments are kept, or null to keep them regardless of age
+     */
+    public Duration getRetentionAge() {
+        return retentionAge;
+    }
+    
+    /**
+     * Get the total log size above which the oldest segments are deleted
+     */
+    public long getRetentionBytes() {
+        return retentionBytes;
+    }
+    
+    /**
+     * Get the payload field compaction keys on, or null if compaction is disabled
+     */
+    public String getCompactionKey() {
+        return compactionKey;
+    }
+    
+    @Override
+    public String toString() {
+        return "DurableTopicConfig{" +
+                "directory=" + directory +
+                ", segmentBytes=" + segmentBytes +
+                ", fsyncPolicy=" + fsyncPolicy +
+                ", retentionAge=" + retentionAge +
+                ", retentionBytes=" + (retentionBytes == Long.MAX_VALUE ? "unbounded" : retentionBytes) +
+                ", compactionKey=" + compactionKey +
+                '}';
+    }
+    
+    /**
+     * Builder for durable topic configs
+     */
+    public static class Builder {
+        private Path directory;
+        private int segmentBytes = 64 * 1024 * 1024;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+        private Duration retentionAge;
+        private long retentionBytes = Long.MAX_VALUE;
+        private String compactionKey;
+        
+        /**
+         * Root directory for log files; each topic gets a subdirectory
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+        
+        /**
+         * Size of each memory-mapped segment file
+         */
+        public Builder segmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+        
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+        
+        /**
+         * Time between forced writes for FsyncPolicy.INTERVAL
+         */
+        public Builder fsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+            return this;
+        }
+        
+        /**
+         * Delete closed segments whose newest message is older than this
+         */
+        public Builder retentionAge(Duration retentionAge) {
+            this.retentionAge = retentionAge;
+            return this;
+        }
+        
+        /**
+         * Delete the oldest closed segments while the log is larger than this
+         */
+        public Builder retentionBytes(long retentionBytes) {
+            this.retentionBytes = retentionBytes;
+            return this;
+        }
+        
+        /**
+         * Compact closed segments, keeping only the newest message per value of this payload field
+         * Messages without the field are always kept
+         */
+        public Builder compactionKey(String compactionKey) {
+            this.compactionKey = compactionKey;
+            return this;
+        }
+        
+        public DurableTopicConfig build() {
+            if (directory == null) {
+                throw new IllegalArgumentException("Log directory is required");
+            }
+            if (segmentBytes < 4096) {
+                throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+            }
+            if (fsyncPolicy == null) {
+                throw new IllegalArgumentException("Fsync policy cannot be null");
+            }
+            if (fsyncPolicy == FsyncPolicy.INTERVAL
+                    && (fsyncInterval == null || fsyncInterval.isZero() || fsyncInterval.isNegative())) {
+                throw new IllegalArgumentException("Fsync interval must be positive");
+            }
+            if (retentionBytes < 1) {
+                throw new IllegalArgumentException("Retention bytes must be positive");
+            }
+            return new DurableTopicConfig(this);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+// FILE: src/main/java/com/weave/core/FsyncPolicy.java
+
+package com.weave.core;
+
+/**
+ * When a durable topic forces appended messages to disk
+ * Until forced, appended messages survive a JVM crash (they are in the page
+ * cache) but not an OS crash or power loss.
+ */
+public enum FsyncPolicy {
+    /** Force after every message; slowest, nothing acknowledged is ever lost */
+    PER_MESSAGE,
+    /** Force once per publish call, so publishAll pays for one fsync per batch */
+    PER_BATCH,
+    /** Force on a timer; loses at most the last fsync interval on power loss */
+    INTERVAL
+}
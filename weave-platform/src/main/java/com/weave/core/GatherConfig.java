@@ -0,0 +1,102 @@
+// FILE: src/main/java/com/weave/core/GatherConfig.java
+
+package com.weave.core;
+
+import java.time.Duration;
+
+/**
+ * Configuration for a scatter-gather request
+ * The gather completes as soon as the quorum of replies has arrived, or at
+ * the deadline with whatever replies arrived by then
+ */
+public class GatherConfig {
+    private final int expectedReplies;
+    private final int quorum;
+    private final Duration timeout;
+
+    private GatherConfig(Builder builder) {
+        this.expectedReplies = builder.expectedReplies;
+        this.quorum = builder.quorum;
+        this.timeout = builder.timeout;
+    }
+
+    /**
+     * Default config: wait up to 30 seconds for a reply from every subscriber
+     */
+    public static GatherConfig defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * Get the number of replies expected, or 0 for one per subscriber of the topic
+     */
+    public int getExpectedReplies() {
+        return expectedReplies;
+    }
+
+    /**
+     * Get the number of replies that completes the gather early, or 0 for all expected replies
+     */
+    public int getQuorum() {
+        return quorum;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "GatherConfig{" +
+                "expectedReplies=" + expectedReplies +
+                ", quorum=" + quorum +
+                ", timeout=" + timeout +
+                '}';
+    }
+
+    /**
+     * Builder for gather configs
+     */
+    public static class Builder {
+        private int expectedReplies;
+        private int quorum;
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * Replies to wait for; by default, one per subscriber matching the topic when the request is sent
+         */
+        public Builder expectedReplies(int expectedReplies) {
+            this.expectedReplies = expectedReplies;
+            return this;
+        }
+
+        /**
+         * Complete as soon as this many replies have arrived
+         */
+        public Builder quorum(int quorum) {
+            this.quorum = quorum;
+            return this;
+        }
+
+        /**
+         * Deadline after which the gather completes with the replies received so far
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public GatherConfig build() {
+            if (expectedReplies < 0 || quorum < 0) {
+                throw new IllegalArgumentException("Expected replies and quorum cannot be negative");
+            }
+            if (expectedReplies > 0 && quorum > expectedReplies) {
+                throw new IllegalArgumentException("Quorum cannot exceed the expected replies");
+            }
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            return new GatherConfig(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// FILE: src/main/java/com/weave/core/GatherResult.java
+
+package com.weave.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replies collected by a scatter-gather request
+ */
+public final class GatherResult {
+    private final List<Message> replies;
+    private final int expected;
+    private final boolean timedOut;
+
+    GatherResult(List<Message> replies, int expected, boolean timedOut) {
+        this.replies = Collections.unmodifiableList(replies);
+        this.expected = expected;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * Get the replies, in arrival order
+     */
+    public List<Message> getReplies() {
+        return replies;
+    }
+
+    public int getReplyCount() {
+        return replies.size();
+    }
+
+    /**
+     * Get the number of replies the request waited for
+     */
+    public int getExpected() {
+        return expected;
+    }
+
+    /**
+     * Check if every expected reply arrived
+     */
+    public boolean isComplete() {
+        return replies.size() >= expected;
+    }
+
+    /**
+     * Check if the gather ended at its deadline rather than on a quorum
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    @Override
+    public String toString() {
+        return "GatherResult{replies=" + replies.size() + ", expected=" + expected + ", timedOut=" + timedOut + '}';
+    }
+}
@@ -0,0 +1,168 @@
+// FILE: src/main/java/com/weave/core/LatencyHistogram.java
+
+package com.weave.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram
+ * Values (nanoseconds) fall into log-linear buckets: exact below 64, then 32
+ * buckets per power of two, so any recorded value is reported within about
+ * 3% while the whole range up to hours fits in about 1300 counters.
+ * Recording is one array increment plus two striped adds; readers take
+ * snapshots, either cumulative or of what was recorded since the last
+ * interval snapshot.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_LIMIT = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int MAX_EXPONENT = 45;
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - 6 + 1) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final long[] intervalBase = new long[BUCKETS];
+    private long intervalBaseSum;
+
+    /**
+     * Record one value in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Get everything recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum(), max.get());
+    }
+
+    /**
+     * Get what was recorded since the previous call, like a recorder's interval histogram
+     * Its maximum is the upper bound of the highest bucket recorded in the interval
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            long current = counts.get(i);
+            copy[i] = current - intervalBase[i];
+            intervalBase[i] = current;
+        }
+        long total = sum.sum();
+        long intervalSum = total - intervalBaseSum;
+        intervalBaseSum = total;
+        return new Snapshot(copy, intervalSum, -1);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - SUB_BUCKET_BITS));
+        return LINEAR_LIMIT + (exponent - 6) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    /**
+     * Highest value that falls into a bucket
+     */
+    static long highestValueAt(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 6;
+        long top = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Immutable view of a histogram; times are reported in microseconds
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long sum, long max) {
+            long total = 0;
+            int highest = -1;
+            for (int i = 0; i < counts.length; i++) {
+                total += counts[i];
+                if (counts[i] > 0) {
+                    highest = i;
+                }
+            }
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+            // An interval has no exact maximum of its own; use its top bucket
+            this.max = max >= 0 ? max : (highest >= 0 ? highestValueAt(highest) : 0);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the value at a percentile (0-100), in nanoseconds
+         */
+        public long percentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), max);
+                }
+            }
+            return max;
+        }
+
+        public double getMeanMicros() {
+            return count == 0 ? 0 : sum / (double) count / 1000.0;
+        }
+
+        public double getMaxMicros() {
+            return max / 1000.0;
+        }
+
+        public double getP50Micros() {
+            return percentileNanos(50) / 1000.0;
+        }
+
+        public double getP90Micros() {
+            return percentileNanos(90) / 1000.0;
+        }
+
+        public double getP99Micros() {
+            return percentileNanos(99) / 1000.0;
+        }
+
+        public double getP999Micros() {
+            return percentileNanos(99.9) / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    count, getMeanMicros(), getP50Micros(), getP99Micros(), getP999Micros(), getMaxMicros());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+// FILE: src/main/java/com/weave/core/LogEntry.java
+
+package com.weave.core;
+
+/**
+ * A message read back from a durable topic, with its log offset
+ */
+public final class LogEntry {
+    private final long offset;
+    private final Message message;
+    
+    LogEntry(long offset, Message message) {
+        this.offset = offset;
+        this.message = message;
+    }
+    
+    /**
+     * Get the message's position in the topic log
+     */
+    public long getOffset() {
+        return offset;
+    }
+    
+    public Message getMessage() {
+        return message;
+    }
+    
+    @Override
+    public String toString() {
+        return "LogEntry{offset=" + offset + ", message=" + message + '}';
+    }
+}
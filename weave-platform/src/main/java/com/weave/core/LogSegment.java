@@ -0,0 +1,250 @@
+// FILE: src/main/java/com/weave/core/LogSegment.java
+
+package com.weave.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped file of a durable topic log
+ * Records are [length][crc32c][offset][timestamp][body]; a zero length marks
+ * the end of the written region. Offsets are strictly increasing but may have
+ * gaps after compaction, so the segment keeps an in-memory offset index that
+ * is rebuilt by scanning the file when it is opened.
+ * Not thread-safe; MessageLog guards it.
+ */
+final class LogSegment {
+    static final int HEADER_BYTES = 24;
+    static final String SUFFIX = ".log";
+
+    private final Path path;
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean writable;
+    private final CRC32C crc = new CRC32C();
+
+    private int position;
+    private int flushedPosition;
+    private long[] offsets = new long[256];
+    private int[] positions = new int[256];
+    private int count;
+    private long maxTimestamp;
+
+    private LogSegment(Path path, long baseOffset, FileChannel channel, MappedByteBuffer buffer, boolean writable) {
+        this.path = path;
+        this.baseOffset = baseOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writable = writable;
+    }
+
+    /**
+     * Create an empty, writable segment
+     */
+    static LogSegment create(Path directory, long baseOffset, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(baseOffset));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new LogSegment(path, baseOffset, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), true);
+    }
+
+    /**
+     * Open an existing segment and recover its index
+     * A torn or corrupt record ends the segment; a writable segment resumes appending there
+     * @param capacity Mapped size for a writable segment
+     */
+    static LogSegment open(Path path, int capacity, boolean writable) throws IOException {
+        long baseOffset = Long.parseLong(path.getFileName().toString().replace(SUFFIX, ""));
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        long size = writable ? Math.max(capacity, channel.size()) : channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Log segment too large: " + path);
+        }
+        MappedByteBuffer buffer = channel.map(
+                writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+        LogSegment segment = new LogSegment(path, baseOffset, channel, buffer, writable);
+        segment.recover();
+        return segment;
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    private void recover() {
+        int pos = 0;
+        long previous = -1;
+        while (pos + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            int checksum = buffer.getInt(pos + 4);
+            long offset = buffer.getLong(pos + 8);
+            if (offset <= previous || checksum != checksum(pos, length)) {
+                System.err.println("Truncating log segment " + path + " at corrupt record, position " + pos);
+                break;
+            }
+            index(offset, pos, buffer.getLong(pos + 16));
+            previous = offset;
+            pos += HEADER_BYTES + length;
+        }
+        position = pos;
+        flushedPosition = pos;
+        if (writable && pos + 4 <= buffer.capacity()) {
+            // Clear a torn header so the next recovery stops here too
+            buffer.putInt(pos, 0);
+        }
+    }
+
+    /**
+     * Append a record
+     * @return false if the segment has no room for it
+     */
+    boolean append(long offset, long timestamp, ByteBuffer body) {
+        int length = body.remaining();
+        if (!writable || position + HEADER_BYTES + length > buffer.capacity()) {
+            return false;
+        }
+        int pos = position;
+        buffer.put(pos + HEADER_BYTES, body, body.position(), length);
+        buffer.putLong(pos + 8, offset);
+        buffer.putLong(pos + 16, timestamp);
+        buffer.putInt(pos + 4, checksum(pos, length));
+        if (pos + HEADER_BYTES + length + 4 <= buffer.capacity()) {
+            buffer.putInt(pos + HEADER_BYTES + length, 0);
+        }
+        // Length last, so a crash mid-append leaves an unreadable record rather than a torn one
+        buffer.putInt(pos, length);
+        position = pos + HEADER_BYTES + length;
+        index(offset, pos, timestamp);
+        return true;
+    }
+
+    /**
+     * Copy a raw record from another segment (used by compaction)
+     */
+    boolean appendRecord(LogSegment source, int index) {
+        int pos = source.positions[index];
+        int length = source.buffer.getInt(pos);
+        ByteBuffer body = source.buffer.duplicate();
+        body.position(pos + HEADER_BYTES).limit(pos + HEADER_BYTES + length);
+        return append(source.offsets[index], source.buffer.getLong(pos + 16), body);
+    }
+
+    private int checksum(int pos, int length) {
+        crc.reset();
+        ByteBuffer region = buffer.duplicate();
+        region.position(pos + 8).limit(pos + HEADER_BYTES + length);
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+
+    private void index(long offset, int pos, long timestamp) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            positions = Arrays.copyOf(positions, count * 2);
+        }
+        offsets[count] = offset;
+        positions[count] = pos;
+        count++;
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+
+    /**
+     * Find the index of the first record at or after an offset
+     * @return The index, or getCount() if every record is before the offset
+     */
+    int indexOf(long offset) {
+        int found = Arrays.binarySearch(offsets, 0, count, offset);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    long offsetAt(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Get a read-only view of a record's body
+     */
+    ByteBuffer bodyAt(int index) {
+        int pos = positions[index];
+        ByteBuffer body = buffer.asReadOnlyBuffer();
+        body.position(pos + HEADER_BYTES).limit(pos + HEADER_BYTES + buffer.getInt(pos));
+        return body;
+    }
+
+    /**
+     * Force appended records to disk
+     */
+    void flush() {
+        if (writable && position > flushedPosition) {
+            buffer.force(flushedPosition, position - flushedPosition);
+            flushedPosition = position;
+        }
+    }
+
+    /**
+     * Flush and close; a writable segment is trimmed to the bytes written
+     */
+    void close() throws IOException {
+        flush();
+        if (writable) {
+            channel.truncate(position);
+        }
+        channel.close();
+    }
+
+    /**
+     * Close and remove the segment file
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Get the offset of the last record, or baseOffset - 1 if empty
+     */
+    long getLastOffset() {
+        return count > 0 ? offsets[count - 1] : baseOffset - 1;
+    }
+
+    /**
+     * Get the bytes written to the segment
+     */
+    int getSizeBytes() {
+        return position;
+    }
+
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+}
@@ -0,0 +1,454 @@
+// FILE: src/main/java/com/weave/core/Mailbox.java
+
+package com.weave.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, ordered mailbox for one subscriber
+ * Publishers enqueue; at most one executor task at a time drains the mailbox
+ * and runs the handler, so a handler sees messages in publish order and never
+ * runs concurrently with itself.
+ *
+ * Batch handlers get up to maxBatchSize messages per call. With a max linger
+ * set, a partial batch waits on the bus timer (not on a pool thread) until it
+ * fills up or its oldest message has waited that long.
+ */
+final class Mailbox {
+    private final String topic;
+    private final MessageHandler handler;
+    private final BatchMessageHandler batchHandler;
+    private final SubscriptionConfig config;
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final Message[] slots;
+    private final long[] queuedAt;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Runnable drainTask = this::drain;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private int head;
+    private int count;
+    private boolean scheduled;
+    private boolean lingering;
+    private boolean flushing;
+    private long lingerToken;
+    private volatile int inFlight;
+    private volatile boolean closed;
+
+    Mailbox(String topic, MessageHandler handler, BatchMessageHandler batchHandler,
+            SubscriptionConfig config, Executor executor, ScheduledExecutorService timer) {
+        this.topic = topic;
+        this.handler = handler;
+        this.batchHandler = batchHandler;
+        this.config = config;
+        this.executor = executor;
+        this.timer = timer;
+        this.slots = new Message[config.getMailboxCapacity()];
+        this.batchSize = Math.min(config.getMaxBatchSize(), slots.length);
+        this.lingerNanos = batchHandler != null ? config.getMaxLinger().toNanos() : 0;
+        this.queuedAt = lingerNanos > 0 ? new long[slots.length] : null;
+    }
+
+    /**
+     * Enqueue a message, applying the overflow strategy when the mailbox is full
+     * @return true if the message was accepted
+     * @throws TopicOverflowException if the message is rejected
+     */
+    boolean offer(Message message) {
+        boolean accepted = false;
+        boolean schedule = false;
+        lock.lock();
+        try {
+            accepted = enqueue(message);
+        } finally {
+            if (accepted) {
+                schedule = markScheduled();
+            }
+            lock.unlock();
+        }
+        if (schedule) {
+            schedule();
+        }
+        return accepted;
+    }
+
+    /**
+     * Enqueue several messages under one lock acquisition with a single hand-off
+     * to the executor. Messages accepted before a rejection are still delivered.
+     * @return Number of messages accepted
+     * @throws TopicOverflowException if a message is rejected
+     */
+    int offerAll(Collection<Message> messages) {
+        int accepted = 0;
+        boolean schedule = false;
+        lock.lock();
+        try {
+            for (Message message : messages) {
+                if (enqueue(message)) {
+                    accepted++;
+                }
+            }
+        } finally {
+            if (accepted > 0) {
+                schedule = markScheduled();
+            }
+            lock.unlock();
+            if (schedule) {
+                schedule();
+            }
+        }
+        return accepted;
+    }
+
+    private boolean enqueue(Message message) {
+        if (closed) {
+            return false;
+        }
+        if (count == slots.length) {
+            switch (config.getOverflow()) {
+                case DROP_OLDEST:
+                    slots[head].release();
+                    slots[head] = null;
+                    head = (head + 1) % slots.length;
+                    count--;
+                    dropped.increment();
+                    break;
+                case DROP_NEWEST:
+                    dropped.increment();
+                    return false;
+                case BLOCK:
+                    if (!awaitSpace()) {
+                        return false;
+                    }
+                    break;
+                default:
+                    rejected.increment();
+                    throw new TopicOverflowException(topic, "Subscriber mailbox is full: " + topic);
+            }
+        }
+        int tail = (head + count) % slots.length;
+        slots[tail] = message;
+        // Pooled messages stay out of the pool until this mailbox has handled them
+        message.retain(1);
+        if (queuedAt != null) {
+            queuedAt[tail] = System.nanoTime();
+        }
+        count++;
+        return true;
+    }
+
+    /**
+     * Decide whether the caller must hand the mailbox to the executor
+     * Called with the lock held after enqueueing
+     */
+    private boolean markScheduled() {
+        if (!scheduled) {
+            scheduled = true;
+            return true;
+        }
+        if (lingering && count >= batchSize) {
+            // A full batch is waiting; stop lingering and deliver now
+            lingering = false;
+            lingerToken++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Wait for the drain task to free a slot
+     * @return false if the mailbox was closed while waiting
+     */
+    private boolean awaitSpace() {
+        if (!scheduled || lingering) {
+            // Messages enqueued by this batch have not been handed off yet
+            scheduled = true;
+            lingering = false;
+            lingerToken++;
+            schedule();
+        }
+        long remaining = config.getBlockTimeout().toNanos();
+        try {
+            while (count == slots.length && !closed) {
+                if (remaining <= 0) {
+                    rejected.increment();
+                    throw new TopicOverflowException(topic, "Timed out waiting for subscriber on topic: " + topic);
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new TopicOverflowException(topic, "Interrupted while waiting for subscriber on topic: " + topic);
+        }
+        return !closed;
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(drainTask);
+        } catch (RejectedExecutionException e) {
+            // Executor is shutting down; deliver what is pending on the caller's thread
+            drain();
+        }
+    }
+
+    /**
+     * Handle pending messages in order, a batch at a time
+     * After a full batch the task reschedules itself so one busy subscriber
+     * cannot monopolise a pool thread
+     */
+    private void drain() {
+        while (true) {
+            List<Message> batch;
+            lock.lock();
+            try {
+                if (count == 0) {
+                    scheduled = false;
+                    return;
+                }
+                if (count < batchSize && lingerNanos > 0 && !closed && !flushing && linger()) {
+                    return;
+                }
+                int n = Math.min(batchSize, count);
+                batch = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    batch.add(slots[head]);
+                    slots[head] = null;
+                    head = (head + 1) % slots.length;
+                }
+                count -= n;
+                inFlight = n;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            deliver(batch);
+
+            if (batch.size() == batchSize) {
+                try {
+                    executor.execute(drainTask);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Executor is shutting down; keep draining on this thread
+                }
+            }
+        }
+    }
+
+    /**
+     * Park a partial batch on the timer until its oldest message has lingered long enough
+     * Called with the lock held
+     * @return true if the batch is now lingering, false if it should be delivered now
+     */
+    private boolean linger() {
+        long wait = queuedAt[head] + lingerNanos - System.nanoTime();
+        if (wait <= 0) {
+            return false;
+        }
+        long token = ++lingerToken;
+        try {
+            timer.schedule(() -> endLinger(token), wait, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Timer is shut down; deliver the partial batch
+            return false;
+        }
+        lingering = true;
+        return true;
+    }
+
+    private void endLinger(long token) {
+        lock.lock();
+        try {
+            if (!lingering || token != lingerToken) {
+                // A full batch or a blocked publisher already restarted the drain
+                return;
+            }
+            lingering = false;
+        } finally {
+            lock.unlock();
+        }
+        schedule();
+    }
+
+    private void deliver(List<Message> batch) {
+        if (batchHandler != null) {
+            if (!closed) {
+                long start = System.nanoTime();
+                try {
+                    batchHandler.handleBatch(batch);
+                    delivered.add(batch.size());
+                } catch (Exception e) {
+                    failed.add(batch.size());
+                    System.err.println("Error handling message batch: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                latency.record(System.nanoTime() - start);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).release();
+            }
+            inFlight = 0;
+            return;
+        }
+        // One clock read per message: each handler call ends where the next one starts
+        long start = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            Message message = batch.get(i);
+            if (!closed) {
+                deliver(message);
+                long end = System.nanoTime();
+                latency.record(end - start);
+                start = end;
+            }
+            message.release();
+            inFlight = batch.size() - i - 1;
+        }
+    }
+
+    private void deliver(Message message) {
+        try {
+            handler.handle(message);
+            delivered.increment();
+        } catch (Exception e) {
+            failed.increment();
+            System.err.println("Error handling message: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stop lingering: deliver partial batches at once, now and from here on
+     */
+    void flush() {
+        boolean schedule = false;
+        lock.lock();
+        try {
+            flushing = true;
+            if (lingering) {
+                lingering = false;
+                lingerToken++;
+                schedule = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            schedule();
+        }
+    }
+
+    /**
+     * Stop accepting messages and discard anything still pending
+     * @return Number of messages discarded
+     */
+    int close() {
+        List<Message> pending = closeAndTake();
+        for (Message message : pending) {
+            message.release();
+        }
+        return pending.size();
+    }
+
+    /**
+     * Stop accepting messages and hand back anything still pending, oldest first
+     * The caller takes over this mailbox's reference to each message and must release it
+     */
+    List<Message> closeAndTake() {
+        lock.lock();
+        try {
+            closed = true;
+            List<Message> pending = new ArrayList<>(count);
+            while (count > 0) {
+                pending.add(slots[head]);
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+                count--;
+            }
+            dropped.add(pending.size());
+            notFull.signalAll();
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    MessageHandler getHandler() {
+        return handler;
+    }
+
+    BatchMessageHandler getBatchHandler() {
+        return batchHandler;
+    }
+
+    SubscriptionConfig getConfig() {
+        return config;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Messages accepted but not yet handled (queued plus in flight)
+     */
+    long getLag() {
+        lock.lock();
+        try {
+            return count + inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueuedCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    int getCapacity() {
+        return slots.length;
+    }
+}
@@ -2,124 +2,422 @@
 
 package com.weave.core;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Message class representing an event or data transfer
  * Immutable message object for thread-safe operations
+ *
+ * Ids are UUID-format strings from a thread-local generator and are only
+ * rendered as text when first asked for. The payload is copied once into a
+ * compact read-only map and handed out without further copies.
+ *
+ * A message can instead carry a typed payload record registered through a
+ * MessageSchema; the Map view of such a message is derived from the record
+ * on demand.
+ *
+ * Messages taken from a MessagePool are the exception to immutability: the
+ * publisher fills one in, publishes it, and the bus returns it to its pool
+ * once every subscriber has handled it. Handlers that keep a pooled message
+ * past their call must keep detach() instead.
  */
 public class Message {
-    private final String id;
-    private final String type;
-    private final Map<String, Object> payload;
-    private final long timestamp;
-    private final String source;
-    
+    private static final AtomicIntegerFieldUpdater<Message> REFS =
+            AtomicIntegerFieldUpdater.newUpdater(Message.class, "refs");
+
+    // Fields are only reassigned when MessagePool recycles a pooled message
+    private String id;
+    private transient long idHigh;
+    private transient long idLow;
+    private transient boolean uuidId;
+    private String type;
+    private Map<String, Object> payload;
+    private long timestamp;
+    private String source;
+    private Object body;
+    private String correlationId;
+    private String replyTo;
+    private final transient MessageSchema<?> schema;
+    private transient volatile Map<String, Object> bodyView;
+
+    private final transient MessagePool pool;
+    private transient volatile int refs;
+    private transient boolean sealed;
+
     /**
      * Constructor with type and payload
      */
     public Message(String type, Map<String, Object> payload) {
         this(type, payload, "system");
     }
-    
+
     /**
      * Constructor with type, payload, and source
      */
     public Message(String type, Map<String, Object> payload, String source) {
-        this.id = UUID.randomUUID().toString();
+        this(type, PayloadMap.copyOf(payload), source);
+    }
+
+    /**
+     * Constructor taking ownership of an already copied payload
+     */
+    private Message(String type, PayloadMap payload, String source) {
+        assignId();
         this.type = type;
-        this.payload = new HashMap<>(payload); // Defensive copy
+        this.payload = payload;
         this.timestamp = System.currentTimeMillis();
         this.source = source;
+        this.schema = null;
+        this.pool = null;
     }
-    
+
+    /**
+     * Constructor for a typed payload; see MessageSchema.message
+     */
+    Message(MessageSchema<?> schema, Object body, String source) {
+        assignId();
+        this.type = schema.getType();
+        this.body = body;
+        this.schema = schema;
+        this.timestamp = System.currentTimeMillis();
+        this.source = source;
+        this.pool = null;
+    }
+
+    /**
+     * Constructor restoring a persisted message with its original id and timestamp
+     */
+    Message(String id, String type, Map<String, Object> payload, long timestamp, String source) {
+        this.id = id;
+        this.type = type;
+        this.payload = payload instanceof PayloadMap ? payload : PayloadMap.copyOf(payload);
+        this.timestamp = timestamp;
+        this.source = source;
+        this.schema = null;
+        this.pool = null;
+    }
+
+    /**
+     * Constructor restoring a persisted message whose id was a UUID
+     */
+    Message(long idHigh, long idLow, String type, PayloadMap payload, long timestamp, String source) {
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.uuidId = true;
+        this.type = type;
+        this.payload = payload;
+        this.timestamp = timestamp;
+        this.source = source;
+        this.schema = null;
+        this.pool = null;
+    }
+
+    /**
+     * Copy of a message with request/reply fields set; shares the (immutable) payload
+     */
+    private Message(Message original, String correlationId, String replyTo) {
+        this.id = original.id;
+        this.idHigh = original.idHigh;
+        this.idLow = original.idLow;
+        this.uuidId = original.uuidId;
+        this.type = original.type;
+        this.payload = original.payload;
+        this.timestamp = original.timestamp;
+        this.source = original.source;
+        this.body = original.body;
+        this.bodyView = original.bodyView;
+        this.schema = original.schema;
+        this.correlationId = correlationId;
+        this.replyTo = replyTo;
+        this.pool = null;
+    }
+
+    /**
+     * Constructor for an empty pooled message
+     */
+    Message(MessagePool pool) {
+        this.payload = new PayloadMap();
+        this.schema = null;
+        this.pool = pool;
+    }
+
+    private void assignId() {
+        this.idLow = MessageIds.local().next();
+        this.idHigh = MessageIds.high();
+        this.uuidId = true;
+        this.id = null;
+    }
+
     /**
      * Get message ID
      */
     public String getId() {
-        return id;
+        String value = id;
+        if (value == null && uuidId) {
+            value = MessageIds.format(idHigh, idLow);
+            id = value;
+        }
+        return value;
     }
-    
+
     /**
      * Get message type
      */
     public String getType() {
         return type;
     }
-    
+
     /**
      * Get message payload (immutable view)
+     * For a typed message, a map of the payload record's components
      */
     public Map<String, Object> getPayload() {
-        return new HashMap<>(payload);
+        Map<String, Object> map = payload;
+        return map != null ? map : bodyView();
+    }
+
+    private Map<String, Object> bodyView() {
+        Map<String, Object> view = bodyView;
+        if (view == null) {
+            view = schema.toMap(body);
+            bodyView = view;
+        }
+        return view;
     }
-    
+
     /**
      * Get specific payload value
      */
     public Object getPayloadValue(String key) {
-        return payload.get(key);
+        Map<String, Object> map = payload;
+        return map != null ? map.get(key) : schema.get(body, key);
+    }
+
+    /**
+     * Get the typed payload record, or null for a Map payload
+     * Typed subscribers and MessageSchema.payloadOf give it its static type
+     */
+    public Object getBody() {
+        return body;
+    }
+
+    /**
+     * Get the schema of a typed payload, or null for a Map payload
+     */
+    public MessageSchema<?> getSchema() {
+        return schema;
+    }
+
+    /**
+     * Get the schema id of a typed payload, or 0 for a Map payload
+     */
+    public int getSchemaId() {
+        return schema != null ? schema.getId() : 0;
+    }
+
+    /**
+     * Get the id of the request this message answers, or null
+     */
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    /**
+     * Get the topic replies to this message go to, or null if it is not a request
+     */
+    public String getReplyTo() {
+        return replyTo;
     }
-    
+
     /**
      * Get message timestamp
      */
     public long getTimestamp() {
         return timestamp;
     }
-    
+
     /**
      * Get message source
      */
     public String getSource() {
         return source;
     }
-    
+
+    /**
+     * Set a payload value on a pooled message that has not been published yet
+     * @return This message, for chaining
+     * @throws IllegalStateException if the message is not pooled or was already published
+     */
+    public Message set(String key, Object value) {
+        if (pool == null || sealed) {
+            throw new IllegalStateException("Only an unpublished pooled message can be modified");
+        }
+        ((PayloadMap) payload).set(key, value);
+        return this;
+    }
+
+    /**
+     * Check if this message came from a MessagePool
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Get a message that stays valid after the current handler returns
+     * Regular messages are immutable and return themselves; a pooled
+     * message returns an unpooled copy with the same id and timestamp
+     */
+    public Message detach() {
+        if (pool == null) {
+            return this;
+        }
+        Message copy = uuidId
+                ? new Message(idHigh, idLow, type, ((PayloadMap) payload).copy(), timestamp, source)
+                : new Message(id, type, ((PayloadMap) payload).copy(), timestamp, source);
+        copy.id = id;
+        copy.correlationId = correlationId;
+        copy.replyTo = replyTo;
+        return copy;
+    }
+
+    /**
+     * Get a copy carrying request/reply fields; a pooled message must be detached first
+     */
+    Message withCorrelation(String correlationId, String replyTo) {
+        return new Message(this, correlationId, replyTo);
+    }
+
+    /**
+     * Set request/reply fields on a message being restored, before anyone else sees it
+     */
+    void restoreCorrelation(String correlationId, String replyTo) {
+        this.correlationId = correlationId;
+        this.replyTo = replyTo;
+    }
+
+    // ---- identity without rendering the id as text ----
+
+    boolean hasUuidId() {
+        return uuidId;
+    }
+
+    long getIdHigh() {
+        return idHigh;
+    }
+
+    long getIdLow() {
+        return idLow;
+    }
+
+    // ---- pooled message lifecycle ----
+
+    /**
+     * Reinitialise a pooled message for a new publish; the caller holds the only reference
+     */
+    void reuse(String type, String source) {
+        assignId();
+        this.type = type;
+        this.source = source;
+        this.timestamp = System.currentTimeMillis();
+        this.sealed = false;
+        REFS.set(this, 1);
+    }
+
+    /**
+     * Freeze a pooled message as it is published
+     */
+    void seal() {
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Add references held by subscribers that will handle this message
+     */
+    void retain(int count) {
+        if (pool != null) {
+            REFS.addAndGet(this, count);
+        }
+    }
+
+    /**
+     * Drop one reference; the last one returns a pooled message to its pool
+     */
+    void release() {
+        if (pool != null && REFS.decrementAndGet(this) == 0) {
+            ((PayloadMap) payload).reset();
+            id = null;
+            type = null;
+            source = null;
+            correlationId = null;
+            replyTo = null;
+            pool.recycle(this);
+        }
+    }
+
+    MessagePool getPool() {
+        return pool;
+    }
+
     @Override
     public String toString() {
         return "Message{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", type='" + type + '\'' +
                 ", source='" + source + '\'' +
                 ", timestamp=" + timestamp +
-                ", payload=" + payload +
+                (correlationId != null ? ", correlationId='" + correlationId + '\'' : "") +
+                (replyTo != null ? ", replyTo='" + replyTo + '\'' : "") +
+                ", payload=" + getPayload() +
                 '}';
     }
-    
+
     /**
      * Builder pattern for creating messages
+     * Fills the payload in place, so build() hands it over without another copy
      */
     public static class Builder {
         private String type;
-        private Map<String, Object> payload = new HashMap<>();
+        private PayloadMap payload = new PayloadMap();
+        private boolean shared;
         private String source = "system";
-        
+
         public Builder type(String type) {
             this.type = type;
             return this;
         }
-        
+
         public Builder payload(Map<String, Object> payload) {
-            this.payload = payload;
+            this.payload = PayloadMap.copyOf(payload);
+            this.shared = false;
             return this;
         }
-        
+
         public Builder addPayload(String key, Object value) {
-            this.payload.put(key, value);
+            if (shared) {
+                // The last build() owns the current payload
+                payload = payload.copy();
+                shared = false;
+            }
+            this.payload.set(key, value);
             return this;
         }
-        
+
         public Builder source(String source) {
             this.source = source;
             return this;
         }
-        
+
         public Message build() {
             if (type == null || type.isEmpty()) {
                 throw new IllegalArgumentException("Message type cannot be null or empty");
             }
+            shared = true;
             return new Message(type, payload, source);
         }
     }
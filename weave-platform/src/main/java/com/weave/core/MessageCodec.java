@@ -0,0 +1,476 @@
+// FILE: src/main/java/com/weave/core/MessageCodec.java
+
+package com.weave.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary codec for Message
+ * Layout: [version][id][type][source][timestamp][payload]
+ * Version 2 appends [correlation id][reply topic] for request/reply messages;
+ * other messages are still written as version 1
+ * - numbers are zig-zag varints (doubles and floats stay fixed width)
+ * - UUID ids are stored as 16 raw bytes instead of a 36 character string
+ * - type, source and payload keys are interned through a StringTable and
+ *   written as a varint id once known
+ * - payload values may be null, booleans, numbers, strings, lists and
+ *   nested maps; anything else is written as its toString()
+ *
+ * Encoding reuses one growable buffer and writes UTF-8 without intermediate
+ * byte arrays. Not thread-safe: use one codec per thread, sharing the table.
+ */
+public final class MessageCodec {
+    static final byte VERSION = 1;
+    static final byte VERSION_REPLY = 2;
+
+    private static final int REF_NULL = 0;
+    private static final int REF_INLINE = 1;
+    private static final int REF_TABLE = 2;
+
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_STRING = 2;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte STRING = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+
+    private final StringTable strings;
+    private ByteBuffer buffer = ByteBuffer.allocate(512);
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Create a codec with its own string table
+     */
+    public MessageCodec() {
+        this(new StringTable());
+    }
+
+    /**
+     * Create a codec that interns through a shared string table
+     */
+    public MessageCodec(StringTable strings) {
+        this.strings = strings;
+    }
+
+    public StringTable getStringTable() {
+        return strings;
+    }
+
+    /**
+     * Encode a message into the codec's buffer
+     * @return The buffer, flipped for reading; valid until the next encode
+     */
+    public ByteBuffer encode(Message message) {
+        buffer.clear();
+        boolean reply = message.getCorrelationId() != null || message.getReplyTo() != null;
+        ensure(1);
+        buffer.put(reply ? VERSION_REPLY : VERSION);
+        writeId(message);
+        writeRef(message.getType());
+        writeRef(message.getSource());
+        writeVarLong(zigZag(message.getTimestamp()));
+        writeMap(message.getPayload());
+        if (reply) {
+            // Correlation ids are unique, so never intern them; reply topics repeat
+            writeId(message.getCorrelationId());
+            writeRef(message.getReplyTo());
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encode a message into a new byte array
+     */
+    public byte[] toBytes(Message message) {
+        ByteBuffer encoded = encode(message);
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Decode a message from the buffer's remaining bytes, advancing its position
+     * @throws IllegalArgumentException if the bytes are not an encoded message
+     */
+    public Message decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_REPLY) {
+            throw new IllegalArgumentException("Unsupported message encoding version: " + version);
+        }
+        byte idTag = in.get();
+        long idHigh = 0;
+        long idLow = 0;
+        String id = null;
+        switch (idTag) {
+            case ID_NULL:
+                break;
+            case ID_UUID:
+                // Kept as 128 bits; the message renders the text only if asked
+                idHigh = in.getLong();
+                idLow = in.getLong();
+                break;
+            case ID_STRING:
+                id = readString(in);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown id tag: " + idTag);
+        }
+        String type = readRef(in);
+        String source = readRef(in);
+        long timestamp = unZigZag(readVarLong(in));
+        PayloadMap payload = readPayload(in);
+        Message message = idTag == ID_UUID
+                ? new Message(idHigh, idLow, type, payload, timestamp, source)
+                : new Message(id, type, payload, timestamp, source);
+        if (version == VERSION_REPLY) {
+            String correlationId = readId(in);
+            message.restoreCorrelation(correlationId, readRef(in));
+        }
+        return message;
+    }
+
+    public Message decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    // ---- encoding ----
+
+    private void writeId(Message message) {
+        if (message.hasUuidId()) {
+            ensure(17);
+            buffer.put(ID_UUID);
+            buffer.putLong(message.getIdHigh());
+            buffer.putLong(message.getIdLow());
+            return;
+        }
+        writeId(message.getId());
+    }
+
+    private void writeId(String id) {
+        if (id == null) {
+            ensure(1);
+            buffer.put(ID_NULL);
+            return;
+        }
+        if (isUuid(id)) {
+            ensure(17);
+            buffer.put(ID_UUID);
+            buffer.putLong(parseHex(id, 0, 8) << 32 | parseHex(id, 9, 4) << 16 | parseHex(id, 14, 4));
+            buffer.putLong(parseHex(id, 19, 4) << 48 | parseHex(id, 24, 12));
+            return;
+        }
+        ensure(1);
+        buffer.put(ID_STRING);
+        writeString(id);
+    }
+
+    /**
+     * Write a string that is likely to repeat, interning it when the table has room
+     */
+    private void writeRef(String value) {
+        if (value == null) {
+            writeVarInt(REF_NULL);
+            return;
+        }
+        int id = strings.idOf(value);
+        if (id < 0) {
+            id = strings.intern(value);
+        }
+        if (id >= 0) {
+            writeVarInt(REF_TABLE + id);
+        } else {
+            writeVarInt(REF_INLINE);
+            writeString(value);
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) {
+        if (map instanceof PayloadMap) {
+            // Indexed walk; no entry objects
+            PayloadMap payload = (PayloadMap) map;
+            writeVarInt(payload.size());
+            for (int i = 0; i < payload.size(); i++) {
+                writeRef(payload.keyAt(i));
+                writeValue(payload.valueAt(i));
+            }
+            return;
+        }
+        writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            writeRef(key != null ? key.toString() : null);
+            writeValue(entry.getValue());
+        }
+    }
+
+    private void writeValue(Object value) {
+        ensure(9);
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (value instanceof String) {
+            buffer.put(STRING);
+            writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.put(INT);
+            writeVarLong(zigZag(((Number) value).intValue()));
+        } else if (value instanceof Long) {
+            buffer.put(LONG);
+            writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Double) {
+            buffer.put(DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Float) {
+            buffer.put(FLOAT).putFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            buffer.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            buffer.put(LIST);
+            writeVarInt(values.size());
+            for (Object element : values) {
+                writeValue(element);
+            }
+        } else if (value instanceof Map) {
+            buffer.put(MAP);
+            writeMap((Map<?, ?>) value);
+        } else {
+            buffer.put(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * Write a varint byte length followed by UTF-8, straight from the chars
+     */
+    private void writeString(String value) {
+        int chars = value.length();
+        int bytes = 0;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        writeVarInt(bytes);
+        ensure(bytes);
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | cp >> 18));
+                buffer.put((byte) (0x80 | cp >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | cp >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced as String.getBytes would
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    // ---- decoding ----
+
+    private String readId(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return MessageIds.format(in.getLong(), in.getLong());
+            case ID_STRING:
+                return readString(in);
+            default:
+                throw new IllegalArgumentException("Unknown id tag: " + tag);
+        }
+    }
+
+    private String readRef(ByteBuffer in) {
+        int ref = readVarInt(in);
+        if (ref == REF_NULL) {
+            return null;
+        }
+        if (ref == REF_INLINE) {
+            return readString(in);
+        }
+        return strings.get(ref - REF_TABLE);
+    }
+
+    private PayloadMap readPayload(ByteBuffer in) {
+        int size = readVarInt(in);
+        PayloadMap payload = new PayloadMap(size);
+        for (int i = 0; i < size; i++) {
+            String key = readRef(in);
+            payload.set(key, readValue(in));
+        }
+        return payload;
+    }
+
+    private Map<String, Object> readMap(ByteBuffer in) {
+        int size = readVarInt(in);
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            String key = readRef(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private Object readValue(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INT:
+                return (int) unZigZag(readVarLong(in));
+            case LONG:
+                return unZigZag(readVarLong(in));
+            case DOUBLE:
+                return in.getDouble();
+            case FLOAT:
+                return in.getFloat();
+            case STRING:
+                return readString(in);
+            case LIST: {
+                int size = readVarInt(in);
+                List<Object> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(readValue(in));
+                }
+                return values;
+            }
+            case MAP:
+                return readMap(in);
+            default:
+                throw new IllegalArgumentException("Unknown value tag: " + tag);
+        }
+    }
+
+    private String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigZag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unZigZag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    // ---- UUID text -> 128 bits without java.util.UUID's parsing ----
+
+    private static boolean isUuid(String id) {
+        if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-'
+                || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                continue;
+            }
+            char c = id.charAt(i);
+            // Upper case would not round-trip to the same string
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String text, int start, int length) {
+        long value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value << 4 | Character.digit(text.charAt(i), 16);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageCodec{strings=" + strings.size() + ", buffer=" + buffer.capacity() + '}';
+    }
+}
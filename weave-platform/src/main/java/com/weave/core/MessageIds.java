@@ -0,0 +1,67 @@
+// FILE: src/main/java/com/weave/core/MessageIds.java
+
+package com.weave.core;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cheap unique message ids in version 4 UUID format
+ * The high 64 bits are a random prefix drawn from SecureRandom once per
+ * process; the low bits count up. Each thread takes a block of counter
+ * values from a shared AtomicLong and issues ids from it with a plain
+ * increment, so a thread that sends one message (a virtual thread, say)
+ * costs one atomic add rather than SecureRandom reads, and a busy one
+ * touches shared state once per block.
+ * Ids stay unique across processes as long as prefixes differ, which random
+ * 60-bit values do with overwhelming probability. The string form is only
+ * built on demand.
+ */
+final class MessageIds {
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VERSION_4 = 0x4000L;
+    private static final long COUNTER_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final long HIGH = new SecureRandom().nextLong() & ~VERSION_MASK | VERSION_4;
+    private static final AtomicLong BLOCKS = new AtomicLong();
+    private static final ThreadLocal<MessageIds> LOCAL = ThreadLocal.withInitial(MessageIds::new);
+
+    private long counter;
+    private long limit;
+
+    private MessageIds() {
+    }
+
+    /**
+     * Get the generator of the calling thread
+     */
+    static MessageIds local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Issue the low 64 bits of the next id
+     * The counter has 62 bits, far more than a process can use up
+     */
+    long next() {
+        if (counter == limit) {
+            counter = BLOCKS.getAndAdd(BLOCK_SIZE);
+            limit = counter + BLOCK_SIZE;
+        }
+        return VARIANT | counter++ & COUNTER_MASK;
+    }
+
+    /**
+     * High 64 bits of every id this process issues
+     */
+    static long high() {
+        return HIGH;
+    }
+
+    static String format(long high, long low) {
+        return new UUID(high, low).toString();
+    }
+}
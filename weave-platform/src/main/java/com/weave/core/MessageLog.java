@@ -0,0 +1,551 @@
+// FILE: src/main/java/com/weave/core/MessageLog.java
+
+package com.weave.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of one topic's messages
+ * Messages are encoded with MessageCodec and appended to segmented,
+ * memory-mapped files named after their first offset. The codec's string
+ * table (types, sources, payload keys) is persisted in strings.dat and
+ * forced before any record that refers to a new entry. Every message gets a
+ * monotonically increasing offset that consumers can replay from, including
+ * after a restart. Closed segments can be deleted by age or total size and
+ * compacted down to the newest message per key. The newest offset of every
+ * key is kept in memory as messages are appended, so compaction rewrites
+ * only the sealed segments that hold superseded messages, one at a time, on
+ * the flusher thread rather than the publisher's.
+ */
+public class MessageLog implements AutoCloseable {
+    private static final int READ_BATCH = 1000;
+    private static final int MAX_INTERNED_STRINGS = 65_536;
+    private static final String STRINGS_FILE = "strings.dat";
+    private static volatile ScheduledExecutorService flusher;
+
+    private final String topic;
+    private final Path directory;
+    private final DurableTopicConfig config;
+    private final List<LogSegment> segments = new ArrayList<>();
+    private final StringTable strings = new StringTable(MAX_INTERNED_STRINGS);
+    private final MessageCodec codec = new MessageCodec(strings);
+    private final Map<Object, Long> newestByKey = new HashMap<>();
+    private final Map<Long, Integer> supersededBySegment = new HashMap<>();
+    private boolean compactionScheduled;
+    private FileChannel stringsFile;
+    private int persistedStrings;
+    private final ScheduledFuture<?> flushTask;
+    private LogSegment active;
+    private long nextOffset;
+    private boolean closed;
+
+    private MessageLog(String topic, Path directory, DurableTopicConfig config) throws IOException {
+        this.topic = topic;
+        this.directory = directory;
+        this.config = config;
+        recover();
+        if (config.getFsyncPolicy() == FsyncPolicy.INTERVAL) {
+            long interval = config.getFsyncInterval().toNanos();
+            this.flushTask = flusher().scheduleAtFixedRate(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            this.flushTask = null;
+        }
+    }
+
+    /**
+     * Open (or create) the log for a topic, recovering any existing segments
+     */
+    public static MessageLog open(String topic, DurableTopicConfig config) throws IOException {
+        return open(topic, config.getDirectory().resolve(directoryName(topic)), config);
+    }
+
+    /**
+     * Open (or create) a log in a directory of the caller's choosing, ignoring the config's directory
+     */
+    static MessageLog open(String topic, Path directory, DurableTopicConfig config) throws IOException {
+        Files.createDirectories(directory);
+        return new MessageLog(topic, directory, config);
+    }
+
+    private static String directoryName(String topic) {
+        return topic.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private void recover() throws IOException {
+        loadStrings();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(LogSegment.SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            boolean last = i == files.size() - 1;
+            segments.add(LogSegment.open(files.get(i), config.getSegmentBytes(), last));
+        }
+        if (segments.isEmpty()) {
+            segments.add(LogSegment.create(directory, 0, config.getSegmentBytes()));
+        }
+        active = segments.get(segments.size() - 1);
+        nextOffset = active.getLastOffset() + 1;
+        if (config.getCompactionKey() != null) {
+            for (LogSegment segment : segments) {
+                for (int i = 0; i < segment.getCount(); i++) {
+                    indexKey(codec.decode(segment.bodyAt(i)), segment.offsetAt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Load the string table; ids are assigned in file order, matching the encoder's
+     */
+    private void loadStrings() throws IOException {
+        Path path = directory.resolve(STRINGS_FILE);
+        stringsFile = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (in.hasRemaining()) {
+            int start = in.position();
+            int length = readLength(in);
+            if (length < 0 || in.remaining() < length) {
+                // Torn final entry; no record can refer to it since it was forced first
+                stringsFile.truncate(start);
+                break;
+            }
+            strings.intern(new String(in.array(), in.position(), length, StandardCharsets.UTF_8));
+            in.position(in.position() + length);
+        }
+        persistedStrings = strings.size();
+        stringsFile.position(stringsFile.size());
+    }
+
+    /**
+     * Read a varint length prefix
+     * @return The length, or -1 if the varint is cut off
+     */
+    private static int readLength(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Append strings interned since the last call and force them to disk
+     */
+    private void persistStrings() {
+        List<String> added = strings.entriesFrom(persistedStrings);
+        try {
+            for (String value : added) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer entry = ByteBuffer.allocate(5 + bytes.length);
+                int length = bytes.length;
+                while ((length & ~0x7F) != 0) {
+                    entry.put((byte) (length & 0x7F | 0x80));
+                    length >>>= 7;
+                }
+                entry.put((byte) length).put(bytes).flip();
+                while (entry.hasRemaining()) {
+                    stringsFile.write(entry);
+                }
+            }
+            stringsFile.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to persist string table for topic: " + topic, e);
+        }
+        persistedStrings += added.size();
+    }
+
+    /**
+     * Append a message
+     * @return The message's offset
+     */
+    public synchronized long append(Message message) {
+        long offset = write(message);
+        if (config.getFsyncPolicy() != FsyncPolicy.INTERVAL) {
+            active.flush();
+        }
+        return offset;
+    }
+
+    /**
+     * Append messages in order, forcing to disk once at the end under PER_BATCH
+     * @return The offset of the first message, or the next offset if there were none
+     */
+    public synchronized long appendAll(Collection<Message> messages) {
+        long first = nextOffset;
+        for (Message message : messages) {
+            write(message);
+            if (config.getFsyncPolicy() == FsyncPolicy.PER_MESSAGE) {
+                active.flush();
+            }
+        }
+        if (config.getFsyncPolicy() == FsyncPolicy.PER_BATCH) {
+            active.flush();
+        }
+        return first;
+    }
+
+    private long write(Message message) {
+        if (closed) {
+            throw new IllegalStateException("Message log is closed: " + topic);
+        }
+        ByteBuffer body = codec.encode(message);
+        if (strings.size() > persistedStrings) {
+            persistStrings();
+        }
+        if (body.remaining() + LogSegment.HEADER_BYTES > config.getSegmentBytes()) {
+            throw new IllegalArgumentException("Message larger than log segment size on topic: " + topic);
+        }
+        long offset = nextOffset;
+        if (!active.append(offset, message.getTimestamp(), body)) {
+            roll();
+            active.append(offset, message.getTimestamp(), body);
+        }
+        nextOffset++;
+        if (config.getCompactionKey() != null) {
+            indexKey(message, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Record a message as the newest for its key and count the one it supersedes against that one's segment
+     */
+    private void indexKey(Message message, long offset) {
+        Object value = message.getPayloadValue(config.getCompactionKey());
+        if (value == null) {
+            return;
+        }
+        Long previous = newestByKey.put(value, offset);
+        if (previous != null) {
+            supersededBySegment.merge(segments.get(segmentFor(previous)).getBaseOffset(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Close the active segment and start a new one, apply retention and schedule compaction
+     */
+    private void roll() {
+        try {
+            // Reopen trimmed and read-only so the sealed segment no longer pins a writable mapping
+            active.close();
+            LogSegment sealed = LogSegment.open(active.getPath(), config.getSegmentBytes(), false);
+            segments.set(segments.size() - 1, sealed);
+            active = LogSegment.create(directory, nextOffset, config.getSegmentBytes());
+            segments.add(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to roll log segment for topic: " + topic, e);
+        }
+        enforceRetention();
+        if (config.getCompactionKey() != null && !compactionScheduled) {
+            compactionScheduled = true;
+            flusher().execute(this::compactQuietly);
+        }
+    }
+
+    private void compactQuietly() {
+        synchronized (this) {
+            compactionScheduled = false;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            System.err.println("Error compacting log for topic " + topic + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read up to maxMessages messages starting at an offset
+     * Offsets before the start of the log begin at the oldest retained message
+     */
+    public synchronized List<LogEntry> read(long fromOffset, int maxMessages) {
+        List<LogEntry> entries = new ArrayList<>(Math.min(maxMessages, READ_BATCH));
+        for (int s = segmentFor(fromOffset); s < segments.size() && entries.size() < maxMessages; s++) {
+            LogSegment segment = segments.get(s);
+            for (int i = segment.indexOf(fromOffset); i < segment.getCount() && entries.size() < maxMessages; i++) {
+                entries.add(new LogEntry(segment.offsetAt(i), codec.decode(segment.bodyAt(i))));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Hand every message from an offset to the end of the log to a handler, in order
+     * Reads in batches, so publishers are only held up briefly
+     * @return The offset after the last message replayed
+     */
+    public long replay(long fromOffset, MessageHandler handler) throws Exception {
+        long next = fromOffset;
+        while (true) {
+            List<LogEntry> entries = read(next, READ_BATCH);
+            if (entries.isEmpty()) {
+                return Math.max(next, getStartOffset());
+            }
+            for (LogEntry entry : entries) {
+                handler.handle(entry.getMessage());
+            }
+            next = entries.get(entries.size() - 1).getOffset() + 1;
+        }
+    }
+
+    /**
+     * Index of the segment that would hold an offset
+     */
+    private int segmentFor(long offset) {
+        for (int s = segments.size() - 1; s > 0; s--) {
+            if (segments.get(s).getBaseOffset() <= offset) {
+                return s;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Force everything appended so far to disk
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            active.flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Error flushing log for topic " + topic + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete closed segments that are entirely before an offset
+     * @return Number of segments deleted
+     */
+    public synchronized int deleteBefore(long offset) {
+        int deleted = 0;
+        while (segments.size() > 1 && segments.get(0).getLastOffset() < offset) {
+            deleteOldest();
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete closed segments beyond the configured retention age and size
+     * @return Number of segments deleted
+     */
+    public synchronized int enforceRetention() {
+        int deleted = 0;
+        long cutoff = config.getRetentionAge() != null
+                ? System.currentTimeMillis() - config.getRetentionAge().toMillis()
+                : Long.MIN_VALUE;
+        while (segments.size() > 1) {
+            LogSegment oldest = segments.get(0);
+            boolean expired = !oldest.isEmpty() && oldest.getMaxTimestamp() < cutoff;
+            if (!expired && getSizeBytes() <= config.getRetentionBytes()) {
+                break;
+            }
+            deleteOldest();
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private void deleteOldest() {
+        LogSegment oldest = segments.remove(0);
+        supersededBySegment.remove(oldest.getBaseOffset());
+        try {
+            oldest.delete();
+        } catch (IOException e) {
+            System.err.println("Unable to delete log segment " + oldest.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrite closed segments keeping only the newest message per compaction key
+     * Messages without the key, and everything in the active segment, are kept.
+     * Only segments with superseded messages are read, and the lock is taken
+     * per segment, so publishers are held up for one segment at most.
+     * @return Number of messages removed
+     */
+    public int compact() {
+        List<Long> dirty;
+        synchronized (this) {
+            if (config.getCompactionKey() == null) {
+                throw new IllegalStateException("No compaction key configured for topic: " + topic);
+            }
+            dirty = new ArrayList<>(supersededBySegment.keySet());
+        }
+        int removed = 0;
+        for (long baseOffset : dirty) {
+            removed += compactSegment(baseOffset);
+        }
+        return removed;
+    }
+
+    private synchronized int compactSegment(long baseOffset) {
+        int s = 0;
+        while (s < segments.size() - 1 && segments.get(s).getBaseOffset() != baseOffset) {
+            s++;
+        }
+        if (closed || s == segments.size() - 1) {
+            // Deleted meanwhile, or still the active segment
+            return 0;
+        }
+        supersededBySegment.remove(baseOffset);
+        LogSegment segment = segments.get(s);
+        int count = segment.getCount();
+        List<Integer> keep = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Object value = codec.decode(segment.bodyAt(i)).getPayloadValue(config.getCompactionKey());
+            if (value == null || Long.valueOf(segment.offsetAt(i)).equals(newestByKey.get(value))) {
+                keep.add(i);
+            }
+        }
+        if (keep.size() == count) {
+            return 0;
+        }
+        try {
+            if (keep.isEmpty()) {
+                segments.remove(s).delete();
+            } else {
+                segments.set(s, rewrite(segment, keep));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compact log segment " + segment.getPath(), e);
+        }
+        return count - keep.size();
+    }
+
+    /**
+     * Copy the kept records of a segment to a new file and swap it in
+     */
+    private LogSegment rewrite(LogSegment segment, List<Integer> keep) throws IOException {
+        Path compacting = directory.resolve("compacting");
+        Files.createDirectories(compacting);
+        Files.deleteIfExists(compacting.resolve(LogSegment.fileName(segment.getBaseOffset())));
+        LogSegment copy = LogSegment.create(compacting, segment.getBaseOffset(), Math.max(4096, segment.getSizeBytes()));
+        for (int index : keep) {
+            copy.appendRecord(segment, index);
+        }
+        copy.close();
+        segment.close();
+        Files.move(copy.getPath(), segment.getPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return LogSegment.open(segment.getPath(), config.getSegmentBytes(), false);
+    }
+
+    /**
+     * Get the offset of the oldest retained message
+     */
+    public synchronized long getStartOffset() {
+        for (LogSegment segment : segments) {
+            if (!segment.isEmpty()) {
+                return segment.offsetAt(0);
+            }
+        }
+        return nextOffset;
+    }
+
+    /**
+     * Get the offset the next appended message will get
+     */
+    public synchronized long getEndOffset() {
+        return nextOffset;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Get the bytes written across all segments
+     */
+    public synchronized long getSizeBytes() {
+        long size = 0;
+        for (LogSegment segment : segments) {
+            size += segment.getSizeBytes();
+        }
+        return size;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public DurableTopicConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Flush and close all segments
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        for (LogSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                System.err.println("Error closing log segment " + segment.getPath() + ": " + e.getMessage());
+            }
+        }
+        try {
+            stringsFile.close();
+        } catch (IOException e) {
+            System.err.println("Error closing string table for topic " + topic + ": " + e.getMessage());
+        }
+    }
+
+    private static ScheduledExecutorService flusher() {
+        ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            synchronized (MessageLog.class) {
+                executor = flusher;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "weave-log-flush");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    flusher = executor;
+                }
+            }
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,341 @@
+// FILE: src/main/java/com/weave/core/MessageSchema.java
+
+package com.weave.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed payload registered for a message type
+ * Registering a record class for a message type gives the pair a small
+ * numeric id. Messages created through the schema carry the record itself
+ * instead of a Map, and typed subscribers are matched on that id, so the hot
+ * path has no per-field hashing, boxing or casting.
+ *
+ * Map payloads stay fully supported both ways: getPayload() and
+ * getPayloadValue() on a typed message read the record's components by
+ * name, and a typed subscriber receiving a Map message of its type (from an
+ * older publisher or a durable log replay) gets a record built from the map.
+ *
+ * Record components should be primitives, strings, lists or maps so the
+ * Map form stays meaningful to codecs and untyped subscribers.
+ *
+ * Usage:
+ *   record GeneReading(String sample, String gene, double expression, long reads) {}
+ *   MessageSchema<GeneReading> READINGS = MessageSchema.register("stream.record", GeneReading.class);
+ *   bus.publish("stream.data", READINGS.message(new GeneReading("S1", "BRCA1", 4.2, 1200)));
+ *   bus.subscribe("stream.data", READINGS, (reading, message) -> ...reading.expression()...);
+ *
+ * @param <T> The payload record type
+ */
+public final class MessageSchema<T extends Record> {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+    private static final Map<String, MessageSchema<?>> BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, MessageSchema<?>> BY_CLASS = new ConcurrentHashMap<>();
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final int id;
+    private final String type;
+    private final Class<T> payloadClass;
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+    private final MethodHandle[] accessors;
+    private final MethodHandle constructor;
+    private final Map<String, Integer> fieldIndex;
+
+    private MessageSchema(int id, String type, Class<T> payloadClass) {
+        this.id = id;
+        this.type = type;
+        this.payloadClass = payloadClass;
+
+        RecordComponent[] components = payloadClass.getRecordComponents();
+        this.fieldNames = new String[components.length];
+        this.fieldTypes = new Class<?>[components.length];
+        this.accessors = new MethodHandle[components.length];
+        this.fieldIndex = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (int i = 0; i < components.length; i++) {
+                fieldNames[i] = components[i].getName();
+                fieldTypes[i] = components[i].getType();
+                Method accessor = components[i].getAccessor();
+                accessor.setAccessible(true);
+                accessors[i] = lookup.unreflect(accessor).asType(ACCESSOR_TYPE);
+                fieldIndex.put(fieldNames[i], i);
+            }
+            Constructor<T> canonical = payloadClass.getDeclaredConstructor(fieldTypes);
+            canonical.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot use " + payloadClass.getName() + " as a message payload: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Register a payload record for a message type
+     * Registering the same pair again returns the existing schema
+     * @throws IllegalArgumentException if the type or the class is already registered with a different partner
+     */
+    public static synchronized <T extends Record> MessageSchema<T> register(String type, Class<T> payloadClass) {
+        if (type == null || type.isEmpty()) {
+            throw new IllegalArgumentException("Message type cannot be null or empty");
+        }
+        if (payloadClass == null) {
+            throw new IllegalArgumentException("Payload class cannot be null");
+        }
+        MessageSchema<?> existing = BY_TYPE.get(type);
+        if (existing != null) {
+            if (existing.payloadClass != payloadClass) {
+                throw new IllegalArgumentException("Message type " + type + " is already registered with "
+                        + existing.payloadClass.getName());
+            }
+            @SuppressWarnings("unchecked")
+            MessageSchema<T> schema = (MessageSchema<T>) existing;
+            return schema;
+        }
+        MessageSchema<?> byClass = BY_CLASS.get(payloadClass);
+        if (byClass != null) {
+            throw new IllegalArgumentException(payloadClass.getName() + " is already registered for message type "
+                    + byClass.type);
+        }
+        MessageSchema<T> schema = new MessageSchema<>(NEXT_ID.getAndIncrement(), type, payloadClass);
+        BY_TYPE.put(type, schema);
+        BY_CLASS.put(payloadClass, schema);
+        return schema;
+    }
+
+    /**
+     * Get the schema registered for a message type, or null
+     */
+    public static MessageSchema<?> forType(String type) {
+        return BY_TYPE.get(type);
+    }
+
+    /**
+     * Get the schema registered for a payload class, or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Record> MessageSchema<T> forClass(Class<T> payloadClass) {
+        return (MessageSchema<T>) BY_CLASS.get(payloadClass);
+    }
+
+    /**
+     * Create a message carrying a payload record, with source "system"
+     */
+    public Message message(T payload) {
+        return message(payload, "system");
+    }
+
+    /**
+     * Create a message carrying a payload record
+     */
+    public Message message(T payload, String source) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null");
+        }
+        return new Message(this, payload, source);
+    }
+
+    /**
+     * Get a message's payload as this schema's record
+     * Typed messages return their record; Map messages of this type are converted
+     * @throws IllegalArgumentException if the message is of another type
+     */
+    public T payloadOf(Message message) {
+        if (message.getSchemaId() == id) {
+            return cast(message.getBody());
+        }
+        if (message.getSchemaId() == 0 && type.equals(message.getType())) {
+            return fromMap(message.getPayload());
+        }
+        throw new IllegalArgumentException("Message of type " + message.getType() + " is not a " + type);
+    }
+
+    /**
+     * Wrap a typed handler as a MessageHandler that skips messages of other types
+     */
+    MessageHandler adapt(TypedMessageHandler<? super T> handler) {
+        return message -> {
+            if (message.getSchemaId() == id) {
+                handler.handle(cast(message.getBody()), message);
+            } else if (message.getSchemaId() == 0 && type.equals(message.getType())) {
+                handler.handle(fromMap(message.getPayload()), message);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object body) {
+        return (T) body;
+    }
+
+    // ---- Map compatibility ----
+
+    /**
+     * Read one component of a payload record
+     */
+    Object get(Object body, int field) {
+        try {
+            return (Object) accessors[field].invokeExact(body);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot read " + fieldNames[field] + " of " + type, t);
+        }
+    }
+
+    /**
+     * Read a component by name, or null if the record has no such component
+     */
+    Object get(Object body, String field) {
+        Integer index = fieldIndex.get(field);
+        return index != null ? get(body, index) : null;
+    }
+
+    /**
+     * Copy a payload record's components into a map, in declaration order
+     */
+    PayloadMap toMap(Object body) {
+        PayloadMap map = new PayloadMap(fieldNames.length);
+        for (int i = 0; i < fieldNames.length; i++) {
+            map.set(fieldNames[i], get(body, i));
+        }
+        return map;
+    }
+
+    /**
+     * Build a payload record from a map, converting numbers to the component types
+     * Missing keys become null, or zero/false for primitive components
+     * @throws IllegalArgumentException if a value does not fit its component
+     */
+    T fromMap(Map<String, ?> map) {
+        Object[] args = new Object[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            args[i] = convert(i, map.get(fieldNames[i]));
+        }
+        try {
+            return cast((Object) constructor.invokeExact(args));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot create " + payloadClass.getName(), t);
+        }
+    }
+
+    private Object convert(int field, Object value) {
+        Class<?> target = fieldTypes[field];
+        if (value == null) {
+            return target.isPrimitive() ? zero(target) : null;
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (target == int.class || target == Integer.class) {
+                return number.intValue();
+            }
+            if (target == long.class || target == Long.class) {
+                return number.longValue();
+            }
+            if (target == double.class || target == Double.class) {
+                return number.doubleValue();
+            }
+            if (target == float.class || target == Float.class) {
+                return number.floatValue();
+            }
+            if (target == short.class || target == Short.class) {
+                return number.shortValue();
+            }
+            if (target == byte.class || target == Byte.class) {
+                return number.byteValue();
+            }
+        }
+        if ((target == boolean.class && value instanceof Boolean) || target.isInstance(value)) {
+            return value;
+        }
+        if (target == char.class && value instanceof CharSequence && ((CharSequence) value).length() == 1) {
+            return ((CharSequence) value).charAt(0);
+        }
+        if (target == String.class) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException("Field " + fieldNames[field] + " of " + type + " expects "
+                + target.getSimpleName() + " but got " + value.getClass().getSimpleName());
+    }
+
+    private static Object zero(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return false;
+        }
+        if (primitive == char.class) {
+            return '\0';
+        }
+        if (primitive == long.class) {
+            return 0L;
+        }
+        if (primitive == double.class) {
+            return 0.0;
+        }
+        if (primitive == float.class) {
+            return 0.0f;
+        }
+        if (primitive == short.class) {
+            return (short) 0;
+        }
+        if (primitive == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+
+    int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    boolean isPrimitive(int field) {
+        return fieldTypes[field].isPrimitive();
+    }
+
+    // ---- accessors ----
+
+    /**
+     * Get the numeric id typed subscribers are matched on (never 0)
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Class<T> getPayloadClass() {
+        return payloadClass;
+    }
+
+    /**
+     * Get the payload's component names, in declaration order
+     */
+    public List<String> getFieldNames() {
+        return Collections.unmodifiableList(Arrays.asList(fieldNames));
+    }
+
+    @Override
+    public String toString() {
+        return "MessageSchema{id=" + id + ", type='" + type + "', payload=" + payloadClass.getSimpleName()
+                + ", fields=" + Arrays.toString(fieldNames) + '}';
+    }
+}
@@ -0,0 +1,17 @@
+// FILE: src/main/java/com/weave/core/OverflowStrategy.java
+
+package com.weave.core;
+
+/**
+ * What to do when a bounded topic buffer or subscriber mailbox is full
+ */
+public enum OverflowStrategy {
+    /** Evict the oldest retained message to make room */
+    DROP_OLDEST,
+    /** Discard the incoming message and keep what is already buffered */
+    DROP_NEWEST,
+    /** Block the publisher until space frees up or the block timeout expires */
+    BLOCK,
+    /** Fail the publish immediately with a TopicOverflowException */
+    REJECT
+}
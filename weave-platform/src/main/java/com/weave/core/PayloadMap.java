@@ -0,0 +1,227 @@
+// FILE: src/main/java/com/weave/core/PayloadMap.java
+
+package com.weave.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact, read-only message payload
+ * Keys and values sit in parallel arrays in insertion order, so a typical
+ * payload of a handful of fields is three small arrays instead of a HashMap
+ * with a node per entry. Lookups scan the keys' cached hashes; larger
+ * payloads get an open-addressing index. Only package code can modify it:
+ * builders fill it before a message is created, and MessagePool clears it
+ * when a pooled message is recycled.
+ */
+final class PayloadMap extends AbstractMap<String, Object> {
+    private static final int INDEX_THRESHOLD = 8;
+
+    private String[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int[] index;
+    private int size;
+
+    PayloadMap() {
+        this(4);
+    }
+
+    PayloadMap(int capacity) {
+        int initial = Math.max(1, capacity);
+        keys = new String[initial];
+        values = new Object[initial];
+        hashes = new int[initial];
+    }
+
+    /**
+     * Copy any map's entries into a new payload
+     */
+    static PayloadMap copyOf(Map<String, ?> map) {
+        if (map instanceof PayloadMap) {
+            return ((PayloadMap) map).copy();
+        }
+        PayloadMap copy = new PayloadMap(map.size());
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            copy.append(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    PayloadMap copy() {
+        PayloadMap copy = new PayloadMap(size);
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        System.arraycopy(values, 0, copy.values, 0, size);
+        System.arraycopy(hashes, 0, copy.hashes, 0, size);
+        copy.size = size;
+        if (size > INDEX_THRESHOLD) {
+            copy.rebuildIndex();
+        }
+        return copy;
+    }
+
+    /**
+     * Set a value, replacing an existing entry for the key
+     */
+    void set(String key, Object value) {
+        int position = find(key, hash(key));
+        if (position >= 0) {
+            values[position] = value;
+        } else {
+            append(key, value);
+        }
+    }
+
+    /**
+     * Remove every entry, keeping the arrays for reuse
+     */
+    void reset() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        if (index != null) {
+            Arrays.fill(index, 0);
+        }
+        size = 0;
+    }
+
+    String keyAt(int position) {
+        return keys[position];
+    }
+
+    Object valueAt(int position) {
+        return values[position];
+    }
+
+    private void append(String key, Object value) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        int hash = hash(key);
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        size++;
+        if (size > INDEX_THRESHOLD) {
+            if (size == INDEX_THRESHOLD + 1 || size * 2 > index.length) {
+                // Entries below the threshold were never indexed (and a reset clears the index)
+                rebuildIndex();
+            } else {
+                insertIndex(hash, size - 1);
+            }
+        }
+    }
+
+    private int find(Object key, int hash) {
+        if (size > INDEX_THRESHOLD) {
+            int mask = index.length - 1;
+            for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                int position = index[slot] - 1;
+                if (hashes[position] == hash && Objects.equals(keys[position], key)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash && Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void rebuildIndex() {
+        int capacity = Integer.highestOneBit(Math.max(16, size * 4) - 1) << 1;
+        if (index == null || index.length != capacity) {
+            index = new int[capacity];
+        } else {
+            Arrays.fill(index, 0);
+        }
+        for (int i = 0; i < size; i++) {
+            insertIndex(hashes[i], i);
+        }
+    }
+
+    private void insertIndex(int hash, int position) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private static int hash(Object key) {
+        int h = key != null ? key.hashCode() : 0;
+        return h ^ h >>> 16;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int position = find(key, hash(key));
+        return position >= 0 ? values[position] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new Iterator<Map.Entry<String, Object>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int position = next++;
+                        return new SimpleImmutableEntry<>(keys[position], values[position]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
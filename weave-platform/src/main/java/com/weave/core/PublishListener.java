@@ -0,0 +1,13 @@
+// FILE: src/main/java/com/weave/core/PublishListener.java
+
+package com.weave.core;
+
+/**
+ * Observes every message published on a WeaveMessageBus, with its concrete topic
+ * Runs on the publishing thread before the publisher's reference is released,
+ * so it must be quick and must detach a pooled message it keeps.
+ */
+@FunctionalInterface
+interface PublishListener {
+    void published(String topic, Message message);
+}
@@ -0,0 +1,19 @@
+// FILE: src/main/java/com/weave/core/ReplyHandler.java
+
+package com.weave.core;
+
+/**
+ * Functional interface for answering requests
+ * Subscribed with WeaveMessageBus.respond; the returned message is sent to
+ * the request's reply topic with the request's id as its correlation id
+ */
+@FunctionalInterface
+public interface ReplyHandler {
+    /**
+     * Answer a request
+     * @param request The request message
+     * @return The reply, or null to send none
+     * @throws Exception if handling fails; the requester's future fails with the error message
+     */
+    Message handle(Message request) throws Exception;
+}
@@ -0,0 +1,241 @@
+// FILE: src/main/java/com/weave/core/ReplyRouter.java
+
+package com.weave.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Matches replies arriving on a bus's inbox topic to outstanding requests
+ * Each request is an entry keyed by correlation id holding a future and a
+ * deadline on the bus timer; nothing blocks while a request is outstanding,
+ * so thousands can be in flight without parked threads.
+ */
+final class ReplyRouter {
+    static final String ERROR_TYPE = "weave.reply.error";
+    static final String ERROR_KEY = "error";
+
+    private final String inbox;
+    private final ScheduledExecutorService timer;
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    ReplyRouter(String inbox, ScheduledExecutorService timer) {
+        this.inbox = inbox;
+        this.timer = timer;
+    }
+
+    String getInbox() {
+        return inbox;
+    }
+
+    /**
+     * Track a request expecting a single reply
+     * The future fails with a TimeoutException at the deadline
+     */
+    CompletableFuture<Message> expectReply(String correlationId, String topic, Duration timeout) {
+        PendingRequest request = new PendingRequest(correlationId, topic);
+        track(request, timeout);
+        return request.future;
+    }
+
+    /**
+     * Track a request gathering several replies
+     * The future completes at the quorum, or at the deadline with what has arrived
+     */
+    CompletableFuture<GatherResult> expectReplies(String correlationId, String topic,
+                                                  int expected, int quorum, Duration timeout) {
+        PendingGather gather = new PendingGather(correlationId, topic, expected, quorum);
+        track(gather, timeout);
+        return gather.future;
+    }
+
+    private void track(Pending entry, Duration timeout) {
+        pending.put(entry.correlationId, entry);
+        try {
+            entry.deadline = timer.schedule(() -> expire(entry), timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.remove(entry.correlationId);
+            throw new IllegalStateException("Message bus is not running");
+        }
+    }
+
+    /**
+     * Stop tracking a request whose message could not be published
+     */
+    void abandon(String correlationId) {
+        Pending entry = pending.remove(correlationId);
+        if (entry != null && entry.deadline != null) {
+            entry.deadline.cancel(false);
+        }
+    }
+
+    /**
+     * Route a reply from the inbox to its request
+     */
+    void onReply(Message reply) {
+        String correlationId = reply.getCorrelationId();
+        Pending entry = correlationId != null ? pending.get(correlationId) : null;
+        if (entry == null) {
+            // Late (after the deadline or quorum) or not a reply at all
+            unmatched.incrementAndGet();
+            return;
+        }
+        boolean finished;
+        synchronized (entry) {
+            finished = !entry.done && entry.accept(reply);
+            if (finished) {
+                entry.done = true;
+            }
+        }
+        if (finished) {
+            pending.remove(correlationId, entry);
+            if (entry.deadline != null) {
+                entry.deadline.cancel(false);
+            }
+            entry.complete();
+        }
+    }
+
+    private void expire(Pending entry) {
+        synchronized (entry) {
+            if (entry.done) {
+                return;
+            }
+            entry.done = true;
+        }
+        pending.remove(entry.correlationId, entry);
+        entry.expire();
+    }
+
+    /**
+     * Fail every outstanding request, e.g. when the bus shuts down
+     */
+    void failAll(String reason) {
+        for (Pending entry : pending.values()) {
+            synchronized (entry) {
+                if (entry.done) {
+                    continue;
+                }
+                entry.done = true;
+            }
+            pending.remove(entry.correlationId, entry);
+            entry.fail(new IllegalStateException(reason));
+        }
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    long getUnmatchedCount() {
+        return unmatched.get();
+    }
+
+    /**
+     * One outstanding request; accept runs under the entry's lock, completion outside it
+     */
+    private abstract static class Pending {
+        final String correlationId;
+        final String topic;
+        volatile ScheduledFuture<?> deadline;
+        boolean done;
+
+        Pending(String correlationId, String topic) {
+            this.correlationId = correlationId;
+            this.topic = topic;
+        }
+
+        /**
+         * Record a reply
+         * @return true if the request is now finished
+         */
+        abstract boolean accept(Message reply);
+
+        abstract void complete();
+
+        abstract void expire();
+
+        abstract void fail(Exception cause);
+    }
+
+    private static final class PendingRequest extends Pending {
+        final CompletableFuture<Message> future = new CompletableFuture<>();
+        Message reply;
+
+        PendingRequest(String correlationId, String topic) {
+            super(correlationId, topic);
+        }
+
+        @Override
+        boolean accept(Message reply) {
+            this.reply = reply;
+            return true;
+        }
+
+        @Override
+        void complete() {
+            if (ERROR_TYPE.equals(reply.getType())) {
+                future.completeExceptionally(new RequestFailedException(topic,
+                        "Request to " + topic + " failed: " + reply.getPayloadValue(ERROR_KEY)));
+            } else {
+                future.complete(reply);
+            }
+        }
+
+        @Override
+        void expire() {
+            future.completeExceptionally(new TimeoutException("No reply from " + topic + " for request " + correlationId));
+        }
+
+        @Override
+        void fail(Exception cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private static final class PendingGather extends Pending {
+        final CompletableFuture<GatherResult> future = new CompletableFuture<>();
+        final List<Message> replies = new ArrayList<>();
+        final int expected;
+        final int quorum;
+
+        PendingGather(String correlationId, String topic, int expected, int quorum) {
+            super(correlationId, topic);
+            this.expected = expected;
+            this.quorum = quorum;
+        }
+
+        @Override
+        boolean accept(Message reply) {
+            replies.add(reply);
+            return replies.size() >= quorum;
+        }
+
+        // Once done is set no more replies are accepted, so the list is stable
+
+        @Override
+        void complete() {
+            future.complete(new GatherResult(replies, expected, false));
+        }
+
+        @Override
+        void expire() {
+            future.complete(new GatherResult(replies, expected, true));
+        }
+
+        @Override
+        void fail(Exception cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+// FILE: src/main/java/com/weave/core/RequestFailedException.java
+
+package com.weave.core;
+
+/**
+ * Completes a request's future when the responder's handler threw
+ */
+public class RequestFailedException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final String topic;
+
+    public RequestFailedException(String topic, String message) {
+        super(message);
+        this.topic = topic;
+    }
+
+    /**
+     * Get the topic the request was sent to
+     */
+    public String getTopic() {
+        return topic;
+    }
+}
@@ -0,0 +1,131 @@
+// FILE: src/main/java/com/weave/core/RetentionPolicy.java
+
+package com.weave.core;
+
+import java.time.Duration;
+
+/**
+ * Retention policy for a message bus topic
+ * Bounds how many messages, how old and how many bytes a topic retains,
+ * and what happens to publishers when the bound is reached
+ */
+public class RetentionPolicy {
+    private final int maxMessages;
+    private final Duration maxAge;
+    private final long maxBytes;
+    private final OverflowStrategy overflow;
+    private final Duration blockTimeout;
+    
+    private RetentionPolicy(Builder builder) {
+        this.maxMessages = builder.maxMessages;
+        this.maxAge = builder.maxAge;
+        this.maxBytes = builder.maxBytes;
+        this.overflow = builder.overflow;
+        this.blockTimeout = builder.blockTimeout;
+    }
+    
+    /**
+     * Default policy: keep the latest 1000 messages, dropping the oldest
+     */
+    public static RetentionPolicy defaults() {
+        return new Builder().build();
+    }
+    
+    /**
+     * Policy that retains nothing; for high-rate topics consumed only by subscribers
+     */
+    public static RetentionPolicy none() {
+        return new Builder().maxMessages(0).build();
+    }
+    
+    public int getMaxMessages() {
+        return maxMessages;
+    }
+    
+    /**
+     * Get maximum message age, or null for no age limit
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+    
+    /**
+     * Get maximum retained bytes (estimated), or Long.MAX_VALUE for no byte limit
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+    
+    public OverflowStrategy getOverflow() {
+        return overflow;
+    }
+    
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+    
+    @Override
+    public String toString() {
+        return "RetentionPolicy{" +
+                "maxMessages=" + maxMessages +
+                ", maxAge=" + maxAge +
+                ", maxBytes=" + (maxBytes == Long.MAX_VALUE ? "unbounded" : maxBytes) +
+                ", overflow=" + overflow +
+                '}';
+    }
+    
+    /**
+     * Builder for retention policies
+     */
+    public static class Builder {
+        private int maxMessages = 1000;
+        private Duration maxAge;
+        private long maxBytes = Long.MAX_VALUE;
+        private OverflowStrategy overflow = OverflowStrategy.DROP_OLDEST;
+        private Duration blockTimeout = Duration.ofSeconds(30);
+        
+        /**
+         * Ring buffer capacity; preallocated when the topic is created (0 retains nothing)
+         */
+        public Builder maxMessages(int maxMessages) {
+            this.maxMessages = maxMessages;
+            return this;
+        }
+        
+        public Builder maxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+            return this;
+        }
+        
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+        
+        public Builder overflow(OverflowStrategy overflow) {
+            this.overflow = overflow;
+            return this;
+        }
+        
+        /**
+         * How long a BLOCK publisher waits before the publish is rejected
+         */
+        public Builder blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+        
+        public RetentionPolicy build() {
+            if (maxMessages < 0) {
+                throw new IllegalArgumentException("maxMessages cannot be negative");
+            }
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("maxBytes must be positive");
+            }
+            if (overflow == null) {
+                throw new IllegalArgumentException("Overflow strategy cannot be null");
+            }
+            return new RetentionPolicy(this);
+        }
+    }
+}
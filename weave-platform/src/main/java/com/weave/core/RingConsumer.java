@@ -0,0 +1,197 @@
+// FILE: src/main/java/com/weave/core/RingConsumer.java
+
+package com.weave.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One subscriber reading a SequenceRing at its own sequence
+ * Handles every available message in order, up to the configured batch size,
+ * then publishes its progress with a single ordered write. Batch handlers
+ * receive each such run of messages as one list.
+ */
+final class RingConsumer {
+    private final SequenceRing ring;
+    private final MessageHandler handler;
+    private final BatchMessageHandler batchHandler;
+    private final Executor executor;
+    private final Sequence sequence;
+    private final long startSequence;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final boolean pooled;
+    private volatile boolean halted;
+    private Thread thread;
+
+    RingConsumer(SequenceRing ring, MessageHandler handler, BatchMessageHandler batchHandler,
+                 Executor executor, long startSequence) {
+        this.ring = ring;
+        this.handler = handler;
+        this.batchHandler = batchHandler;
+        this.executor = executor;
+        this.sequence = new Sequence(startSequence);
+        this.startSequence = startSequence;
+        this.pooled = ring.getConfig().getConsumerMode() == RingDispatchConfig.ConsumerMode.POOLED;
+    }
+
+    void start() {
+        if (!pooled) {
+            thread = new Thread(this::runDedicated, "weave-ring-" + ring.getTopic());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    void halt() {
+        halted = true;
+        ring.getConfig().getWaitStrategy().signalAllWhenBlocking();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Called by publishers; schedules a pooled consumer that is not already running
+     */
+    void onPublish() {
+        if (pooled && !halted && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::runPooled);
+        }
+    }
+
+    Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Number of published messages this consumer has not handled yet
+     */
+    long getLag() {
+        return Math.max(0, ring.getCursor().get() - sequence.get());
+    }
+
+    /**
+     * Number of messages handled since this consumer was added
+     */
+    long getHandledCount() {
+        return sequence.get() - startSequence;
+    }
+
+    /**
+     * Get the published messages this consumer has not handled yet, oldest first
+     * Only stable once publishing has stopped and the consumer is halted
+     */
+    List<Message> getUnhandled() {
+        long first = sequence.get() + 1;
+        long last = ring.highestPublished(first, ring.getCursor().get());
+        List<Message> pending = new ArrayList<>((int) Math.max(0, last - first + 1));
+        for (long s = first; s <= last; s++) {
+            pending.add(ring.get(s));
+        }
+        return pending;
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    int getCapacity() {
+        return ring.getConfig().getBufferSize();
+    }
+
+    private void runDedicated() {
+        WaitStrategy waitStrategy = ring.getConfig().getWaitStrategy();
+        long next = sequence.get() + 1;
+        while (!halted) {
+            try {
+                long cursor = waitStrategy.waitFor(next, ring.getCursor(), () -> halted);
+                if (cursor < next) {
+                    continue;
+                }
+                long available = ring.highestPublished(next, cursor);
+                if (available < next) {
+                    // Claimed but not yet written; the publisher is mid-copy
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next = handleBatch(next, available) + 1;
+            } catch (InterruptedException e) {
+                if (halted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void runPooled() {
+        while (true) {
+            long next = sequence.get() + 1;
+            long available = ring.highestPublished(next, ring.getCursor().get());
+            if (available >= next && !halted) {
+                handleBatch(next, available);
+                continue;
+            }
+            scheduled.set(false);
+            // A publish may have raced with the release; reclaim if so
+            long cursor = ring.getCursor().get();
+            if (halted || ring.highestPublished(sequence.get() + 1, cursor) <= sequence.get()
+                    || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handle messages from next to at most available, bounded by the batch size
+     * @return The last sequence handled
+     */
+    private long handleBatch(long next, long available) {
+        long last = Math.min(available, next + ring.getConfig().getMaxBatchSize() - 1);
+        if (batchHandler != null) {
+            List<Message> batch = new ArrayList<>((int) (last - next + 1));
+            for (long s = next; s <= last; s++) {
+                batch.add(ring.get(s));
+            }
+            long start = System.nanoTime();
+            try {
+                batchHandler.handleBatch(batch);
+            } catch (Exception e) {
+                failed.add(batch.size());
+                System.err.println("Error handling message batch: " + e.getMessage());
+                e.printStackTrace();
+            }
+            latency.record(System.nanoTime() - start);
+            for (Message message : batch) {
+                message.release();
+            }
+            sequence.set(last);
+            return last;
+        }
+        long start = System.nanoTime();
+        for (long s = next; s <= last; s++) {
+            Message message = ring.get(s);
+            try {
+                handler.handle(message);
+            } catch (Exception e) {
+                failed.increment();
+                System.err.println("Error handling message: " + e.getMessage());
+                e.printStackTrace();
+            }
+            long end = System.nanoTime();
+            latency.record(end - start);
+            start = end;
+            message.release();
+        }
+        sequence.set(last);
+        return last;
+    }
+}
@@ -0,0 +1,95 @@
+// FILE: src/main/java/com/weave/core/RingDispatchConfig.java
+
+package com.weave.core;
+
+/**
+ * Configuration for Disruptor-style ring dispatch on a topic
+ */
+public class RingDispatchConfig {
+    /**
+     * How ring consumers get a thread
+     */
+    public enum ConsumerMode {
+        /** One dedicated thread per subscriber, waiting with the wait strategy */
+        DEDICATED,
+        /** Subscribers run batches on the bus executor when messages are available */
+        POOLED
+    }
+    
+    private final int bufferSize;
+    private final WaitStrategy waitStrategy;
+    private final ConsumerMode consumerMode;
+    private final int maxBatchSize;
+    
+    private RingDispatchConfig(Builder builder) {
+        this.bufferSize = builder.bufferSize;
+        this.waitStrategy = builder.waitStrategy;
+        this.consumerMode = builder.consumerMode;
+        this.maxBatchSize = builder.maxBatchSize;
+    }
+    
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+    
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    /**
+     * Builder for ring dispatch configuration
+     */
+    public static class Builder {
+        private int bufferSize = 8192;
+        private WaitStrategy waitStrategy = WaitStrategy.blocking();
+        private ConsumerMode consumerMode = ConsumerMode.DEDICATED;
+        private int maxBatchSize = 256;
+        
+        /**
+         * Ring size, must be a power of two
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+        
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+        
+        public Builder consumerMode(ConsumerMode consumerMode) {
+            this.consumerMode = consumerMode;
+            return this;
+        }
+        
+        /**
+         * Maximum messages a consumer handles before publishing its progress
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+        
+        public RingDispatchConfig build() {
+            if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+                throw new IllegalArgumentException("Buffer size must be a power of two");
+            }
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Max batch size must be at least 1");
+            }
+            if (waitStrategy == null || consumerMode == null) {
+                throw new IllegalArgumentException("Wait strategy and consumer mode are required");
+            }
+            return new RingDispatchConfig(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+// FILE: src/main/java/com/weave/core/Sequence.java
+
+package com.weave.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cache-line padded sequence counter for ring dispatch
+ * Padding keeps producer and consumer sequences from sharing a cache line.
+ */
+class SequenceLeftPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequenceLeftPadding {
+    protected volatile long value;
+}
+
+public class Sequence extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+    
+    private static final VarHandle VALUE;
+    
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+    
+    public long get() {
+        return value;
+    }
+    
+    /**
+     * Ordered store; cheaper than a volatile write and enough for single-writer sequences
+     */
+    public void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+    
+    public boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+    
+    public long incrementAndGet() {
+        return (long) VALUE.getAndAdd(this, 1L) + 1L;
+    }
+    
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
@@ -0,0 +1,207 @@
+// FILE: src/main/java/com/weave/core/SequenceRing.java
+
+package com.weave.core;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer, multi-consumer sequence ring for one topic
+ * Publishers claim a sequence, write the slot and mark it available; each
+ * consumer reads at its own sequence, so delivery is ordered per subscriber
+ * and costs no allocation or queue hand-off. Publishers never overrun the
+ * slowest consumer (they wait for it), which is the ring's back-pressure.
+ */
+final class SequenceRing {
+    private final String topic;
+    private final RingDispatchConfig config;
+    private final Message[] slots;
+    private final AtomicIntegerArray available;
+    private final int mask;
+    private final int indexShift;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingCache = new Sequence(-1);
+    private volatile RingConsumer[] consumers = new RingConsumer[0];
+    private volatile boolean halted;
+
+    SequenceRing(String topic, RingDispatchConfig config) {
+        this.topic = topic;
+        this.config = config;
+        this.slots = new Message[config.getBufferSize()];
+        this.available = new AtomicIntegerArray(config.getBufferSize());
+        this.mask = config.getBufferSize() - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(config.getBufferSize());
+        for (int i = 0; i < slots.length; i++) {
+            available.set(i, -1);
+        }
+    }
+
+    /**
+     * Publish a message to every consumer of the ring
+     * Waits while the ring is full, i.e. while the slowest consumer is a whole ring behind
+     */
+    void publish(Message message) {
+        long sequence = claim(1);
+        // Counted after the claim: consumers added later start beyond this sequence
+        message.retain(consumers.length);
+        slots[(int) sequence & mask] = message;
+        available.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+        afterPublish();
+    }
+
+    /**
+     * Publish several messages with a single claim
+     */
+    void publishAll(Message[] messages) {
+        int n = messages.length;
+        int offset = 0;
+        while (offset < n) {
+            // Never claim more than the ring can hold at once
+            int chunk = Math.min(n - offset, slots.length);
+            long last = claim(chunk);
+            long first = last - chunk + 1;
+            int readers = consumers.length;
+            for (int i = 0; i < chunk; i++) {
+                messages[offset + i].retain(readers);
+                slots[(int) (first + i) & mask] = messages[offset + i];
+            }
+            for (int i = 0; i < chunk; i++) {
+                long sequence = first + i;
+                available.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+            }
+            offset += chunk;
+            afterPublish();
+        }
+    }
+
+    /**
+     * Claim n contiguous sequences and wait until the slowest consumer has freed them
+     * @return The highest claimed sequence
+     */
+    private long claim(int n) {
+        long next = n == 1 ? cursor.incrementAndGet() : addAndGet(n);
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > gatingCache.get()) {
+            long minimum;
+            while (wrapPoint > (minimum = minimumConsumerSequence(next - n))) {
+                if (halted) {
+                    throw new IllegalStateException("Ring dispatch stopped for topic: " + topic);
+                }
+                LockSupport.parkNanos(1_000);
+            }
+            gatingCache.set(minimum);
+        }
+        return next;
+    }
+
+    private long addAndGet(int delta) {
+        long current;
+        do {
+            current = cursor.get();
+        } while (!cursor.compareAndSet(current, current + delta));
+        return current + delta;
+    }
+
+    private void afterPublish() {
+        config.getWaitStrategy().signalAllWhenBlocking();
+        for (RingConsumer consumer : consumers) {
+            consumer.onPublish();
+        }
+    }
+
+    /**
+     * Highest contiguous published sequence between lowerBound and upperBound
+     */
+    long highestPublished(long lowerBound, long upperBound) {
+        for (long sequence = lowerBound; sequence <= upperBound; sequence++) {
+            if (available.get((int) sequence & mask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return upperBound;
+    }
+
+    Message get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    Sequence getCursor() {
+        return cursor;
+    }
+
+    RingDispatchConfig getConfig() {
+        return config;
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Add a consumer that starts after the last claimed sequence
+     * @param handler Per-message handler, or null when batchHandler is set
+     * @param batchHandler Batch handler, or null when handler is set
+     */
+    synchronized RingConsumer addConsumer(MessageHandler handler, BatchMessageHandler batchHandler,
+                                          Executor executor) {
+        RingConsumer consumer = new RingConsumer(this, handler, batchHandler, executor, cursor.get());
+        RingConsumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[consumers.length] = consumer;
+        consumers = updated;
+        consumer.start();
+        return consumer;
+    }
+
+    /**
+     * Stop and remove a consumer
+     * @return true if the consumer was removed
+     */
+    synchronized boolean removeConsumer(RingConsumer consumer) {
+        for (int i = 0; i < consumers.length; i++) {
+            if (consumers[i] == consumer) {
+                RingConsumer removed = consumers[i];
+                RingConsumer[] updated = new RingConsumer[consumers.length - 1];
+                System.arraycopy(consumers, 0, updated, 0, i);
+                System.arraycopy(consumers, i + 1, updated, i, consumers.length - i - 1);
+                consumers = updated;
+                removed.halt();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getConsumerCount() {
+        return consumers.length;
+    }
+
+    long getMaxLag() {
+        long lag = 0;
+        for (RingConsumer consumer : consumers) {
+            lag = Math.max(lag, consumer.getLag());
+        }
+        return lag;
+    }
+
+    /**
+     * Stop all consumers and release waiting publishers
+     */
+    synchronized void halt() {
+        halted = true;
+        for (RingConsumer consumer : consumers) {
+            consumer.halt();
+        }
+        consumers = new RingConsumer[0];
+        config.getWaitStrategy().signalAllWhenBlocking();
+    }
+
+    private long minimumConsumerSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (RingConsumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.getSequence().get());
+        }
+        return minimum;
+    }
+}
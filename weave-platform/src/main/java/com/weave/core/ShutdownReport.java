@@ -0,0 +1,115 @@
+// FILE: src/main/java/com/weave/core/ShutdownReport.java
+
+package com.weave.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of draining a WeaveMessageBus on shutdown
+ * Undelivered messages are keyed by the subscription they were queued for
+ * (its topic or pattern, with "#2", "#3"... for further subscriptions on the
+ * same one). A mailbox message whose handler was still running at the
+ * deadline counts as in flight; a ring consumer's whole unfinished batch
+ * counts as undelivered, so replaying persisted messages is at-least-once.
+ * Persisted subscriptions each get their own log directory, recorded in
+ * getPersistedLocations().
+ */
+public final class ShutdownReport {
+    private final boolean drained;
+    private final Duration drainTime;
+    private final long handledDuringDrain;
+    private final long inFlight;
+    private final Map<String, List<Message>> undelivered;
+    private final Path persistDirectory;
+    private final int persistedCount;
+    private final Map<String, Path> persistedLocations;
+
+    ShutdownReport(boolean drained, Duration drainTime, long handledDuringDrain, long inFlight,
+                   Map<String, List<Message>> undelivered, Path persistDirectory, int persistedCount,
+                   Map<String, Path> persistedLocations) {
+        this.drained = drained;
+        this.drainTime = drainTime;
+        this.handledDuringDrain = handledDuringDrain;
+        this.inFlight = inFlight;
+        this.undelivered = Collections.unmodifiableMap(undelivered);
+        this.persistDirectory = persistDirectory;
+        this.persistedCount = persistedCount;
+        this.persistedLocations = Collections.unmodifiableMap(persistedLocations);
+    }
+
+    /**
+     * Check whether every subscriber worked off its queue and every handler returned before the deadline
+     */
+    public boolean isDrained() {
+        return drained;
+    }
+
+    public Duration getDrainTime() {
+        return drainTime;
+    }
+
+    /**
+     * Get the messages subscribers handled after publishing stopped
+     */
+    public long getHandledDuringDrain() {
+        return handledDuringDrain;
+    }
+
+    /**
+     * Get the messages handed to handlers that had not returned by the deadline
+     */
+    public long getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * Get the messages never handed to their subscriber, per subscription, oldest first
+     */
+    public Map<String, List<Message>> getUndelivered() {
+        return undelivered;
+    }
+
+    public int getUndeliveredCount() {
+        int total = 0;
+        for (List<Message> messages : undelivered.values()) {
+            total += messages.size();
+        }
+        return total;
+    }
+
+    /**
+     * Get the directory undelivered messages were written to, or null
+     * Each subscription's messages are in a MessageLog of its own beneath it
+     */
+    public Path getPersistDirectory() {
+        return persistDirectory;
+    }
+
+    public int getPersistedCount() {
+        return persistedCount;
+    }
+
+    /**
+     * Get the MessageLog directory each persisted subscription was written to, by its undelivered key
+     * Subscriptions that failed to persist are missing
+     */
+    public Map<String, Path> getPersistedLocations() {
+        return persistedLocations;
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownReport{" +
+                "drained=" + drained +
+                ", drainTime=" + drainTime.toMillis() + "ms" +
+                ", handledDuringDrain=" + handledDuringDrain +
+                ", inFlight=" + inFlight +
+                ", undelivered=" + getUndeliveredCount() +
+                (persistDirectory != null ? ", persisted=" + persistedCount + " to " + persistDirectory : "") +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+// FILE: src/main/java/com/weave/core/StringTable.java
+
+package com.weave.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only table of interned strings shared by a MessageCodec's encoder and decoder
+ * Message types, sources and payload keys repeat on every message; once
+ * interned they are written as a small varint id instead of their UTF-8 bytes.
+ * Encoder and decoder must see the same table (MessageLog persists it next to
+ * the log segments). Thread-safe.
+ */
+public final class StringTable {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private volatile String[] strings = new String[64];
+    private volatile int size;
+
+    /**
+     * Create a table holding at most 4096 strings
+     */
+    public StringTable() {
+        this(4096);
+    }
+
+    /**
+     * @param maxEntries Strings beyond this many are written inline instead of interned
+     */
+    public StringTable(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries cannot be negative");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Pre-register strings, e.g. the message types a component publishes,
+     * so they get the lowest (single byte) ids
+     */
+    public StringTable register(String... values) {
+        for (String value : values) {
+            intern(value);
+        }
+        return this;
+    }
+
+    /**
+     * Get the id of an interned string
+     * @return The id, or -1 if the string is not interned
+     */
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Intern a string
+     * @return The string's id, or -1 if the table is full
+     */
+    public synchronized int intern(String value) {
+        Integer existing = ids.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size >= maxEntries) {
+            return -1;
+        }
+        String[] current = strings;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        // Publish the array before the id, so a reader that sees the id can resolve it
+        strings = current;
+        int id = size;
+        size = id + 1;
+        ids.put(value, id);
+        return id;
+    }
+
+    /**
+     * Get an interned string by id
+     * @throws IllegalStateException if the id is unknown (encoder and decoder tables differ)
+     */
+    public String get(int id) {
+        int n = size;
+        String[] current = strings;
+        if (id < 0 || id >= n) {
+            throw new IllegalStateException("Unknown string table id: " + id);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the strings interned from an id onwards, in id order
+     */
+    public List<String> entriesFrom(int fromId) {
+        int end = size;
+        String[] current = strings;
+        return new ArrayList<>(Arrays.asList(current).subList(Math.min(fromId, end), end));
+    }
+}
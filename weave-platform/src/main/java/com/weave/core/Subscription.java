@@ -0,0 +1,176 @@
+// FILE: src/main/java/com/weave/core/Subscription.java
+
+package com.weave.core;
+
+/**
+ * Handle for a handler subscribed to a topic
+ * Reports how far the subscriber is behind and what happened to its messages,
+ * and cancels the subscription
+ */
+public final class Subscription {
+    private final WeaveMessageBus bus;
+    private final String topic;
+    private final MessageHandler handler;
+    private final BatchMessageHandler batchHandler;
+    private volatile Mailbox mailbox;
+    private volatile RingConsumer consumer;
+    private volatile boolean cancelled;
+    
+    Subscription(WeaveMessageBus bus, String topic, MessageHandler handler, BatchMessageHandler batchHandler) {
+        this.bus = bus;
+        this.topic = topic;
+        this.handler = handler;
+        this.batchHandler = batchHandler;
+    }
+    
+    /**
+     * Get the topic or wildcard pattern this subscription was registered with
+     */
+    public String getTopic() {
+        return topic;
+    }
+    
+    /**
+     * Get the per-message handler, or null for a batch subscription
+     */
+    public MessageHandler getHandler() {
+        return handler;
+    }
+    
+    /**
+     * Get the batch handler, or null for a per-message subscription
+     */
+    public BatchMessageHandler getBatchHandler() {
+        return batchHandler;
+    }
+    
+    /**
+     * Get the number of messages published to this subscriber but not yet handled
+     */
+    public long getLag() {
+        Mailbox box = mailbox;
+        if (box != null) {
+            return box.getLag();
+        }
+        RingConsumer ring = consumer;
+        return ring != null ? ring.getLag() : 0;
+    }
+    
+    /**
+     * Get the number of messages handled, successfully or not
+     */
+    public long getHandledCount() {
+        Mailbox box = mailbox;
+        if (box != null) {
+            return box.getDeliveredCount() + box.getFailedCount();
+        }
+        RingConsumer ring = consumer;
+        return ring != null ? ring.getHandledCount() : 0;
+    }
+    
+    /**
+     * Get the number of messages whose handler threw
+     */
+    public long getFailedCount() {
+        Mailbox box = mailbox;
+        if (box != null) {
+            return box.getFailedCount();
+        }
+        RingConsumer ring = consumer;
+        return ring != null ? ring.getFailedCount() : 0;
+    }
+    
+    /**
+     * Get the number of messages shed by DROP_OLDEST/DROP_NEWEST or discarded on cancel
+     */
+    public long getDroppedCount() {
+        Mailbox box = mailbox;
+        return box != null ? box.getDroppedCount() : 0;
+    }
+    
+    /**
+     * Get the number of publishes rejected because the mailbox was full
+     */
+    public long getRejectedCount() {
+        Mailbox box = mailbox;
+        return box != null ? box.getRejectedCount() : 0;
+    }
+    
+    /**
+     * Get how long the handler takes per call (per batch for batch handlers)
+     */
+    public LatencyHistogram.Snapshot getLatency() {
+        Mailbox box = mailbox;
+        if (box != null) {
+            return box.getLatency().snapshot();
+        }
+        RingConsumer ring = consumer;
+        return ring != null ? ring.getLatency().snapshot() : new LatencyHistogram().snapshot();
+    }
+    
+    /**
+     * Get the mailbox configuration, or null when the topic uses ring dispatch
+     */
+    public SubscriptionConfig getConfig() {
+        Mailbox box = mailbox;
+        return box != null ? box.getConfig() : null;
+    }
+    
+    public boolean isActive() {
+        return !cancelled && bus.isRunning();
+    }
+    
+    /**
+     * Stop receiving messages; anything still queued in the mailbox is discarded
+     */
+    public void cancel() {
+        bus.unsubscribe(this);
+    }
+    
+    Mailbox getMailbox() {
+        return mailbox;
+    }
+    
+    RingConsumer getRingConsumer() {
+        return consumer;
+    }
+    
+    void attachMailbox(Mailbox mailbox) {
+        this.mailbox = mailbox;
+        this.consumer = null;
+    }
+    
+    void attachRingConsumer(RingConsumer consumer) {
+        this.consumer = consumer;
+        this.mailbox = null;
+    }
+    
+    /**
+     * Detach from the bus
+     * @return true if this call cancelled the subscription
+     */
+    boolean markCancelled() {
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+        }
+        Mailbox box = mailbox;
+        if (box != null) {
+            box.close();
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return "Subscription{" +
+                "topic='" + topic + '\'' +
+                ", lag=" + getLag() +
+                ", handled=" + getHandledCount() +
+                ", dropped=" + getDroppedCount() +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
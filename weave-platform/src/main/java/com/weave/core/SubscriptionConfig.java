@@ -0,0 +1,132 @@
+// FILE: src/main/java/com/weave/core/SubscriptionConfig.java
+
+package com.weave.core;
+
+import java.time.Duration;
+
+/**
+ * Configuration for a subscriber's mailbox
+ * Each subscription buffers its pending messages in a bounded mailbox and
+ * handles them one at a time, in publish order
+ */
+public class SubscriptionConfig {
+    private final int mailboxCapacity;
+    private final OverflowStrategy overflow;
+    private final Duration blockTimeout;
+    private final int maxBatchSize;
+    private final Duration maxLinger;
+    
+    private SubscriptionConfig(Builder builder) {
+        this.mailboxCapacity = builder.mailboxCapacity;
+        this.overflow = builder.overflow;
+        this.blockTimeout = builder.blockTimeout;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxLinger = builder.maxLinger;
+    }
+    
+    /**
+     * Default config: 1024 pending messages; when full the oldest pending message is
+     * dropped (and counted), so a slow subscriber never fails or stalls a publisher.
+     * BLOCK and REJECT back-pressure publishers and must be chosen explicitly.
+     */
+    public static SubscriptionConfig defaults() {
+        return new Builder().build();
+    }
+    
+    public int getMailboxCapacity() {
+        return mailboxCapacity;
+    }
+    
+    public OverflowStrategy getOverflow() {
+        return overflow;
+    }
+    
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    public Duration getMaxLinger() {
+        return maxLinger;
+    }
+    
+    @Override
+    public String toString() {
+        return "SubscriptionConfig{" +
+                "mailboxCapacity=" + mailboxCapacity +
+                ", overflow=" + overflow +
+                ", blockTimeout=" + blockTimeout +
+                ", maxBatchSize=" + maxBatchSize +
+                ", maxLinger=" + maxLinger +
+                '}';
+    }
+    
+    /**
+     * Builder for subscription configs
+     */
+    public static class Builder {
+        private int mailboxCapacity = 1024;
+        private OverflowStrategy overflow = OverflowStrategy.DROP_OLDEST;
+        private Duration blockTimeout = Duration.ofSeconds(30);
+        private int maxBatchSize = 64;
+        private Duration maxLinger = Duration.ZERO;
+        
+        /**
+         * Maximum messages waiting to be handled
+         */
+        public Builder mailboxCapacity(int mailboxCapacity) {
+            this.mailboxCapacity = mailboxCapacity;
+            return this;
+        }
+        
+        public Builder overflow(OverflowStrategy overflow) {
+            this.overflow = overflow;
+            return this;
+        }
+        
+        /**
+         * How long a BLOCK publisher waits before the publish is rejected
+         */
+        public Builder blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+        
+        /**
+         * Messages handled per executor task before yielding the thread to other subscribers;
+         * for batch handlers, the largest list passed to one call
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+        
+        /**
+         * How long a batch handler's partial batch may wait for more messages
+         * before it is delivered anyway (zero delivers whatever is pending)
+         */
+        public Builder maxLinger(Duration maxLinger) {
+            this.maxLinger = maxLinger;
+            return this;
+        }
+        
+        public SubscriptionConfig build() {
+            if (mailboxCapacity < 1) {
+                throw new IllegalArgumentException("Mailbox capacity must be at least 1");
+            }
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Max batch size must be at least 1");
+            }
+            if (overflow == null || blockTimeout == null) {
+                throw new IllegalArgumentException("Overflow strategy and block timeout are required");
+            }
+            if (maxLinger == null || maxLinger.isNegative()) {
+                throw new IllegalArgumentException("Max linger cannot be negative");
+            }
+            return new SubscriptionConfig(this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+// FILE: src/main/java/com/weave/core/SubscriptionTrie.java
+
+package com.weave.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of dotted topic segments used to match subscription patterns
+ * A "*" segment matches exactly one topic segment and a trailing ">" matches
+ * one or more remaining segments, so "workflow.*" matches "workflow.started"
+ * and "workflow.>" also matches "workflow.step.failed".
+ * Not thread-safe; WeaveMessageBus guards it.
+ */
+final class SubscriptionTrie {
+    static final String SINGLE_WILDCARD = "*";
+    static final String MULTI_WILDCARD = ">";
+
+    private final Node root = new Node();
+
+    /**
+     * Check if a subscription pattern contains wildcards
+     */
+    static boolean isWildcard(String pattern) {
+        return pattern.indexOf('*') >= 0 || pattern.indexOf('>') >= 0;
+    }
+
+    /**
+     * Validate a subscription pattern
+     * @throws IllegalArgumentException if a wildcard pattern is malformed
+     */
+    static void validate(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Topic cannot be empty");
+        }
+        if (!isWildcard(pattern)) {
+            return;
+        }
+        String[] segments = pattern.split("\\.", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Empty segment in topic pattern: " + pattern);
+            }
+            if (segment.equals(MULTI_WILDCARD) && i != segments.length - 1) {
+                throw new IllegalArgumentException("'>' must be the last segment of a topic pattern: " + pattern);
+            }
+            if (!segment.equals(SINGLE_WILDCARD) && !segment.equals(MULTI_WILDCARD)
+                    && (segment.indexOf('*') >= 0 || segment.indexOf('>') >= 0)) {
+                throw new IllegalArgumentException("Wildcards must be whole segments: " + pattern);
+            }
+        }
+    }
+
+    /**
+     * Check if a single pattern matches a concrete topic, without building a trie
+     */
+    static boolean matches(String pattern, String topic) {
+        if (!isWildcard(pattern)) {
+            return pattern.equals(topic);
+        }
+        String[] patternSegments = pattern.split("\\.", -1);
+        String[] topicSegments = topic.split("\\.", -1);
+        for (int i = 0; i < patternSegments.length; i++) {
+            String segment = patternSegments[i];
+            if (segment.equals(MULTI_WILDCARD)) {
+                return topicSegments.length > i;
+            }
+            if (i >= topicSegments.length
+                    || (!segment.equals(SINGLE_WILDCARD) && !segment.equals(topicSegments[i]))) {
+                return false;
+            }
+        }
+        return patternSegments.length == topicSegments.length;
+    }
+
+    void add(String pattern, Subscription subscription) {
+        Node node = root;
+        for (String segment : pattern.split("\\.", -1)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        node.subscriptions.add(subscription);
+    }
+
+    /**
+     * Remove a subscription, pruning nodes left empty
+     * @return true if the subscription was found
+     */
+    boolean remove(String pattern, Subscription subscription) {
+        return remove(root, pattern.split("\\.", -1), 0, subscription);
+    }
+
+    private boolean remove(Node node, String[] segments, int index, Subscription subscription) {
+        if (index == segments.length) {
+            return node.subscriptions.remove(subscription);
+        }
+        Node child = node.children.get(segments[index]);
+        if (child == null || !remove(child, segments, index + 1, subscription)) {
+            return false;
+        }
+        if (child.isEmpty()) {
+            node.children.remove(segments[index]);
+        }
+        return true;
+    }
+
+    /**
+     * Collect the subscriptions whose pattern matches a concrete topic
+     * Visits at most one exact, one "*" and one ">" branch per segment
+     */
+    List<Subscription> match(String topic) {
+        List<Subscription> matches = new ArrayList<>();
+        match(root, topic.split("\\.", -1), 0, matches);
+        return matches;
+    }
+
+    private void match(Node node, String[] segments, int index, List<Subscription> matches) {
+        if (index == segments.length) {
+            matches.addAll(node.subscriptions);
+            return;
+        }
+        Node tail = node.children.get(MULTI_WILDCARD);
+        if (tail != null) {
+            matches.addAll(tail.subscriptions);
+        }
+        Node exact = node.children.get(segments[index]);
+        if (exact != null) {
+            match(exact, segments, index + 1, matches);
+        }
+        Node single = node.children.get(SINGLE_WILDCARD);
+        if (single != null && single != exact) {
+            match(single, segments, index + 1, matches);
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private final List<Subscription> subscriptions = new ArrayList<>(1);
+
+        private boolean isEmpty() {
+            return children.isEmpty() && subscriptions.isEmpty();
+        }
+    }
+}
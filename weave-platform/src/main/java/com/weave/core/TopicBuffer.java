@@ -0,0 +1,408 @@
+// FILE: src/main/java/com/weave/core/TopicBuffer.java
+
+package com.weave.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, preallocated ring buffer holding a topic's retained messages
+ * Enforces the topic's RetentionPolicy on every append, so memory stays
+ * flat no matter how long the bus runs. The policy can be changed in place,
+ * under the same lock as appends.
+ */
+final class TopicBuffer {
+    private final String topic;
+    // Written under the lock; volatile for the unlocked reads
+    private volatile RetentionPolicy policy;
+    private volatile Message[] slots;
+    private long[] appendedAt;
+    private int[] sizes;
+    private long maxAgeNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+
+    private int head;
+    private int count;
+    private long bytes;
+    private long dropped;
+    private long rejected;
+
+    TopicBuffer(String topic, RetentionPolicy policy) {
+        this.topic = topic;
+        this.policy = policy;
+        this.slots = new Message[policy.getMaxMessages()];
+        this.appendedAt = new long[policy.getMaxMessages()];
+        this.sizes = new int[policy.getMaxMessages()];
+        this.maxAgeNanos = maxAgeNanos(policy);
+    }
+
+    private static long maxAgeNanos(RetentionPolicy policy) {
+        return policy.getMaxAge() != null ? policy.getMaxAge().toNanos() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Switch to a new policy, keeping the newest retained messages that fit its bounds
+     * Publishers waiting for space re-check against the new bounds.
+     */
+    void reconfigure(RetentionPolicy policy) {
+        lock.lock();
+        try {
+            long ageLimit = maxAgeNanos(policy);
+            int capacity = policy.getMaxMessages();
+            long now = System.nanoTime();
+            // Walk back from the newest message to find how many fit
+            int kept = 0;
+            long keptBytes = 0;
+            while (kept < count && kept < capacity) {
+                int index = (head + count - 1 - kept) % slots.length;
+                if (now - appendedAt[index] > ageLimit || keptBytes + sizes[index] > policy.getMaxBytes()) {
+                    break;
+                }
+                keptBytes += sizes[index];
+                kept++;
+            }
+            Message[] newSlots = new Message[capacity];
+            long[] newAppendedAt = new long[capacity];
+            int[] newSizes = new int[capacity];
+            for (int i = 0; i < kept; i++) {
+                int index = (head + count - kept + i) % slots.length;
+                newSlots[i] = slots[index];
+                newAppendedAt[i] = appendedAt[index];
+                newSizes[i] = sizes[index];
+            }
+            this.policy = policy;
+            this.appendedAt = newAppendedAt;
+            this.sizes = newSizes;
+            this.maxAgeNanos = ageLimit;
+            this.slots = newSlots;
+            head = 0;
+            count = kept;
+            bytes = keptBytes;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a message, applying the overflow strategy when the buffer is full
+     * @throws TopicOverflowException if the message is rejected
+     */
+    void append(Message message) {
+        if (slots.length == 0) {
+            return;
+        }
+        int size = estimateSize(message);
+        lock.lock();
+        try {
+            admit(message, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append several messages under a single lock acquisition
+     */
+    void appendAll(Collection<Message> messages) {
+        if (slots.length == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Message message : messages) {
+                admit(message, estimateSize(message));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admit(Message message, int size) {
+        long now = System.nanoTime();
+        expire(now);
+
+        if (size > policy.getMaxBytes()) {
+            rejected++;
+            throw new TopicOverflowException(topic, "Message larger than topic byte limit: " + topic);
+        }
+
+        if (isFull(size)) {
+            switch (policy.getOverflow()) {
+                case DROP_OLDEST:
+                    while (isFull(size)) {
+                        removeHead();
+                        dropped++;
+                    }
+                    break;
+                case DROP_NEWEST:
+                    dropped++;
+                    return;
+                case BLOCK:
+                    awaitSpace(size);
+                    if (slots.length == 0) {
+                        // Reconfigured to retain nothing while waiting
+                        return;
+                    }
+                    break;
+                default:
+                    rejected++;
+                    throw new TopicOverflowException(topic, "Topic is full: " + topic);
+            }
+        }
+
+        int tail = (head + count) % slots.length;
+        // A pooled message is recycled after delivery, so retain a stable copy
+        slots[tail] = message.detach();
+        appendedAt[tail] = System.nanoTime();
+        sizes[tail] = size;
+        bytes += size;
+        count++;
+    }
+
+    private void awaitSpace(int size) {
+        long remaining = policy.getBlockTimeout().toNanos();
+        try {
+            while (slots.length > 0 && isFull(size)) {
+                if (remaining <= 0) {
+                    rejected++;
+                    throw new TopicOverflowException(topic, "Timed out waiting for space on topic: " + topic);
+                }
+                // Wake up in time for the head message to age out, if it will
+                long wait = remaining;
+                if (maxAgeNanos != Long.MAX_VALUE && count > 0) {
+                    long untilExpiry = appendedAt[head] + maxAgeNanos - System.nanoTime();
+                    wait = Math.max(1, Math.min(wait, untilExpiry));
+                }
+                long before = System.nanoTime();
+                notFull.awaitNanos(wait);
+                remaining -= System.nanoTime() - before;
+                expire(System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected++;
+            throw new TopicOverflowException(topic, "Interrupted while waiting for space on topic: " + topic);
+        }
+    }
+
+    /**
+     * Remove and return the oldest message, or null if empty
+     */
+    Message poll() {
+        lock.lock();
+        try {
+            expire(System.nanoTime());
+            if (count == 0) {
+                return null;
+            }
+            Message message = slots[head];
+            removeHead();
+            notFull.signalAll();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove and return up to maxMessages of the oldest messages
+     */
+    List<Message> drain(int maxMessages) {
+        lock.lock();
+        try {
+            expire(System.nanoTime());
+            int n = Math.min(maxMessages, count);
+            List<Message> drained = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                drained.add(slots[head]);
+                removeHead();
+            }
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy of the retained messages, oldest first
+     */
+    List<Message> snapshot() {
+        lock.lock();
+        try {
+            expire(System.nanoTime());
+            List<Message> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                messages.add(slots[(head + i) % slots.length]);
+            }
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            while (count > 0) {
+                removeHead();
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            expire(System.nanoTime());
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getBytes() {
+        lock.lock();
+        try {
+            expire(System.nanoTime());
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count published messages and the subscriber deliveries they were queued for
+     */
+    void recordPublished(int messages, long deliveries) {
+        published.add(messages);
+        dispatched.add(deliveries);
+    }
+
+    long getPublishedCount() {
+        return published.sum();
+    }
+
+    long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    RetentionPolicy getPolicy() {
+        return policy;
+    }
+
+    private boolean isFull(int incomingSize) {
+        return count == slots.length || (count > 0 && bytes + incomingSize > policy.getMaxBytes());
+    }
+
+    private void expire(long now) {
+        if (maxAgeNanos == Long.MAX_VALUE) {
+            return;
+        }
+        boolean freed = false;
+        while (count > 0 && now - appendedAt[head] > maxAgeNanos) {
+            removeHead();
+            freed = true;
+        }
+        if (freed) {
+            notFull.signalAll();
+        }
+    }
+
+    private void removeHead() {
+        bytes -= sizes[head];
+        slots[head] = null;
+        head = (head + 1) % slots.length;
+        count--;
+    }
+
+    /**
+     * Rough heap footprint of a message, used for byte-based retention
+     */
+    static int estimateSize(Message message) {
+        // Generated ids are 36 characters; don't render one as text just to measure it
+        int idLength = message.hasUuidId() ? 36 : length(message.getId());
+        long size = 64 + 2L * (idLength + length(message.getType()) + length(message.getSource()));
+        Object body = message.getBody();
+        if (body != null) {
+            // Typed payload: walk the record's components without building its Map view
+            MessageSchema<?> schema = message.getSchema();
+            size += 16;
+            for (int i = 0; i < schema.getFieldCount(); i++) {
+                size += schema.isPrimitive(i) ? 8 : 8 + estimateValue(schema.get(body, i));
+            }
+            return (int) Math.min(Integer.MAX_VALUE, size);
+        }
+        Map<String, Object> payload = message.getPayload();
+        if (payload instanceof PayloadMap) {
+            PayloadMap fields = (PayloadMap) payload;
+            for (int i = 0; i < fields.size(); i++) {
+                size += 32 + 2L * length(fields.keyAt(i)) + estimateValue(fields.valueAt(i));
+            }
+        } else {
+            for (Map.Entry<String, Object> entry : payload.entrySet()) {
+                size += 32 + 2L * length(entry.getKey()) + estimateValue(entry.getValue());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static long estimateValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return 24 + 2L * ((CharSequence) value).length();
+        }
+        if (value instanceof Collection) {
+            long size = 24;
+            for (Object element : (Collection<?>) value) {
+                size += 8 + estimateValue(element);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32 + estimateValue(entry.getKey()) + estimateValue(entry.getValue());
+            }
+            return size;
+        }
+        return 16;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,24 @@
+// FILE: src/main/java/com/weave/core/TopicOverflowException.java
+
+package com.weave.core;
+
+/**
+ * Thrown when a message cannot be accepted because a bounded buffer is full
+ */
+public class TopicOverflowException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final String topic;
+    
+    public TopicOverflowException(String topic, String message) {
+        super(message);
+        this.topic = topic;
+    }
+    
+    /**
+     * Get the topic that overflowed
+     */
+    public String getTopic() {
+        return topic;
+    }
+}
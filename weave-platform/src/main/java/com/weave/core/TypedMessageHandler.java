@@ -0,0 +1,21 @@
+// FILE: src/main/java/com/weave/core/TypedMessageHandler.java
+
+package com.weave.core;
+
+/**
+ * Functional interface for handling messages with a typed payload
+ * Subscribed with WeaveMessageBus.subscribe(topic, schema, handler); the bus
+ * hands over the payload record directly, so handlers read fields through
+ * record accessors instead of map lookups and casts
+ * @param <T> The payload record type registered in the MessageSchema
+ */
+@FunctionalInterface
+public interface TypedMessageHandler<T> {
+    /**
+     * Handle a typed message
+     * @param payload The message's payload record
+     * @param message The message, for its id, source and timestamp
+     * @throws Exception if message handling fails
+     */
+    void handle(T payload, Message message) throws Exception;
+}
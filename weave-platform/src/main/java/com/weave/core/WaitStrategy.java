@@ -0,0 +1,137 @@
+// FILE: src/main/java/com/weave/core/WaitStrategy.java
+
+package com.weave.core;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Strategy used by ring consumers to wait for new messages
+ * Trades latency against CPU: busy spin is fastest and burns a core,
+ * blocking is the most frugal and the slowest to wake up.
+ */
+public interface WaitStrategy {
+    /**
+     * Wait until the cursor reaches the given sequence or the consumer is halted
+     * @param sequence The sequence the consumer needs next
+     * @param cursor The ring's claim cursor
+     * @param halted Returns true once the consumer should stop waiting
+     * @return The cursor value observed (may be below sequence when halted)
+     */
+    long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) throws InterruptedException;
+    
+    /**
+     * Wake consumers blocked in waitFor after a publish
+     */
+    default void signalAllWhenBlocking() {
+    }
+    
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+    
+    static WaitStrategy sleeping() {
+        return new SleepingWaitStrategy();
+    }
+    
+    static WaitStrategy yielding() {
+        return new YieldingWaitStrategy();
+    }
+    
+    static WaitStrategy busySpin() {
+        return new BusySpinWaitStrategy();
+    }
+}
+
+class BlockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private volatile int waiters;
+    
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) throws InterruptedException {
+        long available = cursor.get();
+        if (available >= sequence) {
+            return available;
+        }
+        lock.lock();
+        try {
+            waiters++;
+            while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+                // Timed wait guards against a halt signalled without the lock
+                published.awaitNanos(1_000_000);
+            }
+        } finally {
+            waiters--;
+            lock.unlock();
+        }
+        return available;
+    }
+    
+    @Override
+    public void signalAllWhenBlocking() {
+        if (waiters > 0) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
+
+class SleepingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+        long available;
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+        return available;
+    }
+}
+
+class YieldingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+    
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+        long available;
+        int counter = SPIN_TRIES;
+        while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+}
+
+class BusySpinWaitStrategy implements WaitStrategy {
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+        long available;
+        while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+}
@@ -0,0 +1,159 @@
+// FILE: src/main/java/com/weave/core/WeaveExecutors.java
+
+package com.weave.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor factory for the platform's worker pools
+ * By default every component gets a fixed pool of platform threads (Java 17).
+ * Setting -Dweave.executor.mode=virtual on a JDK with virtual threads (21+)
+ * runs the same work on one virtual thread per task, so blocking connector
+ * I/O and pipeline steps no longer need hand-sized pools.
+ * Both settings are JVM system properties (application.properties is not read):
+ * -Dweave.executor.mode=platform|virtual and -Dweave.io.threads=N, the size
+ * of the shared I/O pool on platform threads (16 by default).
+ */
+public final class WeaveExecutors {
+    public static final String MODE_PROPERTY = "weave.executor.mode";
+    public static final String IO_THREADS_PROPERTY = "weave.io.threads";
+
+    private static final Method NEW_VIRTUAL_FACTORY = findVirtualThreadSupport();
+    private static volatile ExecutorService ioExecutor;
+
+    private WeaveExecutors() {
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return NEW_VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Check if virtual threads were requested and are available
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        return "virtual".equalsIgnoreCase(System.getProperty(MODE_PROPERTY)) && isVirtualThreadsAvailable();
+    }
+
+    /**
+     * Create an executor for a component
+     * @param name Thread name prefix
+     * @param poolSize Pool size used when running on platform threads
+     */
+    public static ExecutorService newExecutor(String name, int poolSize) {
+        if (isVirtualThreadsEnabled()) {
+            return newVirtualExecutor(name);
+        }
+        return newPlatformExecutor(name, poolSize);
+    }
+
+    /**
+     * Create a fixed pool of named platform threads
+     */
+    public static ExecutorService newPlatformExecutor(String name, int poolSize) {
+        return newPlatformExecutor(name, poolSize, false);
+    }
+
+    private static ExecutorService newPlatformExecutor(String name, int poolSize, boolean daemon) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(daemon);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a work-stealing pool for tasks that fan out into more tasks
+     * Idle workers steal queued tasks from busy ones; tasks run in submission
+     * order per worker. On virtual threads each task gets its own thread instead.
+     * @param parallelism Worker count used when running on platform threads
+     */
+    public static ExecutorService newWorkStealingExecutor(String name, int parallelism) {
+        if (isVirtualThreadsEnabled()) {
+            return newVirtualExecutor(name);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-" + counter.incrementAndGet());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread per task
+     * @throws UnsupportedOperationException if the JDK has no virtual threads
+     */
+    public static ExecutorService newVirtualExecutor(String name) {
+        if (!isVirtualThreadsAvailable()) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or newer");
+        }
+        try {
+            // Thread.ofVirtual().name(name + "-", 1).factory(), resolved reflectively to keep Java 17 builds
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) NEW_VIRTUAL_FACTORY.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Shared executor for blocking connector I/O (file reads, JDBC, HTTP)
+     */
+    public static ExecutorService ioExecutor() {
+        ExecutorService executor = ioExecutor;
+        if (executor == null) {
+            synchronized (WeaveExecutors.class) {
+                executor = ioExecutor;
+                if (executor == null) {
+                    // Shared for the JVM's lifetime, so platform threads must not block exit
+                    int threads = Integer.getInteger(IO_THREADS_PROPERTY, 16);
+                    executor = isVirtualThreadsEnabled()
+                            ? newVirtualExecutor("weave-io")
+                            : newPlatformExecutor("weave-io", threads, true);
+                    ioExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Get a description of the active mode
+     */
+    public static String describeMode() {
+        if (isVirtualThreadsEnabled()) {
+            return "virtual threads";
+        }
+        if ("virtual".equalsIgnoreCase(System.getProperty(MODE_PROPERTY))) {
+            return "platform threads (virtual threads requested but not available on Java "
+                    + Runtime.version().feature() + ")";
+        }
+        return "platform threads";
+    }
+
+    private static Method findVirtualThreadSupport() {
+        // Virtual threads are a preview feature before 21
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
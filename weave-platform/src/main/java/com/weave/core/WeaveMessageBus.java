@@ -3,77 +3,762 @@
 
 package com.weave.core;
 
+import java.util.ArrayDeque;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Core Message Bus - Central event routing system
  * Similar to TIBCO EMS (Enterprise Message Service)
  * Provides pub/sub messaging for asynchronous component communication
+ *
+ * Topics retain recent messages in a bounded buffer (see RetentionPolicy)
+ * and can be made durable with a MessageLog or dispatched through a
+ * SequenceRing. Each subscription drains its own bounded mailbox in publish
+ * order; when it falls behind it sheds its oldest messages unless its
+ * SubscriptionConfig asks to back-pressure publishers instead. Topics may be
+ * matched with wildcards ("workflow.*", "workflow.>"), and the bus also
+ * carries request/reply, per-topic metrics and a draining shutdown.
  */
 public class WeaveMessageBus {
-    private final ConcurrentHashMap<String, Queue<Message>> topics;
-    private final ConcurrentHashMap<String, List<MessageHandler>> subscribers;
+    private static final Mailbox[] NO_MAILBOXES = new Mailbox[0];
+    private static final PublishListener[] NO_LISTENERS = new PublishListener[0];
+    private static final int MAX_RESOLVED_TOPICS = 10_000;
+    
+    private final ConcurrentHashMap<String, TopicBuffer> topics;
+    private final ConcurrentHashMap<String, RetentionPolicy> retentionPolicies;
+    private final ConcurrentHashMap<String, List<Subscription>> subscribers;
+    private final ConcurrentHashMap<String, SequenceRing> rings;
+    private final ConcurrentHashMap<String, MessageLog> logs;
+    private final SubscriptionTrie trie;
+    private final ConcurrentHashMap<String, Mailbox[]> resolved;
     private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private volatile RetentionPolicy defaultRetention;
+    private volatile SubscriptionConfig defaultSubscriptionConfig;
+    private volatile ReplyRouter replyRouter;
+    private volatile BusMetrics metrics;
+    private volatile PublishListener[] publishListeners = NO_LISTENERS;
     private volatile boolean running;
+    private final Object lifecycleLock = new Object();
+    private ShutdownReport shutdownReport;
     
     public WeaveMessageBus() {
         this.topics = new ConcurrentHashMap<>();
+        this.retentionPolicies = new ConcurrentHashMap<>();
+        this.defaultRetention = RetentionPolicy.defaults();
+        this.defaultSubscriptionConfig = SubscriptionConfig.defaults();
         this.subscribers = new ConcurrentHashMap<>();
-        this.executor = Executors.newFixedThreadPool(10);
+        this.rings = new ConcurrentHashMap<>();
+        this.logs = new ConcurrentHashMap<>();
+        this.trie = new SubscriptionTrie();
+        this.resolved = new ConcurrentHashMap<>();
+        this.executor = WeaveExecutors.newExecutor("weave-bus", 10);
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "weave-bus-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Answered requests cancel their deadlines; don't keep them queued until they fire
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
         this.running = true;
     }
     
+    /**
+     * Set the retention policy for topics without a specific policy
+     * Applies to topics created after this call
+     */
+    public void setDefaultRetention(RetentionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Retention policy cannot be null");
+        }
+        this.defaultRetention = policy;
+    }
+    
+    /**
+     * Set the mailbox config used by subscribe(topic, handler)
+     */
+    public void setDefaultSubscriptionConfig(SubscriptionConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Subscription config cannot be null");
+        }
+        this.defaultSubscriptionConfig = config;
+    }
+    
+    /**
+     * Set the retention policy for a topic
+     * The topic's buffer is reconfigured in place, atomically with publishing:
+     * the newest retained messages are kept as far as the new bounds allow,
+     * and publishers blocked on a full topic re-check against them.
+     * @param topic The topic name
+     * @param policy The retention policy
+     */
+    public void configureTopic(String topic, RetentionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Retention policy cannot be null");
+        }
+        retentionPolicies.put(topic, policy);
+        // Holds the map entry, so a buffer being created concurrently sees the new policy
+        topics.computeIfPresent(topic, (name, buffer) -> {
+            buffer.reconfigure(policy);
+            return buffer;
+        });
+    }
+    
+    /**
+     * Get the retention policy in effect for a topic
+     */
+    public RetentionPolicy getRetentionPolicy(String topic) {
+        return retentionPolicies.getOrDefault(topic, defaultRetention);
+    }
+    
     /**
      * Publish a message to a topic
+     * A pooled message is handed over to the bus and must not be used afterwards
      * @param topic The topic name
      * @param message The message to publish
+     * @throws TopicOverflowException if the topic or a subscriber mailbox is full and rejects the message
      */
     public void publish(String topic, Message message) {
         if (!running) {
             throw new IllegalStateException("Message bus is not running");
         }
+        seal(message);
+        try {
+            // Persist first, so anything dispatched can be replayed
+            MessageLog log = logs.get(topic);
+            if (log != null) {
+                log.append(message);
+            }
+            
+            // Retain message in the topic's ring buffer
+            TopicBuffer buffer = topicBuffer(topic);
+            buffer.append(message);
+            
+            SequenceRing ring = rings.get(topic);
+            if (ring != null) {
+                ring.publish(message);
+            }
+            // Queue for mailbox subscribers, including wildcard subscribers of ring topics
+            Mailbox[] mailboxes = resolveMailboxes(topic);
+            buffer.recordPublished(1, mailboxes.length + (ring != null ? ring.getConsumerCount() : 0));
+            notifySubscribers(mailboxes, message);
+            for (PublishListener listener : publishListeners) {
+                listener.published(topic, message);
+            }
+        } finally {
+            // Drop the publisher's reference; subscribers hold their own
+            message.release();
+        }
+    }
+    
+    /**
+     * Publish several messages to a topic, in order
+     * Resolves the topic and its subscribers once and hands each subscriber
+     * the whole batch in one step, instead of once per message
+     * @param topic The topic name
+     * @param messages The messages to publish
+     * @throws TopicOverflowException if the topic or a subscriber mailbox is full and rejects a message
+     */
+    public void publishAll(String topic, Collection<Message> messages) {
+        if (!running) {
+            throw new IllegalStateException("Message bus is not running");
+        }
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        for (Message message : messages) {
+            seal(message);
+        }
+        try {
+            MessageLog log = logs.get(topic);
+            if (log != null) {
+                log.appendAll(messages);
+            }
+            TopicBuffer buffer = topicBuffer(topic);
+            buffer.appendAll(messages);
+            
+            SequenceRing ring = rings.get(topic);
+            if (ring != null) {
+                ring.publishAll(messages.toArray(new Message[0]));
+            }
+            Mailbox[] mailboxes = resolveMailboxes(topic);
+            int fanout = mailboxes.length + (ring != null ? ring.getConsumerCount() : 0);
+            buffer.recordPublished(messages.size(), (long) fanout * messages.size());
+            notifySubscribers(mailboxes, messages);
+            for (PublishListener listener : publishListeners) {
+                for (Message message : messages) {
+                    listener.published(topic, message);
+                }
+            }
+        } finally {
+            for (Message message : messages) {
+                message.release();
+            }
+        }
+    }
+    
+    /**
+     * Freeze a pooled message as it is published
+     * @throws IllegalStateException if the pooled message was already published
+     */
+    private static void seal(Message message) {
+        if (message.isPooled()) {
+            if (message.isSealed()) {
+                throw new IllegalStateException("Pooled message was already published: " + message.getId());
+            }
+            message.seal();
+        }
+    }
+    
+    /**
+     * Send a request and wait asynchronously for a single reply
+     * The message is published to the topic with this bus's inbox as its
+     * reply address; the first reply correlated with its id completes the
+     * future. A message may be in flight as only one request at a time.
+     * @param topic The topic responders subscribe to
+     * @param message The request; a pooled message is copied and returned to its pool
+     * @param timeout How long to wait for the reply
+     * @return A future completing with the reply; it fails with a TimeoutException
+     *         at the deadline, with a RequestFailedException if the responder's
+     *         handler threw, and with an IllegalStateException if the topic has no
+     *         subscribers or the bus shuts down
+     */
+    public CompletableFuture<Message> request(String topic, Message message, Duration timeout) {
+        if (message == null) {
+            throw new IllegalArgumentException("Message cannot be null");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        if (!running) {
+            throw new IllegalStateException("Message bus is not running");
+        }
+        ReplyRouter router = replyRouter();
+        Message request = unpooled(message);
+        if (countSubscribers(topic) == 0) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No subscribers for request topic: " + topic));
+        }
+        String correlationId = request.getId();
+        CompletableFuture<Message> future = router.expectReply(correlationId, topic, timeout);
+        sendRequest(router, topic, request, correlationId);
+        return future;
+    }
+    
+    /**
+     * Send a request to every subscriber of a topic and gather their replies
+     * @param topic The topic responders subscribe to
+     * @param message The request; a pooled message is copied and returned to its pool
+     * @param config Expected replies, quorum and deadline
+     * @return A future completing with the replies once the quorum has arrived,
+     *         or at the deadline with the replies received so far; it completes
+     *         at once with no replies when nothing is expected
+     */
+    public CompletableFuture<GatherResult> scatterGather(String topic, Message message, GatherConfig config) {
+        if (message == null) {
+            throw new IllegalArgumentException("Message cannot be null");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("Gather config cannot be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Message bus is not running");
+        }
+        ReplyRouter router = replyRouter();
+        Message request = unpooled(message);
+        int expected = config.getExpectedReplies() > 0 ? config.getExpectedReplies() : countSubscribers(topic);
+        if (expected == 0) {
+            return CompletableFuture.completedFuture(new GatherResult(new ArrayList<>(), 0, false));
+        }
+        int quorum = config.getQuorum() > 0 ? Math.min(config.getQuorum(), expected) : expected;
+        String correlationId = request.getId();
+        CompletableFuture<GatherResult> future = router.expectReplies(correlationId, topic, expected, quorum, config.getTimeout());
+        sendRequest(router, topic, request, correlationId);
+        return future;
+    }
+    
+    private void sendRequest(ReplyRouter router, String topic, Message request, String correlationId) {
+        try {
+            publish(topic, request.withCorrelation(null, router.getInbox()));
+        } catch (RuntimeException e) {
+            router.abandon(correlationId);
+            throw e;
+        }
+    }
+    
+    /**
+     * Answer a request
+     * @param request The request being answered
+     * @param response The reply; a pooled message is copied and returned to its pool
+     * @throws IllegalArgumentException if the request has no reply address
+     */
+    public void reply(Message request, Message response) {
+        if (request == null || request.getReplyTo() == null) {
+            throw new IllegalArgumentException("Message is not a request: no reply topic");
+        }
+        if (response == null) {
+            throw new IllegalArgumentException("Response cannot be null");
+        }
+        publish(request.getReplyTo(), unpooled(response).withCorrelation(request.getId(), null));
+    }
+    
+    /**
+     * Subscribe a responder to a topic
+     * Each request's answer is sent back with reply; if the handler throws,
+     * the requester receives the error instead. Messages without a reply
+     * address are ignored.
+     * @param topic The topic to answer requests on, or a wildcard pattern
+     * @param handler The responder
+     * @return The subscription, for lag monitoring and cancellation
+     */
+    public Subscription respond(String topic, ReplyHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        return subscribe(topic, request -> {
+            if (request.getReplyTo() == null) {
+                return;
+            }
+            Message response;
+            try {
+                response = handler.handle(request);
+            } catch (Exception e) {
+                reply(request, new Message(ReplyRouter.ERROR_TYPE,
+                        Map.of(ReplyRouter.ERROR_KEY, String.valueOf(e.getMessage()))));
+                // Still counted as a failure on the subscription
+                throw e;
+            }
+            if (response != null) {
+                reply(request, response);
+            }
+        });
+    }
+    
+    /**
+     * Get the number of requests and gathers still waiting for replies
+     */
+    public int getPendingRequestCount() {
+        ReplyRouter router = replyRouter;
+        return router != null ? router.getPendingCount() : 0;
+    }
+    
+    /**
+     * Get this bus's metrics: per-topic publish rates, subscriber queue depths,
+     * handler latencies, errors and drops
+     * Counting is always on; the first call starts the timer that keeps the rates
+     */
+    public BusMetrics getMetrics() {
+        BusMetrics current = metrics;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (metrics == null) {
+                metrics = new BusMetrics(this, executor, timer);
+            }
+            return metrics;
+        }
+    }
+    
+    Map<String, TopicBuffer> topicBuffers() {
+        return topics;
+    }
+    
+    /**
+     * Get every active subscription, whether registered under a topic or a pattern
+     */
+    List<Subscription> allSubscriptions() {
+        List<Subscription> all = new ArrayList<>();
+        for (List<Subscription> subscriptions : subscribers.values()) {
+            all.addAll(subscriptions);
+        }
+        return all;
+    }
+    
+    /**
+     * Register a listener called on the publishing thread after each message is dispatched
+     */
+    synchronized void addPublishListener(PublishListener listener) {
+        PublishListener[] updated = Arrays.copyOf(publishListeners, publishListeners.length + 1);
+        updated[publishListeners.length] = listener;
+        publishListeners = updated;
+    }
+    
+    synchronized void removePublishListener(PublishListener listener) {
+        List<PublishListener> remaining = new ArrayList<>(Arrays.asList(publishListeners));
+        remaining.remove(listener);
+        publishListeners = remaining.toArray(NO_LISTENERS);
+    }
+    
+    /**
+     * Get the router for this bus's inbox, subscribing the inbox on first use
+     */
+    private ReplyRouter replyRouter() {
+        ReplyRouter router = replyRouter;
+        if (router != null) {
+            return router;
+        }
+        synchronized (this) {
+            if (replyRouter == null) {
+                String inbox = "_inbox." + UUID.randomUUID().toString().replace("-", "");
+                configureTopic(inbox, RetentionPolicy.none());
+                ReplyRouter created = new ReplyRouter(inbox, timer);
+                subscribeBatch(inbox, replies -> {
+                    for (Message reply : replies) {
+                        created.onReply(reply);
+                    }
+                }, new SubscriptionConfig.Builder()
+                        .mailboxCapacity(65_536)
+                        .maxBatchSize(256)
+                        // A dropped reply would leave its request waiting out the deadline
+                        .overflow(OverflowStrategy.BLOCK)
+                        .build());
+                replyRouter = created;
+            }
+            return replyRouter;
+        }
+    }
+    
+    /**
+     * Count the mailbox and ring subscribers a message published to a topic reaches
+     */
+    private int countSubscribers(String topic) {
+        SequenceRing ring = rings.get(topic);
+        return resolveMailboxes(topic).length + (ring != null ? ring.getConsumerCount() : 0);
+    }
+    
+    /**
+     * Take ownership of a message handed to the bus outside of publish
+     * A pooled message is copied and returned to its pool
+     */
+    private static Message unpooled(Message message) {
+        if (!message.isPooled()) {
+            return message;
+        }
+        seal(message);
+        Message copy = message.detach();
+        message.release();
+        return copy;
+    }
+    
+    /**
+     * Make a topic durable
+     * Opens (or recovers) the topic's log; from now on every published message
+     * is appended to it before dispatch
+     * @param topic The topic name
+     * @param config Log directory, segment size, fsync policy, retention and compaction
+     * @return The topic's log
+     * @throws IllegalStateException if the log cannot be opened
+     */
+    public synchronized MessageLog enableDurability(String topic, DurableTopicConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Durable topic config cannot be null");
+        }
+        if (SubscriptionTrie.isWildcard(topic)) {
+            throw new IllegalArgumentException("Durability needs a concrete topic: " + topic);
+        }
+        if (logs.containsKey(topic)) {
+            throw new IllegalStateException("Durability already enabled for topic: " + topic);
+        }
+        try {
+            MessageLog log = MessageLog.open(topic, config);
+            logs.put(topic, log);
+            System.out.println("Durable topic " + topic + ": offsets " + log.getStartOffset()
+                    + " to " + log.getEndOffset() + " in " + log.getSegmentCount() + " segment(s)");
+            return log;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open message log for topic: " + topic, e);
+        }
+    }
+    
+    /**
+     * Check if a topic is durable
+     */
+    public boolean isDurable(String topic) {
+        return logs.containsKey(topic);
+    }
+    
+    /**
+     * Get a durable topic's log, or null if the topic is not durable
+     */
+    public MessageLog getMessageLog(String topic) {
+        return logs.get(topic);
+    }
+    
+    /**
+     * Replay a durable topic's messages from an offset to a handler, in order
+     * @return The offset to resume from next time
+     * @throws IllegalStateException if the topic is not durable
+     */
+    public long replay(String topic, long fromOffset, MessageHandler handler) throws Exception {
+        MessageLog log = logs.get(topic);
+        if (log == null) {
+            throw new IllegalStateException("Topic is not durable: " + topic);
+        }
+        return log.replay(fromOffset, handler);
+    }
+    
+    /**
+     * Switch a topic to Disruptor-style ring dispatch
+     * Existing subscribers of the topic become ring consumers; messages still
+     * queued in their mailboxes are discarded, so enable this before publishing.
+     * Wildcard subscribers that match the topic keep receiving through their mailboxes.
+     * @param topic The topic name
+     * @param config Ring size, wait strategy, consumer mode and batch size
+     */
+    public synchronized void enableRingDispatch(String topic, RingDispatchConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Ring dispatch config cannot be null");
+        }
+        if (rings.containsKey(topic)) {
+            throw new IllegalStateException("Ring dispatch already enabled for topic: " + topic);
+        }
+        if (SubscriptionTrie.isWildcard(topic)) {
+            throw new IllegalArgumentException("Ring dispatch needs a concrete topic: " + topic);
+        }
         
-        // Add message to topic queue
-        topics.computeIfAbsent(topic, k -> new ConcurrentLinkedQueue<>()).add(message);
-        
-        // Notify all subscribers asynchronously
-        notifySubscribers(topic, message);
+        SequenceRing ring = new SequenceRing(topic, config);
+        List<Subscription> existing = subscribers.get(topic);
+        if (existing != null) {
+            for (Subscription subscription : existing) {
+                Mailbox mailbox = subscription.getMailbox();
+                if (mailbox != null) {
+                    mailbox.close();
+                }
+                subscription.attachRingConsumer(ring.addConsumer(
+                        subscription.getHandler(), subscription.getBatchHandler(), executor));
+            }
+        }
+        rings.put(topic, ring);
+        invalidateResolved();
+    }
+    
+    /**
+     * Check if a topic uses ring dispatch
+     */
+    public boolean isRingDispatchEnabled(String topic) {
+        return rings.containsKey(topic);
+    }
+    
+    /**
+     * Get how many messages the slowest ring consumer of a topic is behind
+     */
+    public long getRingLag(String topic) {
+        SequenceRing ring = rings.get(topic);
+        return ring != null ? ring.getMaxLag() : 0;
+    }
+    
+    /**
+     * Subscribe to a topic with a message handler, using the default mailbox config
+     * @param topic The topic to subscribe to, or a wildcard pattern ("workflow.*", "workflow.>")
+     * @param handler The handler to process messages
+     * @return The subscription, for lag monitoring and cancellation
+     */
+    public Subscription subscribe(String topic, MessageHandler handler) {
+        return subscribe(topic, handler, defaultSubscriptionConfig);
     }
     
     /**
      * Subscribe to a topic with a message handler
-     * @param topic The topic to subscribe to
+     * @param topic The topic to subscribe to, or a wildcard pattern
      * @param handler The handler to process messages
+     * @param config Mailbox capacity and overflow behaviour (ignored on ring dispatch topics)
+     * @return The subscription, for lag monitoring and cancellation
      */
-    public void subscribe(String topic, MessageHandler handler) {
-        subscribers.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(handler);
+    public Subscription subscribe(String topic, MessageHandler handler, SubscriptionConfig config) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        return addSubscription(topic, handler, null, config);
+    }
+    
+    /**
+     * Subscribe to a topic with a handler for a typed payload, using the default mailbox config
+     * @param topic The topic to subscribe to, or a wildcard pattern
+     * @param schema The payload schema; messages of other types on the topic are skipped
+     * @param handler The handler to process payload records
+     * @return The subscription, for lag monitoring and cancellation
+     */
+    public <T extends Record> Subscription subscribe(String topic, MessageSchema<T> schema,
+                                                     TypedMessageHandler<? super T> handler) {
+        return subscribe(topic, schema, handler, defaultSubscriptionConfig);
+    }
+    
+    /**
+     * Subscribe to a topic with a handler for a typed payload
+     * Typed messages are matched on the schema id and handed over as records;
+     * Map messages of the schema's type are converted to records first
+     * @param topic The topic to subscribe to, or a wildcard pattern
+     * @param schema The payload schema; messages of other types on the topic are skipped
+     * @param handler The handler to process payload records
+     * @param config Mailbox capacity and overflow behaviour (ignored on ring dispatch topics)
+     * @return The subscription, for lag monitoring and cancellation
+     */
+    public <T extends Record> Subscription subscribe(String topic, MessageSchema<T> schema,
+                                                     TypedMessageHandler<? super T> handler,
+                                                     SubscriptionConfig config) {
+        if (schema == null) {
+            throw new IllegalArgumentException("Schema cannot be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        return addSubscription(topic, schema.adapt(handler), null, config);
+    }
+    
+    /**
+     * Subscribe to a topic with a handler that receives messages in batches
+     * @param topic The topic to subscribe to, or a wildcard pattern
+     * @param handler The handler to process batches
+     * @param config Max batch size, max linger time and mailbox bounds; on ring
+     *               dispatch topics batches are the runs of available messages,
+     *               bounded by the ring's max batch size
+     * @return The subscription, for lag monitoring and cancellation
+     */
+    public Subscription subscribeBatch(String topic, BatchMessageHandler handler, SubscriptionConfig config) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        return addSubscription(topic, null, handler, config);
+    }
+    
+    private synchronized Subscription addSubscription(String topic, MessageHandler handler,
+                                                      BatchMessageHandler batchHandler, SubscriptionConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Subscription config cannot be null");
+        }
+        SubscriptionTrie.validate(topic);
+        
+        Subscription subscription = new Subscription(this, topic, handler, batchHandler);
+        SequenceRing ring = rings.get(topic);
+        if (ring != null) {
+            subscription.attachRingConsumer(ring.addConsumer(handler, batchHandler, executor));
+        } else {
+            subscription.attachMailbox(new Mailbox(topic, handler, batchHandler, config, executor, timer));
+        }
+        subscribers.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(subscription);
+        synchronized (trie) {
+            trie.add(topic, subscription);
+            resolved.clear();
+        }
+        return subscription;
     }
     
     /**
      * Unsubscribe a handler from a topic
+     * Messages still queued for the handler are discarded
      * @param topic The topic to unsubscribe from
      * @param handler The handler to remove
      */
     public void unsubscribe(String topic, MessageHandler handler) {
-        List<MessageHandler> handlers = subscribers.get(topic);
-        if (handlers != null) {
-            handlers.remove(handler);
+        List<Subscription> subscriptions = subscribers.get(topic);
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.getHandler() == handler) {
+                    unsubscribe(subscription);
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Cancel a subscription
+     */
+    public synchronized void unsubscribe(Subscription subscription) {
+        if (!subscription.markCancelled()) {
+            return;
+        }
+        List<Subscription> subscriptions = subscribers.get(subscription.getTopic());
+        if (subscriptions != null) {
+            subscriptions.remove(subscription);
+        }
+        synchronized (trie) {
+            trie.remove(subscription.getTopic(), subscription);
+            resolved.clear();
+        }
+        SequenceRing ring = rings.get(subscription.getTopic());
+        if (ring != null && subscription.getRingConsumer() != null) {
+            ring.removeConsumer(subscription.getRingConsumer());
+        }
+    }
+    
+    /**
+     * Get the active subscriptions registered under a topic or pattern
+     */
+    public List<Subscription> getSubscriptions(String topic) {
+        List<Subscription> subscriptions = subscribers.get(topic);
+        return subscriptions != null ? new ArrayList<>(subscriptions) : new ArrayList<>();
+    }
+    
+    /**
+     * Get the active subscriptions whose topic or pattern matches a concrete topic
+     */
+    public List<Subscription> getMatchingSubscriptions(String topic) {
+        synchronized (trie) {
+            return trie.match(topic);
+        }
+    }
+    
+    /**
+     * Get how many messages the slowest subscriber registered under a topic or pattern is behind
+     */
+    public long getSubscriberLag(String topic) {
+        long lag = 0;
+        List<Subscription> subscriptions = subscribers.get(topic);
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                lag = Math.max(lag, subscription.getLag());
+            }
         }
+        return lag;
     }
     
     /**
-     * Get all messages from a topic
+     * Get all messages retained by a topic
      * @param topic The topic name
-     * @return Queue of messages
+     * @return Snapshot of retained messages, oldest first, or null if the topic does not exist
      */
     public Queue<Message> getMessages(String topic) {
-        return topics.get(topic);
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? new ArrayDeque<>(buffer.snapshot()) : null;
+    }
+    
+    /**
+     * Remove and return the oldest retained message of a topic
+     * @param topic The topic name
+     * @return The message, or null if none is retained
+     */
+    public Message pollMessage(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.poll() : null;
+    }
+    
+    /**
+     * Remove and return up to maxMessages of the oldest retained messages of a topic
+     * Draining frees space for publishers blocked by an OverflowStrategy.BLOCK policy
+     */
+    public List<Message> drainTopic(String topic, int maxMessages) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.drain(maxMessages) : new ArrayList<>();
     }
     
     /**
@@ -81,36 +766,317 @@ public class WeaveMessageBus {
      * @param topic The topic to clear
      */
     public void clearTopic(String topic) {
-        Queue<Message> queue = topics.get(topic);
-        if (queue != null) {
-            queue.clear();
+        TopicBuffer buffer = topics.get(topic);
+        if (buffer != null) {
+            buffer.clear();
         }
     }
     
     /**
-     * Shutdown the message bus
+     * Get the number of messages retained by a topic
+     */
+    public int getRetainedCount(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.size() : 0;
+    }
+    
+    /**
+     * Get the estimated bytes retained by a topic
+     */
+    public long getRetainedBytes(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.getBytes() : 0;
+    }
+    
+    /**
+     * Get the number of messages evicted by DROP_OLDEST or shed by DROP_NEWEST on a topic
+     */
+    public long getDroppedCount(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.getDroppedCount() : 0;
+    }
+    
+    /**
+     * Get the number of publishes rejected on a topic
+     */
+    public long getRejectedCount(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        return buffer != null ? buffer.getRejectedCount() : 0;
+    }
+    
+    private TopicBuffer topicBuffer(String topic) {
+        TopicBuffer buffer = topics.get(topic);
+        if (buffer == null) {
+            buffer = topics.computeIfAbsent(topic, k -> new TopicBuffer(k, getRetentionPolicy(k)));
+        }
+        return buffer;
+    }
+    
+    /**
+     * Shutdown the message bus, draining subscribers for up to the default deadline
      */
     public void shutdown() {
-        running = false;
-        executor.shutdown();
+        shutdown(DrainConfig.defaults());
     }
     
     /**
-     * Notify all subscribers of a topic about a new message
+     * Shutdown the message bus
+     * Publishing stops at once. Subscribers then get until the deadline to
+     * work off their mailboxes and rings, with lingering batches delivered
+     * immediately; whatever is still queued afterwards is reported and, if
+     * configured, persisted. Handlers still running at the deadline are
+     * interrupted. Later calls return the first call's report.
      */
-    private void notifySubscribers(String topic, Message message) {
-        List<MessageHandler> handlers = subscribers.get(topic);
-        if (handlers != null && !handlers.isEmpty()) {
-            for (MessageHandler handler : handlers) {
-                executor.submit(() -> {
-                    try {
-                        handler.handle(message);
-                    } catch (Exception e) {
-                        System.err.println("Error handling message: " + e.getMessage());
-                        e.printStackTrace();
+    public ShutdownReport shutdown(DrainConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Drain config cannot be null");
+        }
+        synchronized (lifecycleLock) {
+            if (shutdownReport != null) {
+                return shutdownReport;
+            }
+            long start = System.nanoTime();
+            long deadline = start + config.getDeadline().toNanos();
+            running = false;
+            
+            List<Subscription> subscriptions = allSubscriptions();
+            long handledBefore = 0;
+            for (Subscription subscription : subscriptions) {
+                handledBefore += subscription.getHandledCount();
+                Mailbox mailbox = subscription.getMailbox();
+                if (mailbox != null) {
+                    mailbox.flush();
+                }
+            }
+            boolean drained = awaitDrained(subscriptions, deadline);
+            
+            ReplyRouter router = replyRouter;
+            if (router != null) {
+                router.failAll("Message bus shut down");
+            }
+            BusMetrics current = metrics;
+            if (current != null) {
+                current.close();
+            }
+            for (SequenceRing ring : rings.values()) {
+                ring.halt();
+            }
+            Map<String, List<Message>> undelivered = new LinkedHashMap<>();
+            Map<String, String> logNames = new LinkedHashMap<>();
+            for (List<Subscription> registered : subscribers.values()) {
+                for (int i = 0; i < registered.size(); i++) {
+                    Subscription subscription = registered.get(i);
+                    Mailbox mailbox = subscription.getMailbox();
+                    RingConsumer consumer = subscription.getRingConsumer();
+                    List<Message> pending = new ArrayList<>();
+                    if (mailbox != null) {
+                        // Copy out of pooled messages before the mailbox's references go back to the pool
+                        for (Message message : mailbox.closeAndTake()) {
+                            pending.add(message.detach());
+                            message.release();
+                        }
+                    } else if (consumer != null) {
+                        // A consumer stuck in its handler still releases its batch itself
+                        for (Message message : consumer.getUnhandled()) {
+                            pending.add(message.detach());
+                        }
+                    }
+                    if (!pending.isEmpty()) {
+                        String key = i == 0 ? subscription.getTopic() : subscription.getTopic() + "#" + (i + 1);
+                        undelivered.put(key, pending);
+                        logNames.put(key, undeliveredLogName(subscription.getTopic(), i + 1));
                     }
-                });
+                }
             }
+            
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    drained = false;
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+            long handled = 0;
+            long inFlight = 0;
+            for (Subscription subscription : subscriptions) {
+                handled += subscription.getHandledCount();
+                if (subscription.getMailbox() != null) {
+                    // Closed mailboxes only count what their handler still holds
+                    inFlight += subscription.getLag();
+                }
+            }
+            timer.shutdown();
+            for (MessageLog log : logs.values()) {
+                log.close();
+            }
+            
+            Map<String, Path> persisted = new LinkedHashMap<>();
+            int persistedCount = config.getPersistDirectory() != null
+                    ? persistUndelivered(undelivered, logNames, config, persisted)
+                    : 0;
+            shutdownReport = new ShutdownReport(drained && undelivered.isEmpty(),
+                    Duration.ofNanos(System.nanoTime() - start), handled - handledBefore, inFlight,
+                    undelivered, config.getPersistDirectory(), persistedCount, persisted);
+            if (!shutdownReport.isDrained()) {
+                System.err.println("Message bus shut down before draining: " + shutdownReport);
+            }
+            return shutdownReport;
+        }
+    }
+    
+    /**
+     * Wait until no subscriber has queued or in-flight messages
+     * @return false if the deadline passed first
+     */
+    private static boolean awaitDrained(List<Subscription> subscriptions, long deadline) {
+        long pause = 1;
+        while (true) {
+            boolean idle = true;
+            for (Subscription subscription : subscriptions) {
+                if (subscription.getLag() > 0) {
+                    idle = false;
+                    break;
+                }
+            }
+            if (idle) {
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(pause, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            pause = Math.min(pause * 2, 20);
+        }
+    }
+    
+    /**
+     * Append undelivered messages to one log per subscription under the drain directory
+     * @param persisted Receives the log directory of each subscription written
+     * @return Number of messages written
+     */
+    private static int persistUndelivered(Map<String, List<Message>> undelivered, Map<String, String> logNames,
+                                          DrainConfig config, Map<String, Path> persisted) {
+        DurableTopicConfig logConfig = new DurableTopicConfig.Builder()
+                .directory(config.getPersistDirectory())
+                .segmentBytes(4 * 1024 * 1024)
+                .fsyncPolicy(config.getFsyncPolicy())
+                .build();
+        int written = 0;
+        for (Map.Entry<String, List<Message>> entry : undelivered.entrySet()) {
+            Path directory = config.getPersistDirectory().resolve(logNames.get(entry.getKey()));
+            try (MessageLog log = MessageLog.open(entry.getKey(), directory, logConfig)) {
+                log.appendAll(entry.getValue());
+                log.flush();
+                written += entry.getValue().size();
+                persisted.put(entry.getKey(), directory);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to persist undelivered messages for " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        return written;
+    }
+    
+    /**
+     * Name the log directory of the index-th subscription (from 1) on a topic or pattern
+     * Every character but letters, digits, '.' and '-' is percent-encoded,
+     * '_' included, so "_" + index cannot clash with another subscription's
+     * name and "a.*", "a.>" and "t_2" all stay distinct.
+     */
+    static String undeliveredLogName(String pattern, int index) {
+        StringBuilder name = new StringBuilder(pattern.length() + 8);
+        for (byte b : pattern.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-') {
+                name.append(c);
+            } else {
+                name.append(String.format("%%%02X", b & 0xFF));
+            }
+        }
+        return name.append('_').append(index).toString();
+    }
+    
+    /**
+     * Get the mailboxes of every subscription matching a concrete topic
+     * Cached per topic; the cache is rebuilt lazily after subscriptions change
+     */
+    private Mailbox[] resolveMailboxes(String topic) {
+        Mailbox[] mailboxes = resolved.get(topic);
+        if (mailboxes != null) {
+            return mailboxes;
+        }
+        synchronized (trie) {
+            mailboxes = resolved.get(topic);
+            if (mailboxes == null) {
+                List<Mailbox> matched = new ArrayList<>();
+                for (Subscription subscription : trie.match(topic)) {
+                    if (subscription.getMailbox() != null) {
+                        matched.add(subscription.getMailbox());
+                    }
+                }
+                mailboxes = matched.isEmpty() ? NO_MAILBOXES : matched.toArray(new Mailbox[0]);
+                if (resolved.size() >= MAX_RESOLVED_TOPICS) {
+                    // Guard against unbounded growth from ever-changing topic names
+                    resolved.clear();
+                }
+                resolved.put(topic, mailboxes);
+            }
+            return mailboxes;
+        }
+    }
+    
+    private void invalidateResolved() {
+        synchronized (trie) {
+            resolved.clear();
+        }
+    }
+    
+    /**
+     * Queue a new message in the mailbox of every subscriber matching a topic
+     * A full mailbox that rejects the message does not stop delivery to the others
+     */
+    private static void notifySubscribers(Mailbox[] mailboxes, Message message) {
+        if (mailboxes.length == 0) {
+            return;
+        }
+        TopicOverflowException overflow = null;
+        for (Mailbox mailbox : mailboxes) {
+            try {
+                mailbox.offer(message);
+            } catch (TopicOverflowException e) {
+                overflow = e;
+            }
+        }
+        if (overflow != null) {
+            throw overflow;
+        }
+    }
+    
+    /**
+     * Queue a batch of messages in the mailbox of every subscriber matching a topic
+     */
+    private static void notifySubscribers(Mailbox[] mailboxes, Collection<Message> messages) {
+        if (mailboxes.length == 0) {
+            return;
+        }
+        TopicOverflowException overflow = null;
+        for (Mailbox mailbox : mailboxes) {
+            try {
+                mailbox.offerAll(messages);
+            } catch (TopicOverflowException e) {
+                overflow = e;
+            }
+        }
+        if (overflow != null) {
+            throw overflow;
         }
     }
     
@@ -122,11 +1088,11 @@ public class WeaveMessageBus {
     }
     
     /**
-     * Get the number of subscribers for a topic
+     * Get the number of subscribers registered under a topic or pattern
      */
     public int getSubscriberCount(String topic) {
-        List<MessageHandler> handlers = subscribers.get(topic);
-        return handlers != null ? handlers.size() : 0;
+        List<Subscription> subscriptions = subscribers.get(topic);
+        return subscriptions != null ? subscriptions.size() : 0;
     }
     
     /**
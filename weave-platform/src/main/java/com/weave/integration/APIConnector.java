@@ -2,34 +2,74 @@
 
 package com.weave.integration;
 
+import com.google.gson.Gson;
+import com.weave.core.WeaveExecutors;
 import com.weave.model.DataSet;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST API Connector for external bioinformatics databases
  * Supports NCBI, ENSEMBL, UCSC, PubChem, etc.
+ *
+ * Uses a shared java.net.http client (HTTP/2 with keep-alive pooling) and
+ * parses responses as a stream into typed DataSet rows. GET requests can be
+ * served from an APIResponseCache.
  */
 public class APIConnector extends DataConnector {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    // One client for all connectors so connections are pooled and multiplexed
+    private static final HttpClient SHARED_CLIENT = createSharedClient();
+
+    // Rate limits are per remote host and shared by every connector talking to it
+    private static final Map<String, TokenBucket> HOST_LIMITS = new ConcurrentHashMap<>();
+    // Limits of batch lookups to hosts without one of the above; one per host, at the latest lookup's rate
+    private static final Map<String, TokenBucket> LOOKUP_LIMITS = new ConcurrentHashMap<>();
+    private static final Gson GSON = new Gson();
+
     private String apiKey;
     private String endpoint;
+    private String recordsPath;
+    private Duration timeout;
+    private HttpClient httpClient;
+    private APIResponseCache responseCache;
     private Map<String, String> headers;
-    
+
     public APIConnector() {
         super();
         this.headers = new HashMap<>();
+        this.timeout = DEFAULT_TIMEOUT;
+        this.httpClient = SHARED_CLIENT;
     }
-    
+
     public APIConnector(String baseUrl) {
-        super();
+        this();
         this.connectionString = baseUrl;
-        this.headers = new HashMap<>();
     }
-    
+
     /**
      * Set API key for authentication
      */
@@ -37,112 +77,441 @@ public class APIConnector extends DataConnector {
         this.apiKey = apiKey;
         headers.put("Authorization", "Bearer " + apiKey);
     }
-    
+
     /**
      * Set endpoint path
      */
     public void setEndpoint(String endpoint) {
         this.endpoint = endpoint;
     }
-    
+
+    /**
+     * Set the dotted JSON path of the records to turn into rows (e.g. "esearchresult.idlist")
+     */
+    public void setRecordsPath(String recordsPath) {
+        this.recordsPath = recordsPath;
+    }
+
+    /**
+     * Set per-request timeout
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Use a custom HTTP client instead of the shared one
+     */
+    public void setHttpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Serve GET requests through a response cache
+     */
+    public void setResponseCache(APIResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     /**
      * Add custom header
      */
     public void addHeader(String key, String value) {
         headers.put(key, value);
     }
-    
+
+    /**
+     * Limit requests to a host, e.g. 3 req/s for NCBI without an API key or 10 with one
+     */
+    public static void setHostRateLimit(String host, double requestsPerSecond, int burst) {
+        HOST_LIMITS.put(host, new TokenBucket(requestsPerSecond, burst));
+    }
+
     @Override
     public void connect() throws Exception {
         if (connectionString == null || connectionString.isEmpty()) {
             throw new IllegalArgumentException("API base URL cannot be null or empty");
         }
-        
-        // Test connection with a simple request
-        URL url = new URL(connectionString);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        
-        int responseCode = conn.getResponseCode();
-        conn.disconnect();
-        
-        if (responseCode >= 200 && responseCode < 300) {
-            connected = true;
-            System.out.println("Connected to API: " + connectionString);
-        } else {
-            throw new Exception("Failed to connect to API. Response code: " + responseCode);
-        }
-    }
-    
+
+        // Validate the URL only; the first real request opens the pooled connection
+        URI uri = URI.create(connectionString);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Invalid API base URL: " + connectionString);
+        }
+
+        connected = true;
+        System.out.println("Connected to API: " + connectionString);
+    }
+
     @Override
     public DataSet read() throws Exception {
+        try {
+            return readAsync().join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Read from the configured endpoint without blocking the caller
+     */
+    @Override
+    public CompletableFuture<DataSet> readAsync() {
+        return readAsync(endpoint);
+    }
+
+    /**
+     * Read from the given endpoint path without blocking the caller
+     */
+    public CompletableFuture<DataSet> readAsync(String path) {
         if (!connected) {
             throw new IllegalStateException("Not connected. Call connect() first.");
         }
-        
-        String fullUrl = connectionString;
-        if (endpoint != null && !endpoint.isEmpty()) {
-            fullUrl += "/" + endpoint;
-        }
-        
-        URL url = new URL(fullUrl);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        
-        // Add headers
-        for (Map.Entry<String, String> header : headers.entrySet()) {
-            conn.setRequestProperty(header.getKey(), header.getValue());
-        }
-        
-        int responseCode = conn.getResponseCode();
-        
-        if (responseCode >= 200 && responseCode < 300) {
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            
-            while ((line = in.readLine()) != null) {
-                response.append(line);
+
+        HttpRequest request = buildRequest(path);
+        return fetch(request, HOST_LIMITS.get(request.uri().getHost()), Collections.emptySet());
+    }
+
+    /**
+     * Stream the pages of the configured endpoint
+     * @param lookAhead Maximum number of pages requested ahead of the consumer
+     */
+    public PageStream readPages(PaginationStrategy strategy, int lookAhead) {
+        return readPages(endpoint, strategy, lookAhead);
+    }
+
+    /**
+     * Stream the pages of an endpoint as DataSet batches, prefetching the next
+     * pages while the current one is being processed
+     * @param lookAhead Maximum number of pages requested ahead of the consumer
+     */
+    public PageStream readPages(String path, PaginationStrategy strategy, int lookAhead) {
+        if (!connected) {
+            throw new IllegalStateException("Not connected. Call connect() first.");
+        }
+
+        Set<String> captures = strategy.capturedFields();
+        return new PageStream(pagePath -> {
+            HttpRequest request = buildRequest(pagePath);
+            return fetch(request, HOST_LIMITS.get(request.uri().getHost()), captures);
+        }, strategy, path, lookAhead);
+    }
+
+    /**
+     * Look up many IDs, blocking until all batches have completed
+     * @return One DataSet with the rows of every batch, in ID order
+     */
+    public DataSet batchRead(Collection<String> ids, BatchLookup lookup) throws Exception {
+        try {
+            return batchReadAsync(ids, lookup).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Look up many IDs without blocking the caller
+     * IDs are grouped into batches and sent with at most lookup.getParallelism()
+     * requests in flight, throttled by the target host's token bucket and
+     * retried with jittered exponential backoff on 429, 5xx and I/O errors.
+     */
+    public CompletableFuture<DataSet> batchReadAsync(Collection<String> ids, BatchLookup lookup) {
+        if (!connected) {
+            throw new IllegalStateException("Not connected. Call connect() first.");
+        }
+
+        List<String> idList = new ArrayList<>(ids);
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i += lookup.getBatchSize()) {
+            batches.add(idList.subList(i, Math.min(i + lookup.getBatchSize(), idList.size())));
+        }
+
+        DataSet[] results = new DataSet[batches.size()];
+        AtomicInteger nextBatch = new AtomicInteger();
+        int lanes = Math.min(lookup.getParallelism(), batches.size());
+
+        // Each lane pulls the next batch when its previous request completes
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int i = 0; i < lanes; i++) {
+            running.add(runLane(batches, results, nextBatch, lookup));
+        }
+
+        return CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> mergeBatches(results, idList.size()));
+    }
+
+    private CompletableFuture<Void> runLane(List<List<String>> batches, DataSet[] results,
+                                            AtomicInteger nextBatch, BatchLookup lookup) {
+        int index = nextBatch.getAndIncrement();
+        if (index >= batches.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        HttpRequest request = buildBatchRequest(batches.get(index), lookup);
+        // Async, so batches that complete at once (cache hits) do not nest one frame per batch
+        return send(request, lookup, 0).thenComposeAsync(dataset -> {
+            results[index] = dataset;
+            return runLane(batches, results, nextBatch, lookup);
+        }, WeaveExecutors.ioExecutor());
+    }
+
+    private HttpRequest buildBatchRequest(List<String> ids, BatchLookup lookup) {
+        if (!lookup.isPost()) {
+            return buildRequest(lookup.pathFor(ids));
+        }
+        String body = GSON.toJson(Collections.singletonMap(lookup.getIdsField(), ids));
+        return HttpRequest.newBuilder(buildRequest(lookup.getPostPath()), (name, value) -> true)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Send a request once the host's rate limit allows it, retrying transient failures
+     */
+    private CompletableFuture<DataSet> send(HttpRequest request, BatchLookup lookup, int attempt) {
+        String host = request.uri().getHost();
+        TokenBucket bucket = HOST_LIMITS.get(host);
+        if (bucket == null) {
+            double rate = lookup.getRequestsPerSecond();
+            bucket = LOOKUP_LIMITS.computeIfAbsent(host, key -> new TokenBucket(rate, 1));
+            bucket.setRate(rate);
+        }
+
+        return fetch(request, bucket, Collections.emptySet())
+                .handle((dataset, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(dataset);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (attempt >= lookup.getMaxRetries() || !isRetryable(cause)) {
+                        return CompletableFuture.<DataSet>failedFuture(cause);
+                    }
+                    return delay(backoffMillis(cause, lookup, attempt), TimeUnit.MILLISECONDS)
+                            .thenCompose(ready -> send(request, lookup, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof APIException) {
+            return ((APIException) error).isRetryable();
+        }
+        return error instanceof IOException;
+    }
+
+    /**
+     * Full-jitter exponential backoff, or the server's Retry-After if it asked for longer
+     */
+    private static long backoffMillis(Throwable error, BatchLookup lookup, int attempt) {
+        long ceiling = lookup.getBaseBackoff().toMillis() << Math.min(attempt, 16);
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (error instanceof APIException) {
+            backoff = Math.max(backoff, ((APIException) error).getRetryAfterMillis());
+        }
+        return backoff;
+    }
+
+    private static CompletableFuture<Void> delay(long amount, TimeUnit unit) {
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(amount, unit));
+    }
+
+    private static DataSet mergeBatches(DataSet[] results, int idCount) {
+        DataSet merged = new DataSet();
+        for (DataSet batch : results) {
+            for (Map.Entry<String, String> column : batch.getSchema().entrySet()) {
+                if (merged.getColumnType(column.getKey()) == null) {
+                    merged.setSchema(column.getKey(), column.getValue());
+                }
+            }
+            for (Map<String, Object> row : batch.getRows()) {
+                merged.addRow(row);
             }
-            in.close();
-            
-            DataSet dataset = parseJsonResponse(response.toString());
-            System.out.println("Successfully retrieved data from API");
-            return dataset;
-            
-        } else {
-            throw new Exception("API request failed. Response code: " + responseCode);
         }
+        merged.setMetadata("batches", results.length);
+        merged.setMetadata("ids", idCount);
+        return merged;
     }
-    
+
     @Override
     public void write(DataSet data) throws Exception {
         if (!connected) {
             throw new IllegalStateException("Not connected. Call connect() first.");
         }
-        
+
         // POST implementation would go here
         throw new UnsupportedOperationException("Write operation not yet implemented for API connector");
     }
-    
+
     @Override
     public void disconnect() throws Exception {
         connected = false;
         System.out.println("Disconnected from API");
     }
-    
+
+    private static HttpClient createSharedClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(DEFAULT_TIMEOUT);
+        if (WeaveExecutors.isVirtualThreadsEnabled()) {
+            builder.executor(WeaveExecutors.ioExecutor());
+        }
+        return builder.build();
+    }
+
     /**
-     * Parse JSON response into DataSet
-     * Note: This is a simplified parser. In production, use a JSON library like Gson or Jackson
+     * Build a GET request for a path relative to the base URL, or for an absolute URL
      */
-    private DataSet parseJsonResponse(String json) {
-        DataSet dataset = new DataSet();
-        
-        // Simplified JSON parsing - replace with proper JSON library in production
-        Map<String, Object> row = new HashMap<>();
-        row.put("response", json);
-        dataset.addRow(row);
-        
+    HttpRequest buildRequest(String path) {
+        String fullUrl = connectionString;
+        if (path != null && (path.startsWith("http://") || path.startsWith("https://"))) {
+            // Absolute URL, e.g. a next link handed out by the server
+            fullUrl = path;
+        } else if (path != null && !path.isEmpty()) {
+            fullUrl += "/" + path;
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(fullUrl))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Send a request once the host's rate limit allows it, going through the
+     * response cache when one is configured
+     */
+    private CompletableFuture<DataSet> fetch(HttpRequest request, TokenBucket bucket, Set<String> captures) {
+        if (responseCache == null || !request.method().equals("GET")) {
+            return throttle(bucket)
+                    .thenCompose(ready -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+                    .thenApply(response -> parseResponse(response, captures));
+        }
+
+        String key = responseCache.keyFor(request);
+        APIResponseCache.CachedResponse entry = responseCache.get(key);
+        if (entry != null && entry.isFresh()) {
+            responseCache.recordHit();
+            try {
+                return CompletableFuture.completedFuture(parseCached(entry, request.uri().toString(), 200, captures));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        responseCache.recordMiss();
+        HttpRequest outgoing = request;
+        if (entry != null && entry.canRevalidate()) {
+            responseCache.recordRevalidation();
+            outgoing = responseCache.conditional(request, entry);
+        }
+
+        Path download;
+        try {
+            download = responseCache.newDownloadFile();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest conditionalRequest = outgoing;
+        return throttle(bucket)
+                .thenCompose(ready -> httpClient.sendAsync(conditionalRequest, HttpResponse.BodyHandlers.ofFile(download)))
+                .thenApply(response -> {
+                    try {
+                        int status = response.statusCode();
+                        if (status == 304 && entry != null) {
+                            APIResponseCache.CachedResponse refreshed = responseCache.refresh(entry, response);
+                            return parseCached(refreshed, response.uri().toString(), status, captures);
+                        }
+                        if (status >= 200 && status < 300) {
+                            APIResponseCache.CachedResponse stored = responseCache.store(key, response);
+                            return parseCached(stored, response.uri().toString(), status, captures);
+                        }
+                        throw new CompletionException(toApiException(response));
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((dataset, error) -> {
+                    try {
+                        Files.deleteIfExists(download);
+                    } catch (IOException e) {
+                        // Leftover temp file is harmless
+                    }
+                });
+    }
+
+    private static CompletableFuture<Void> throttle(TokenBucket bucket) {
+        return delay(bucket != null ? bucket.reserve() : 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stream the response body into a DataSet
+     */
+    private DataSet parseResponse(HttpResponse<InputStream> response, Set<String> captures) {
+        int responseCode = response.statusCode();
+        try (InputStream body = response.body()) {
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new CompletionException(toApiException(response));
+            }
+            String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+            DataSet dataset = toDataSet(body, encoding, response.uri().toString(), responseCode, captures);
+            response.headers().firstValue("Link").ifPresent(link -> dataset.setMetadata("link", link));
+            return dataset;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private DataSet parseCached(APIResponseCache.CachedResponse entry, String source, int status,
+                                Set<String> captures) throws IOException {
+        try (InputStream body = responseCache.open(entry)) {
+            DataSet dataset = toDataSet(body, entry.contentEncoding, source, status, captures);
+            if (entry.link != null) {
+                dataset.setMetadata("link", entry.link);
+            }
+            return dataset;
+        }
+    }
+
+    private DataSet toDataSet(InputStream body, String contentEncoding, String source, int status,
+                              Set<String> captures) throws IOException {
+        InputStream decoded = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        DataSet dataset = new JsonDataSetReader(recordsPath, captures).read(decoded);
+        dataset.setMetadata("source", source);
+        dataset.setMetadata("status", status);
         return dataset;
     }
+
+    private static APIException toApiException(HttpResponse<?> response) {
+        long retryAfter = response.headers().firstValue("Retry-After")
+                .map(APIConnector::parseRetryAfter)
+                .orElse(-1L);
+        return new APIException("API request failed. Response code: " + response.statusCode(),
+                response.statusCode(), retryAfter);
+    }
+
+    private static long parseRetryAfter(String value) {
+        try {
+            return Long.parseLong(value.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // HTTP-date form is not worth honouring here
+            return -1L;
+        }
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+// FILE: src/main/java/com/weave/integration/APIException.java
+
+package com.weave.integration;
+
+/**
+ * Exception for non-successful API responses
+ * Carries the HTTP status so callers can decide whether to retry
+ */
+public class APIException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+    
+    public APIException(String message, int statusCode, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+    
+    /**
+     * Get HTTP status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
+    /**
+     * Get server-requested delay from the Retry-After header, or -1 if none
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+    
+    /**
+     * Check if the request may succeed when retried (429 or 5xx)
+     */
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,443 @@
+// FILE: src/main/java/com/weave/integration/APIResponseCache.java
+
+package com.weave.integration;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier HTTP response cache for APIConnector
+ * An in-memory LRU tier in front of a size-bounded on-disk tier, keyed by
+ * URL and request headers. Stale entries carrying an ETag or Last-Modified
+ * are revalidated with a conditional request instead of being re-downloaded.
+ * Recency is tracked in one access-ordered index of the disk tier that hits
+ * in either tier refresh, so the disk tier evicts its least recently used
+ * entries without listing the directory; file times only seed the order
+ * when the cache is opened.
+ */
+public class APIResponseCache {
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, CachedResponse> memory;
+    private final LinkedHashMap<String, Long> diskIndex;
+    private final Map<String, Duration> endpointTtls;
+    private final AtomicLong diskBytes;
+    private long memoryBytes;
+    private volatile Duration defaultTtl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param directory Directory for the on-disk tier, created if missing
+     * @param maxMemoryBytes Size bound of the in-memory tier
+     * @param maxDiskBytes Size bound of the on-disk tier
+     */
+    public APIResponseCache(Path directory, long maxMemoryBytes, long maxDiskBytes) throws IOException {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true);
+        this.diskIndex = new LinkedHashMap<>(64, 0.75f, true);
+        this.endpointTtls = new ConcurrentHashMap<>();
+        this.defaultTtl = Duration.ofHours(1);
+
+        Files.createDirectories(directory);
+        // Downloads interrupted by a crash are never moved into place
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "download*.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Path> bodies = new ArrayList<>();
+        Map<Path, FileTime> lastAccess = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+            for (Path file : files) {
+                bodies.add(file);
+                lastAccess.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        bodies.sort((a, b) -> lastAccess.get(a).compareTo(lastAccess.get(b)));
+        long existing = 0;
+        for (Path body : bodies) {
+            long size = Files.size(body);
+            diskIndex.put(keyOf(body), size);
+            existing += size;
+        }
+        this.diskBytes = new AtomicLong(existing);
+    }
+
+    /**
+     * Set TTL for endpoints without a specific TTL
+     */
+    public void setDefaultTtl(Duration ttl) {
+        this.defaultTtl = ttl;
+    }
+
+    /**
+     * Set TTL for requests whose path contains the given endpoint (longest match wins)
+     */
+    public void setTtl(String endpoint, Duration ttl) {
+        endpointTtls.put(endpoint, ttl);
+    }
+
+    /**
+     * Cache key: SHA-256 over method, URL and sorted request headers
+     */
+    String keyFor(HttpRequest request) {
+        StringBuilder material = new StringBuilder(request.method()).append(' ').append(request.uri());
+        for (Map.Entry<String, List<String>> header : new TreeMap<>(request.headers().map()).entrySet()) {
+            material.append('\n').append(header.getKey().toLowerCase()).append(':').append(header.getValue());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(material.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a cached response, checking memory first and then disk
+     * @return The entry (possibly stale), or null on a miss
+     */
+    CachedResponse get(String key) {
+        CachedResponse resident;
+        synchronized (memory) {
+            resident = memory.get(key);
+        }
+        if (resident != null) {
+            // Outside the memory lock: eviction takes the index lock first
+            touch(key);
+            return resident;
+        }
+
+        Path meta = directory.resolve(key + META_SUFFIX);
+        Path body = directory.resolve(key + BODY_SUFFIX);
+        if (!Files.exists(meta) || !Files.exists(body)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties props = new Properties();
+            props.load(reader);
+            CachedResponse entry = new CachedResponse(key,
+                    props.getProperty("etag"),
+                    props.getProperty("lastModified"),
+                    props.getProperty("contentEncoding"),
+                    props.getProperty("link"),
+                    Long.parseLong(props.getProperty("expiresAt", "0")),
+                    Files.size(body));
+            // Keeps the order across restarts; the index is what eviction reads
+            Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+            touch(key);
+            promote(entry);
+            return entry;
+        } catch (IOException | NumberFormatException e) {
+            // Corrupt entry, treat as a miss
+            return null;
+        }
+    }
+
+    /**
+     * Add If-None-Match / If-Modified-Since validators to a request
+     */
+    HttpRequest conditional(HttpRequest request, CachedResponse entry) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (entry.etag != null) {
+            builder.header("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            builder.header("If-Modified-Since", entry.lastModified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Temporary file in the cache directory to stream a download into
+     */
+    Path newDownloadFile() throws IOException {
+        return Files.createTempFile(directory, "download", ".tmp");
+    }
+
+    /**
+     * Store a downloaded 2xx response
+     */
+    CachedResponse store(String key, HttpResponse<Path> response) throws IOException {
+        HttpHeaders headers = response.headers();
+        Path body = directory.resolve(key + BODY_SUFFIX);
+        Files.move(response.body(), body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        CachedResponse entry = new CachedResponse(key,
+                headers.firstValue("ETag").orElse(null),
+                headers.firstValue("Last-Modified").orElse(null),
+                headers.firstValue("Content-Encoding").orElse(null),
+                headers.firstValue("Link").orElse(null),
+                System.currentTimeMillis() + ttlFor(response.uri().getPath()).toMillis(),
+                Files.size(body));
+        writeMeta(entry, response.uri().toString());
+        synchronized (diskIndex) {
+            Long previous = diskIndex.put(key, entry.size);
+            diskBytes.addAndGet(entry.size - (previous != null ? previous : 0));
+        }
+
+        synchronized (memory) {
+            CachedResponse old = memory.remove(key);
+            if (old != null && old.body != null) {
+                memoryBytes -= old.size;
+            }
+        }
+        promote(entry);
+        evictDisk();
+        return entry;
+    }
+
+    /**
+     * Extend a stale entry after the server answered 304 Not Modified
+     */
+    CachedResponse refresh(CachedResponse entry, HttpResponse<?> response) throws IOException {
+        notModified.increment();
+        CachedResponse refreshed = new CachedResponse(entry.key,
+                response.headers().firstValue("ETag").orElse(entry.etag),
+                response.headers().firstValue("Last-Modified").orElse(entry.lastModified),
+                entry.contentEncoding,
+                response.headers().firstValue("Link").orElse(entry.link),
+                System.currentTimeMillis() + ttlFor(response.uri().getPath()).toMillis(),
+                entry.size);
+        refreshed.body = entry.body;
+        writeMeta(refreshed, response.uri().toString());
+        synchronized (memory) {
+            if (memory.containsKey(entry.key)) {
+                memory.put(entry.key, refreshed);
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Open the cached body, served from memory when the entry is resident
+     */
+    InputStream open(CachedResponse entry) throws IOException {
+        if (entry.body != null) {
+            return new ByteArrayInputStream(entry.body);
+        }
+        return Files.newInputStream(directory.resolve(entry.key + BODY_SUFFIX));
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get cache statistics
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("revalidations", revalidations.sum());
+        stats.put("not_modified", notModified.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hit_ratio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("memory_bytes", memoryBytes);
+        stats.put("disk_bytes", diskBytes.get());
+        return stats;
+    }
+
+    /**
+     * Remove every cached response
+     */
+    public void clear() throws IOException {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        synchronized (diskIndex) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            diskIndex.clear();
+            diskBytes.set(0);
+        }
+    }
+
+    /**
+     * Mark an entry as just used
+     */
+    private void touch(String key) {
+        synchronized (diskIndex) {
+            diskIndex.get(key);
+        }
+    }
+
+    private static String keyOf(Path body) {
+        String name = body.getFileName().toString();
+        return name.substring(0, name.length() - BODY_SUFFIX.length());
+    }
+
+    private Duration ttlFor(String path) {
+        Duration ttl = defaultTtl;
+        int longest = -1;
+        for (Map.Entry<String, Duration> entry : endpointTtls.entrySet()) {
+            if (path != null && path.contains(entry.getKey()) && entry.getKey().length() > longest) {
+                ttl = entry.getValue();
+                longest = entry.getKey().length();
+            }
+        }
+        return ttl;
+    }
+
+    private void writeMeta(CachedResponse entry, String url) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("url", url);
+        props.setProperty("expiresAt", Long.toString(entry.expiresAt));
+        if (entry.etag != null) props.setProperty("etag", entry.etag);
+        if (entry.lastModified != null) props.setProperty("lastModified", entry.lastModified);
+        if (entry.contentEncoding != null) props.setProperty("contentEncoding", entry.contentEncoding);
+        if (entry.link != null) props.setProperty("link", entry.link);
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(entry.key + META_SUFFIX), StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+    }
+
+    /**
+     * Keep small bodies in the memory tier, evicting least recently used entries
+     */
+    private void promote(CachedResponse entry) throws IOException {
+        if (entry.size > maxMemoryBytes / 8) {
+            return;
+        }
+        if (entry.body == null) {
+            entry.body = Files.readAllBytes(directory.resolve(entry.key + BODY_SUFFIX));
+        }
+        synchronized (memory) {
+            if (memory.put(entry.key, entry) == null) {
+                memoryBytes += entry.size;
+            }
+            Iterator<CachedResponse> lru = memory.values().iterator();
+            while (memoryBytes > maxMemoryBytes && lru.hasNext()) {
+                memoryBytes -= lru.next().size;
+                lru.remove();
+            }
+        }
+    }
+
+    /**
+     * Delete least recently used entries until the disk tier fits its bound
+     */
+    private void evictDisk() {
+        synchronized (diskIndex) {
+            Iterator<Map.Entry<String, Long>> lru = diskIndex.entrySet().iterator();
+            while (diskBytes.get() > maxDiskBytes && lru.hasNext()) {
+                Map.Entry<String, Long> oldest = lru.next();
+                String key = oldest.getKey();
+                try {
+                    Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+                    Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                lru.remove();
+                diskBytes.addAndGet(-oldest.getValue());
+                evictions.increment();
+                synchronized (memory) {
+                    CachedResponse resident = memory.remove(key);
+                    if (resident != null) {
+                        memoryBytes -= resident.size;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A cached response: validators, expiry and (when resident) the body bytes
+     */
+    static class CachedResponse {
+        final String key;
+        final String etag;
+        final String lastModified;
+        final String contentEncoding;
+        final String link;
+        final long expiresAt;
+        final long size;
+        byte[] body;
+
+        CachedResponse(String key, String etag, String lastModified, String contentEncoding,
+                       String link, long expiresAt, long size) {
+            this.key = key;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentEncoding = contentEncoding;
+            this.link = link;
+            this.expiresAt = expiresAt;
+            this.size = size;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+// FILE: src/main/java/com/weave/integration/BatchLookup.java
+
+package com.weave.integration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Batch lookup specification for APIConnector
+ * Describes how IDs are grouped into requests and how those requests
+ * are fanned out, rate limited and retried
+ */
+public class BatchLookup {
+    private final int batchSize;
+    private final int parallelism;
+    private final double requestsPerSecond;
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Function<List<String>, String> pathBuilder;
+    private final String postPath;
+    private final String idsField;
+    
+    private BatchLookup(Builder builder) {
+        this.batchSize = builder.batchSize;
+        this.parallelism = builder.parallelism;
+        this.requestsPerSecond = builder.requestsPerSecond;
+        this.maxRetries = builder.maxRetries;
+        this.baseBackoff = builder.baseBackoff;
+        this.pathBuilder = builder.pathBuilder;
+        this.postPath = builder.postPath;
+        this.idsField = builder.idsField;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+    
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    
+    public Duration getBaseBackoff() {
+        return baseBackoff;
+    }
+    
+    /**
+     * Check if batches are sent as a JSON POST body rather than in the URL
+     */
+    public boolean isPost() {
+        return postPath != null;
+    }
+    
+    public String getPostPath() {
+        return postPath;
+    }
+    
+    public String getIdsField() {
+        return idsField;
+    }
+    
+    /**
+     * Build the GET path for one batch of IDs
+     */
+    public String pathFor(List<String> ids) {
+        return pathBuilder.apply(ids);
+    }
+    
+    /**
+     * Builder for batch lookups
+     */
+    public static class Builder {
+        private int batchSize = 1;
+        private int parallelism = 4;
+        private double requestsPerSecond = 3;
+        private int maxRetries = 3;
+        private Duration baseBackoff = Duration.ofMillis(500);
+        private Function<List<String>, String> pathBuilder;
+        private String postPath;
+        private String idsField = "ids";
+        
+        /**
+         * Number of IDs per request (1 when the service has no batch endpoint)
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        /**
+         * Maximum number of requests in flight
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+        
+        /**
+         * Per-host rate limit, used when the host has no limit set with APIConnector.setHostRateLimit
+         * Lookups to the same host share one limit, at the rate of the latest to send
+         */
+        public Builder requestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+        
+        /**
+         * Retries on 429, 5xx and I/O errors
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+        
+        /**
+         * Base delay for exponential backoff with full jitter
+         */
+        public Builder baseBackoff(Duration baseBackoff) {
+            this.baseBackoff = baseBackoff;
+            return this;
+        }
+        
+        /**
+         * GET path per batch, e.g. ids -> "efetch.fcgi?db=gene&id=" + String.join(",", ids)
+         */
+        public Builder path(Function<List<String>, String> pathBuilder) {
+            this.pathBuilder = pathBuilder;
+            return this;
+        }
+        
+        /**
+         * POST each batch to this path as {"ids": [...]}, e.g. Ensembl's "lookup/id"
+         */
+        public Builder post(String postPath) {
+            this.postPath = postPath;
+            return this;
+        }
+        
+        /**
+         * JSON field name holding the IDs in POST bodies
+         */
+        public Builder idsField(String idsField) {
+            this.idsField = idsField;
+            return this;
+        }
+        
+        public BatchLookup build() {
+            if (pathBuilder == null && postPath == null) {
+                throw new IllegalArgumentException("Batch lookup needs a path builder or a POST path");
+            }
+            if (batchSize < 1 || parallelism < 1) {
+                throw new IllegalArgumentException("Batch size and parallelism must be at least 1");
+            }
+            if (requestsPerSecond <= 0) {
+                throw new IllegalArgumentException("Requests per second must be positive");
+            }
+            return new BatchLookup(this);
+        }
+    }
+}
@@ -2,9 +2,12 @@
 
 package com.weave.integration;
 
+import com.weave.core.WeaveExecutors;
 import com.weave.model.DataSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Abstract Data Connector - Base for all data source integrations
@@ -81,6 +84,35 @@ public abstract class DataConnector {
      */
     public abstract void disconnect() throws Exception;
     
+    /**
+     * Read data on the shared I/O executor (virtual threads when enabled)
+     * @return Future completing with the read data
+     */
+    public CompletableFuture<DataSet> readAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return read();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, WeaveExecutors.ioExecutor());
+    }
+    
+    /**
+     * Write data on the shared I/O executor (virtual threads when enabled)
+     * @param data The dataset to write
+     * @return Future completing when the write has finished
+     */
+    public CompletableFuture<Void> writeAsync(DataSet data) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                write(data);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, WeaveExecutors.ioExecutor());
+    }
+    
     /**
      * Test the connection
      * @return true if connection is valid
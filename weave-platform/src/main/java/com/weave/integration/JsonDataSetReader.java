@@ -0,0 +1,233 @@
+// FILE: src/main/java/com/weave/integration/JsonDataSetReader.java
+
+package com.weave.integration;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.weave.model.DataSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streaming JSON to DataSet reader
+ * Pulls records token by token with Gson's JsonReader so large API payloads
+ * are never held in memory as a single String
+ */
+final class JsonDataSetReader {
+    private final String recordsPath;
+    private final boolean keyed;
+    private final Set<String> captureFields;
+
+    /**
+     * @param recordsPath Dotted path to the record array or object (e.g. "esearchresult.idlist"),
+     *                    or null to treat the document root as the records. A trailing "*"
+     *                    turns each entry of a keyed object into a row with a "key" column
+     *                    (e.g. Ensembl's POST lookup responses)
+     */
+    JsonDataSetReader(String recordsPath) {
+        this(recordsPath, Collections.emptySet());
+    }
+
+    /**
+     * @param recordsPath See {@link #JsonDataSetReader(String)}
+     * @param captureFields Dotted paths of scalar fields outside the records to keep as
+     *                      DataSet metadata (e.g. a "next_cursor" token)
+     */
+    JsonDataSetReader(String recordsPath, Set<String> captureFields) {
+        this.captureFields = captureFields;
+        if (recordsPath != null && (recordsPath.equals("*") || recordsPath.endsWith(".*"))) {
+            this.recordsPath = recordsPath.substring(0, Math.max(0, recordsPath.length() - 2));
+            this.keyed = true;
+        } else {
+            this.recordsPath = recordsPath != null ? recordsPath : "";
+            this.keyed = false;
+        }
+    }
+
+    /**
+     * Read all records from the stream into a DataSet
+     */
+    DataSet read(InputStream in) throws IOException {
+        DataSet dataset = new DataSet();
+        Map<String, Object> captured = read(in, row -> {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (dataset.getColumnType(entry.getKey()) == null && entry.getValue() != null) {
+                    dataset.setSchema(entry.getKey(), typeOf(entry.getValue()));
+                }
+            }
+            dataset.addRow(row);
+        });
+        for (Map.Entry<String, Object> field : captured.entrySet()) {
+            dataset.setMetadata(field.getKey(), field.getValue());
+        }
+        return dataset;
+    }
+
+    /**
+     * Read records from the stream, handing each row to the consumer as soon as it is parsed
+     * @return Captured fields by path
+     */
+    Map<String, Object> read(InputStream in, Consumer<Map<String, Object>> rowConsumer) throws IOException {
+        Map<String, Object> captured = new HashMap<>();
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            json.setLenient(true);
+
+            if (json.peek() != JsonToken.END_DOCUMENT) {
+                walk(json, "", rowConsumer, captured);
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Visit the value at the given path, descending only towards the records
+     * and captured fields and skipping everything else
+     */
+    private void walk(JsonReader json, String path, Consumer<Map<String, Object>> rowConsumer,
+                      Map<String, Object> captured) throws IOException {
+        if (path.equals(recordsPath)) {
+            readRecords(json, rowConsumer);
+            return;
+        }
+        JsonToken token = json.peek();
+        if (captureFields.contains(path) && token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY) {
+            captured.put(path, readValue(json));
+            return;
+        }
+        if (token == JsonToken.BEGIN_OBJECT && leadsToTarget(path)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                walk(json, path.isEmpty() ? name : path + "." + name, rowConsumer, captured);
+            }
+            json.endObject();
+            return;
+        }
+        json.skipValue();
+    }
+
+    private boolean leadsToTarget(String path) {
+        if (path.isEmpty()) {
+            return true;
+        }
+        String prefix = path + ".";
+        if (recordsPath.startsWith(prefix)) {
+            return true;
+        }
+        for (String field : captureFields) {
+            if (field.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void readRecords(JsonReader json, Consumer<Map<String, Object>> rowConsumer) throws IOException {
+        JsonToken token = json.peek();
+        if (keyed && token == JsonToken.BEGIN_OBJECT) {
+            json.beginObject();
+            while (json.hasNext()) {
+                String key = json.nextName();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("key", key);
+                row.putAll(readRow(json));
+                rowConsumer.accept(row);
+            }
+            json.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            json.beginArray();
+            while (json.hasNext()) {
+                rowConsumer.accept(readRow(json));
+            }
+            json.endArray();
+        } else {
+            rowConsumer.accept(readRow(json));
+        }
+    }
+
+    /**
+     * Read one record; objects are flattened with dotted keys, scalars become a "value" column
+     */
+    private Map<String, Object> readRow(JsonReader json) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        if (json.peek() == JsonToken.BEGIN_OBJECT) {
+            readObject(json, "", row);
+        } else {
+            row.put("value", readValue(json));
+        }
+        return row;
+    }
+
+    private void readObject(JsonReader json, String prefix, Map<String, Object> row) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            String key = prefix + json.nextName();
+            if (json.peek() == JsonToken.BEGIN_OBJECT) {
+                readObject(json, key + ".", row);
+            } else {
+                row.put(key, readValue(json));
+            }
+        }
+        json.endObject();
+    }
+
+    private Object readValue(JsonReader json) throws IOException {
+        switch (json.peek()) {
+            case BEGIN_ARRAY: {
+                List<Object> values = new ArrayList<>();
+                json.beginArray();
+                while (json.hasNext()) {
+                    values.add(readValue(json));
+                }
+                json.endArray();
+                return values;
+            }
+            case BEGIN_OBJECT: {
+                Map<String, Object> nested = new LinkedHashMap<>();
+                readObject(json, "", nested);
+                return nested;
+            }
+            case NUMBER:
+                return parseNumber(json.nextString());
+            case BOOLEAN:
+                return json.nextBoolean();
+            case NULL:
+                json.nextNull();
+                return null;
+            default:
+                return json.nextString();
+        }
+    }
+
+    private static Object parseNumber(String text) {
+        if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                // Out of long range, fall through to double
+            }
+        }
+        return Double.parseDouble(text);
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof Long) return "long";
+        if (value instanceof Double) return "double";
+        if (value instanceof Boolean) return "boolean";
+        if (value instanceof List) return "list";
+        if (value instanceof Map) return "map";
+        return "string";
+    }
+}
@@ -0,0 +1,121 @@
+// FILE: src/main/java/com/weave/integration/PageStream.java
+
+package com.weave.integration;
+
+import com.weave.model.DataSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Iterator over the pages of a paginated API result
+ * Keeps up to lookAhead pages requested ahead of the consumer: predictable
+ * strategies (offset, page number) fetch them concurrently, cursor and Link
+ * header strategies fetch each next page as soon as its predecessor arrives.
+ */
+public class PageStream implements Iterator<DataSet>, AutoCloseable {
+    private final Function<String, CompletableFuture<DataSet>> fetcher;
+    private final PaginationStrategy strategy;
+    private final int lookAhead;
+    private final Deque<CompletableFuture<Page>> inFlight;
+    private CompletableFuture<Page> chainTail;
+    private String nextPath;
+    private boolean finished;
+    private int pageIndex;
+    
+    PageStream(Function<String, CompletableFuture<DataSet>> fetcher, PaginationStrategy strategy,
+               String endpoint, int lookAhead) {
+        if (lookAhead < 1) {
+            throw new IllegalArgumentException("Look-ahead must be at least 1");
+        }
+        this.fetcher = fetcher;
+        this.strategy = strategy;
+        this.lookAhead = lookAhead;
+        this.inFlight = new ArrayDeque<>();
+        this.nextPath = strategy.firstPage(endpoint != null ? endpoint : "");
+        fill();
+    }
+    
+    @Override
+    public boolean hasNext() {
+        fill();
+        CompletableFuture<Page> head = inFlight.peekFirst();
+        if (head == null) {
+            return false;
+        }
+        if (head.join() == null) {
+            close();
+            return false;
+        }
+        return true;
+    }
+    
+    @Override
+    public DataSet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Page page = inFlight.pollFirst().join();
+        if (strategy.isPredictable() && strategy.nextPage(page.path, page.data) == null) {
+            // Last page: drop speculative requests beyond the end
+            close();
+        }
+        fill();
+        page.data.setMetadata("page", pageIndex++);
+        return page.data;
+    }
+    
+    /**
+     * Stop paging and cancel outstanding requests
+     */
+    @Override
+    public void close() {
+        finished = true;
+        for (CompletableFuture<Page> pending : inFlight) {
+            pending.cancel(false);
+        }
+        inFlight.clear();
+    }
+    
+    private void fill() {
+        while (!finished && inFlight.size() < lookAhead) {
+            if (strategy.isPredictable()) {
+                if (nextPath == null) {
+                    return;
+                }
+                String path = nextPath;
+                inFlight.addLast(fetcher.apply(path).thenApply(data -> new Page(path, data)));
+                nextPath = strategy.nextPage(path, null);
+            } else if (chainTail == null) {
+                String path = nextPath;
+                chainTail = fetcher.apply(path).thenApply(data -> new Page(path, data));
+                inFlight.addLast(chainTail);
+            } else {
+                if (chainTail.isDone() && !chainTail.isCompletedExceptionally() && chainTail.join() == null) {
+                    return;
+                }
+                chainTail = chainTail.thenCompose(previous -> {
+                    String path = previous != null ? strategy.nextPage(previous.path, previous.data) : null;
+                    if (path == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return fetcher.apply(path).thenApply(data -> new Page(path, data));
+                });
+                inFlight.addLast(chainTail);
+            }
+        }
+    }
+    
+    private static class Page {
+        final String path;
+        final DataSet data;
+        
+        Page(String path, DataSet data) {
+            this.path = path;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+// FILE: src/main/java/com/weave/integration/PaginationStrategy.java
+
+package com.weave.integration;
+
+import com.weave.model.DataSet;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Strategy for following paginated API results
+ * Paths are relative to the connector's base URL (absolute URLs are also accepted).
+ */
+public interface PaginationStrategy {
+    /**
+     * Get the path of the first page for an endpoint
+     */
+    String firstPage(String endpoint);
+    
+    /**
+     * Get the path of the page after the given one
+     * @param path Path of the current page
+     * @param page The current page, or null when asked speculatively for look-ahead
+     * @return Path of the next page, or null if the current page is the last one
+     */
+    String nextPage(String path, DataSet page);
+    
+    /**
+     * Check if the next page's path is known without its predecessor's response,
+     * which allows several pages to be requested at once
+     */
+    default boolean isPredictable() {
+        return false;
+    }
+    
+    /**
+     * JSON fields outside the records that the strategy reads from page metadata
+     */
+    default Set<String> capturedFields() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Offset/limit paging, e.g. NCBI E-utilities' retstart/retmax
+     */
+    static PaginationStrategy offset(String offsetParam, String limitParam, int pageSize) {
+        return new OffsetPagination(offsetParam, limitParam, pageSize);
+    }
+    
+    /**
+     * Page number paging, e.g. page=1&per_page=100
+     */
+    static PaginationStrategy pageNumber(String pageParam, String sizeParam, int pageSize, int firstPage) {
+        return new PageNumberPagination(pageParam, sizeParam, pageSize, firstPage);
+    }
+    
+    /**
+     * Cursor token paging: the token at cursorField of each page is sent as cursorParam
+     */
+    static PaginationStrategy cursor(String cursorParam, String cursorField) {
+        return new CursorPagination(cursorParam, cursorField);
+    }
+    
+    /**
+     * RFC 5988 Link header paging (rel="next")
+     */
+    static PaginationStrategy linkHeader() {
+        return new LinkHeaderPagination();
+    }
+}
+
+/**
+ * Query string helpers shared by the strategies
+ */
+final class PagePaths {
+    private PagePaths() {
+    }
+    
+    static String getParameter(String path, String name) {
+        int query = path.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : path.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+    
+    static String setParameter(String path, String name, String value) {
+        String encoded = URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8);
+        int query = path.indexOf('?');
+        if (query < 0) {
+            return path + "?" + encoded;
+        }
+        
+        StringBuilder result = new StringBuilder(path.substring(0, query + 1));
+        boolean replaced = false;
+        for (String pair : path.substring(query + 1).split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (result.charAt(result.length() - 1) != '?') {
+                result.append('&');
+            }
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                result.append(encoded);
+                replaced = true;
+            } else {
+                result.append(pair);
+            }
+        }
+        if (!replaced) {
+            result.append(result.charAt(result.length() - 1) == '?' ? "" : "&").append(encoded);
+        }
+        return result.toString();
+    }
+}
+
+class OffsetPagination implements PaginationStrategy {
+    private final String offsetParam;
+    private final String limitParam;
+    private final int pageSize;
+    
+    OffsetPagination(String offsetParam, String limitParam, int pageSize) {
+        this.offsetParam = offsetParam;
+        this.limitParam = limitParam;
+        this.pageSize = pageSize;
+    }
+    
+    @Override
+    public String firstPage(String endpoint) {
+        String path = PagePaths.setParameter(endpoint, limitParam, Integer.toString(pageSize));
+        return PagePaths.setParameter(path, offsetParam, "0");
+    }
+    
+    @Override
+    public String nextPage(String path, DataSet page) {
+        if (page != null && page.getRowCount() < pageSize) {
+            return null;
+        }
+        String current = PagePaths.getParameter(path, offsetParam);
+        long offset = current != null ? Long.parseLong(current) : 0;
+        return PagePaths.setParameter(path, offsetParam, Long.toString(offset + pageSize));
+    }
+    
+    @Override
+    public boolean isPredictable() {
+        return true;
+    }
+}
+
+class PageNumberPagination implements PaginationStrategy {
+    private final String pageParam;
+    private final String sizeParam;
+    private final int pageSize;
+    private final int firstPage;
+    
+    PageNumberPagination(String pageParam, String sizeParam, int pageSize, int firstPage) {
+        this.pageParam = pageParam;
+        this.sizeParam = sizeParam;
+        this.pageSize = pageSize;
+        this.firstPage = firstPage;
+    }
+    
+    @Override
+    public String firstPage(String endpoint) {
+        String path = endpoint;
+        if (sizeParam != null) {
+            path = PagePaths.setParameter(path, sizeParam, Integer.toString(pageSize));
+        }
+        return PagePaths.setParameter(path, pageParam, Integer.toString(firstPage));
+    }
+    
+    @Override
+    public String nextPage(String path, DataSet page) {
+        if (page != null && page.getRowCount() < pageSize) {
+            return null;
+        }
+        String current = PagePaths.getParameter(path, pageParam);
+        int number = current != null ? Integer.parseInt(current) : firstPage;
+        return PagePaths.setParameter(path, pageParam, Integer.toString(number + 1));
+    }
+    
+    @Override
+    public boolean isPredictable() {
+        return true;
+    }
+}
+
+class CursorPagination implements PaginationStrategy {
+    private final String cursorParam;
+    private final String cursorField;
+    
+    CursorPagination(String cursorParam, String cursorField) {
+        this.cursorParam = cursorParam;
+        this.cursorField = cursorField;
+    }
+    
+    @Override
+    public String firstPage(String endpoint) {
+        return endpoint;
+    }
+    
+    @Override
+    public String nextPage(String path, DataSet page) {
+        Object cursor = page != null ? page.getMetadata(cursorField) : null;
+        if (cursor == null || cursor.toString().isEmpty()) {
+            return null;
+        }
+        return PagePaths.setParameter(path, cursorParam, cursor.toString());
+    }
+    
+    @Override
+    public Set<String> capturedFields() {
+        return Collections.singleton(cursorField);
+    }
+}
+
+class LinkHeaderPagination implements PaginationStrategy {
+    @Override
+    public String firstPage(String endpoint) {
+        return endpoint;
+    }
+    
+    @Override
+    public String nextPage(String path, DataSet page) {
+        Object link = page != null ? page.getMetadata("link") : null;
+        if (link == null) {
+            return null;
+        }
+        // e.g. <https://api.example.org/genes?page=3>; rel="next", <...>; rel="last"
+        for (String part : link.toString().split(",")) {
+            String[] sections = part.split(";");
+            String target = sections[0].trim();
+            for (int i = 1; i < sections.length; i++) {
+                String rel = sections[i].trim().replace(" ", "");
+                if ((rel.equals("rel=\"next\"") || rel.equals("rel=next"))
+                        && target.startsWith("<") && target.endsWith(">")) {
+                    return target.substring(1, target.length() - 1);
+                }
+            }
+        }
+        return null;
+    }
+}
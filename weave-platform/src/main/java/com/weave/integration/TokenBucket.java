@@ -0,0 +1,62 @@
+// FILE: src/main/java/com/weave/integration/TokenBucket.java
+
+package com.weave.integration;
+
+/**
+ * Token bucket rate limiter
+ * Callers reserve a token and are told how long to wait before using it,
+ * so waiting can be scheduled without parking a thread
+ */
+public class TokenBucket {
+    private double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+    
+    /**
+     * @param requestsPerSecond Sustained rate
+     * @param burst Maximum number of requests allowed back to back
+     */
+    public TokenBucket(double requestsPerSecond, int burst) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.tokensPerNano = requestsPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    /**
+     * Change the sustained rate; tokens accrued so far are kept
+     */
+    public synchronized void setRate(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        double perNano = requestsPerSecond / 1_000_000_000.0;
+        if (perNano == tokensPerNano) {
+            return;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        tokensPerNano = perNano;
+    }
+
+    /**
+     * Reserve one token
+     * @return nanoseconds to wait before the reserved request may be sent
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -3,6 +3,7 @@
 
 package com.weave.stream;
 
+import com.weave.core.WeaveExecutors;
 import com.weave.core.WeaveMessageBus;
 import com.weave.core.Message;
 import java.util.*;
@@ -20,7 +21,7 @@ public class StreamProcessor {
     public StreamProcessor(WeaveMessageBus messageBus) {
         this.messageBus = messageBus;
         this.rules = new ConcurrentHashMap<>();
-        this.executor = Executors.newFixedThreadPool(4);
+        this.executor = WeaveExecutors.newExecutor("weave-stream", 4);
         this.running = false;
     }
     
@@ -0,0 +1,83 @@
+// FILE: src/main/java/com/weave/workflow/Checkpoint.java
+
+package com.weave.workflow;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saved state of a pipeline execution: its context and the steps that have completed
+ */
+public final class Checkpoint {
+    private final String executionId;
+    private final String pipelineName;
+    private final long timestamp;
+    private final Map<String, Object> inputs;
+    private final Map<String, Object> outputs;
+    private final Map<String, Object> metadata;
+    private final List<String> completedSteps;
+
+    Checkpoint(String executionId, String pipelineName, long timestamp, Map<String, Object> inputs,
+               Map<String, Object> outputs, Map<String, Object> metadata, List<String> completedSteps) {
+        this.executionId = executionId;
+        this.pipelineName = pipelineName;
+        this.timestamp = timestamp;
+        this.inputs = Collections.unmodifiableMap(inputs);
+        this.outputs = Collections.unmodifiableMap(outputs);
+        this.metadata = Collections.unmodifiableMap(metadata);
+        this.completedSteps = Collections.unmodifiableList(completedSteps);
+    }
+
+    /**
+     * Rebuild the execution context as it was when the checkpoint was taken
+     */
+    ExecutionContext toContext() {
+        ExecutionContext context = new ExecutionContext(inputs);
+        for (Map.Entry<String, Object> output : outputs.entrySet()) {
+            context.setOutput(output.getKey(), output.getValue());
+        }
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            context.setMetadata(entry.getKey(), entry.getValue());
+        }
+        return context;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, Object> getInputs() {
+        return inputs;
+    }
+
+    public Map<String, Object> getOutputs() {
+        return outputs;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public List<String> getCompletedSteps() {
+        return completedSteps;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{" +
+                "executionId='" + executionId + '\'' +
+                ", pipeline='" + pipelineName + '\'' +
+                ", completedSteps=" + completedSteps +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+// FILE: src/main/java/com/weave/workflow/CheckpointStore.java
+
+package com.weave.workflow;
+
+import com.weave.core.Message;
+import com.weave.core.MessageCodec;
+import com.weave.core.StringTable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Local store of execution checkpoints, one file per execution
+ * A checkpoint is encoded with MessageCodec (varint numbers, no field names
+ * repeated per value), so context values should be strings, numbers,
+ * booleans, lists or maps; anything else is restored as its toString().
+ * Files are replaced atomically, so a crash mid-write leaves the previous
+ * checkpoint intact.
+ */
+public final class CheckpointStore {
+    private static final String SUFFIX = ".ckpt";
+    private static final Pattern EXECUTION_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final Path directory;
+
+    private CheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Open (or create) a checkpoint directory
+     */
+    public static CheckpointStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new CheckpointStore(directory);
+    }
+
+    /**
+     * Write a checkpoint, replacing the execution's previous one
+     */
+    public void save(Checkpoint checkpoint) throws IOException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("execution_id", checkpoint.getExecutionId());
+        payload.put("pipeline", checkpoint.getPipelineName());
+        payload.put("timestamp", checkpoint.getTimestamp());
+        payload.put("inputs", checkpoint.getInputs());
+        payload.put("outputs", checkpoint.getOutputs());
+        payload.put("metadata", checkpoint.getMetadata());
+        payload.put("completed", checkpoint.getCompletedSteps());
+        byte[] bytes = new MessageCodec(new StringTable(0)).toBytes(new Message("checkpoint", payload));
+
+        Path file = fileOf(checkpoint.getExecutionId());
+        Path temp = Files.createTempFile(directory, checkpoint.getExecutionId(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read an execution's latest checkpoint
+     * @return The checkpoint, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public Checkpoint load(String executionId) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(fileOf(executionId));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        Map<String, Object> payload;
+        try {
+            payload = new MessageCodec(new StringTable(0)).decode(bytes).getPayload();
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt checkpoint for execution " + executionId + ": " + e.getMessage(), e);
+        }
+        return new Checkpoint(executionId, (String) payload.get("pipeline"),
+                ((Number) payload.get("timestamp")).longValue(),
+                new HashMap<>((Map<String, Object>) payload.get("inputs")),
+                new HashMap<>((Map<String, Object>) payload.get("outputs")),
+                new HashMap<>((Map<String, Object>) payload.get("metadata")),
+                new ArrayList<>((List<String>) payload.get("completed")));
+    }
+
+    /**
+     * Remove an execution's checkpoint
+     * @return true if there was one
+     */
+    public boolean delete(String executionId) throws IOException {
+        return Files.deleteIfExists(fileOf(executionId));
+    }
+
+    /**
+     * Get the ids of all executions with a checkpoint
+     */
+    public List<String> getExecutionIds() throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                ids.add(name.substring(0, name.length() - SUFFIX.length()));
+            }
+        }
+        return ids;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path fileOf(String executionId) {
+        if (executionId == null || !EXECUTION_ID.matcher(executionId).matches()) {
+            throw new IllegalArgumentException("Invalid execution id: " + executionId);
+        }
+        return directory.resolve(executionId + SUFFIX);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointStore{directory=" + directory + '}';
+    }
+}
@@ -2,28 +2,32 @@
 
 package com.weave.workflow;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Execution context for pipeline execution
  * Stores inputs, outputs, and metadata
+ * Independent steps of a pipeline share one context from several threads,
+ * so every map is synchronized.
  */
 public class ExecutionContext {
     private final Map<String, Object> inputs;
     private final Map<String, Object> outputs;
     private final Map<String, Object> metadata;
+    private volatile PipelineRun run;
     
     public ExecutionContext() {
-        this.inputs = new HashMap<>();
-        this.outputs = new HashMap<>();
-        this.metadata = new HashMap<>();
+        this.inputs = Collections.synchronizedMap(new HashMap<>());
+        this.outputs = Collections.synchronizedMap(new HashMap<>());
+        this.metadata = Collections.synchronizedMap(new HashMap<>());
     }
     
     public ExecutionContext(Map<String, Object> inputs) {
-        this.inputs = new HashMap<>(inputs);
-        this.outputs = new HashMap<>();
-        this.metadata = new HashMap<>();
+        this.inputs = Collections.synchronizedMap(new HashMap<>(inputs));
+        this.outputs = Collections.synchronizedMap(new HashMap<>());
+        this.metadata = Collections.synchronizedMap(new HashMap<>());
     }
     
     // Input methods
@@ -50,7 +54,9 @@ public class ExecutionContext {
     }
     
     public Map<String, Object> getInputs() {
-        return new HashMap<>(inputs);
+        synchronized (inputs) {
+            return new HashMap<>(inputs);
+        }
     }
     
     // Output methods
@@ -64,7 +70,9 @@ public class ExecutionContext {
     }
     
     public Map<String, Object> getOutputs() {
-        return new HashMap<>(outputs);
+        synchronized (outputs) {
+            return new HashMap<>(outputs);
+        }
     }
     
     public void clearOutputs() {
@@ -82,7 +90,20 @@ public class ExecutionContext {
     }
     
     public Map<String, Object> getAllMetadata() {
-        return new HashMap<>(metadata);
+        synchronized (metadata) {
+            return new HashMap<>(metadata);
+        }
+    }
+    
+    /**
+     * Bind this context to the run executing it, so steps can start nested pipelines
+     */
+    void attach(PipelineRun run) {
+        this.run = run;
+    }
+    
+    PipelineRun getRun() {
+        return run;
     }
     
     // Utility methods
@@ -98,9 +119,9 @@ public class ExecutionContext {
     @Override
     public String toString() {
         return "ExecutionContext{" +
-                "inputs=" + inputs.keySet() +
-                ", outputs=" + outputs.keySet() +
-                ", metadata=" + metadata.keySet() +
+                "inputs=" + getInputs().keySet() +
+                ", outputs=" + getOutputs().keySet() +
+                ", metadata=" + getAllMetadata().keySet() +
                 '}';
     }
 }
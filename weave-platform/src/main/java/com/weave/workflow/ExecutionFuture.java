@@ -0,0 +1,73 @@
+// FILE: src/main/java/com/weave/workflow/ExecutionFuture.java
+
+package com.weave.workflow;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Result of an asynchronous pipeline execution
+ * Completes with the ExecutionResult (successful or failed) when the
+ * execution ends, so callers chain callbacks instead of polling.
+ * Cancelling it interrupts the running execution, which stops its steps.
+ */
+public final class ExecutionFuture extends CompletableFuture<ExecutionResult> {
+    private final String executionId;
+    private final String pipelineName;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Future<?> task;
+
+    ExecutionFuture(String executionId, String pipelineName) {
+        this.executionId = executionId;
+        this.pipelineName = pipelineName;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public String getPipelineName() {
+        return pipelineName;
+    }
+
+    /**
+     * Cancel the execution, interrupting it if it is running
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Future<?> running = task;
+        if (cancelled && running != null) {
+            running.cancel(true);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Bind the pool task running this execution; cancels it if the future was cancelled first
+     */
+    void bind(Future<?> task) {
+        this.task = task;
+        if (isCancelled()) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Mark the execution as having left the queue, by starting or by being cancelled
+     * @return true the first time only
+     */
+    boolean leaveQueue() {
+        return started.compareAndSet(false, true);
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionFuture{" +
+                "executionId='" + executionId + '\'' +
+                ", pipeline='" + pipelineName + '\'' +
+                ", done=" + isDone() +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+// FILE: src/main/java/com/weave/workflow/ExecutionPriority.java
+
+package com.weave.workflow;
+
+/**
+ * Priority class of an asynchronous execution
+ * A queued execution of a higher class always starts before one of a lower
+ * class; within a class, owners share the workflow threads by weight.
+ */
+public enum ExecutionPriority {
+    /** Time-critical work, e.g. clinical reruns */
+    URGENT,
+    /** Interactive and routine work */
+    NORMAL,
+    /** Bulk reprocessing that may wait for everything else */
+    BULK
+}
@@ -0,0 +1,103 @@
+// FILE: src/main/java/com/weave/workflow/ExecutionRegistry.java
+
+package com.weave.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous executions by id
+ * Running executions stay until they finish. Finished ones are kept for
+ * lookups until they are older than the retention time or more than
+ * maxRetained have finished since, oldest first, so memory stays flat
+ * under steady traffic. Finished executions are queued in completion order,
+ * so eviction only ever looks at the head of the queue.
+ */
+final class ExecutionRegistry {
+    private final ConcurrentHashMap<String, ExecutionFuture> executions = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Finished> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    private volatile long retentionNanos;
+    private volatile int maxRetained;
+
+    ExecutionRegistry(Duration retention, int maxRetained) {
+        setRetention(retention, maxRetained);
+    }
+
+    void setRetention(Duration retention, int maxRetained) {
+        if (retention.isNegative() || maxRetained < 0) {
+            throw new IllegalArgumentException("Retention cannot be negative");
+        }
+        this.retentionNanos = retention.toNanos();
+        this.maxRetained = maxRetained;
+    }
+
+    void register(ExecutionFuture future) {
+        executions.put(future.getExecutionId(), future);
+        future.whenComplete((result, error) -> {
+            finished.add(new Finished(future, System.nanoTime()));
+            finishedCount.incrementAndGet();
+            evict();
+        });
+    }
+
+    ExecutionFuture get(String executionId) {
+        return executions.get(executionId);
+    }
+
+    /**
+     * Drop finished executions past their retention time or beyond the retained count
+     */
+    void evict() {
+        long now = System.nanoTime();
+        Finished oldest;
+        while ((oldest = finished.peek()) != null) {
+            if (now - oldest.finishedAt <= retentionNanos && finishedCount.get() <= maxRetained) {
+                return;
+            }
+            if (finished.remove(oldest)) {
+                finishedCount.decrementAndGet();
+                executions.remove(oldest.future.getExecutionId(), oldest.future);
+            }
+        }
+    }
+
+    /**
+     * Get the executions that have not finished
+     */
+    List<ExecutionFuture> pending() {
+        List<ExecutionFuture> pending = new ArrayList<>();
+        for (ExecutionFuture future : executions.values()) {
+            if (!future.isDone()) {
+                pending.add(future);
+            }
+        }
+        return pending;
+    }
+
+    int getRetainedCount() {
+        return finishedCount.get();
+    }
+
+    Duration getRetention() {
+        return Duration.ofNanos(retentionNanos);
+    }
+
+    int getMaxRetained() {
+        return maxRetained;
+    }
+
+    private static final class Finished {
+        final ExecutionFuture future;
+        final long finishedAt;
+
+        Finished(ExecutionFuture future, long finishedAt) {
+            this.future = future;
+            this.finishedAt = finishedAt;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+// FILE: src/main/java/com/weave/workflow/ExecutionScheduler.java
+
+package com.weave.workflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which queued asynchronous execution gets the next workflow thread
+ * Priority classes are strict: a queued URGENT execution always starts before
+ * a NORMAL one, and NORMAL before BULK. Within a class every owner (user or
+ * project) has its own FIFO queue, and owners take turns by weight (smooth
+ * weighted round robin), so one owner submitting hundreds of runs gets its
+ * share and no more. An execution whose pipeline type is at its concurrency
+ * limit is skipped, and the next eligible one starts instead.
+ */
+public final class ExecutionScheduler {
+    public static final String DEFAULT_TYPE = "default";
+
+    private final ExecutorService executor;
+    private final Map<ExecutionPriority, LinkedHashMap<String, ArrayDeque<Entry>>> queues =
+            new EnumMap<>(ExecutionPriority.class);
+    private final Map<ExecutionPriority, Map<String, Long>> credits = new EnumMap<>(ExecutionPriority.class);
+    private final Map<String, Integer> shareWeights = new HashMap<>();
+    private final Map<String, Integer> concurrencyLimits = new HashMap<>();
+    private final Map<String, Integer> runningByType = new HashMap<>();
+    private final Map<String, Long> dispatchedByOwner = new HashMap<>();
+    private final long[] dispatchedByPriority = new long[ExecutionPriority.values().length];
+    private final long[] waitNanosByPriority = new long[ExecutionPriority.values().length];
+    private int maxConcurrentExecutions;
+    private int maxQueuedExecutions = 1000;
+    private int queued;
+    private int running;
+    private long rejected;
+    private boolean shutdown;
+
+    ExecutionScheduler(ExecutorService executor, int maxConcurrentExecutions) {
+        this.executor = executor;
+        this.maxConcurrentExecutions = maxConcurrentExecutions;
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            credits.put(priority, new HashMap<>());
+        }
+    }
+
+    /**
+     * Queue an execution; it runs once the scheduler picks it
+     * @throws RejectedExecutionException if it would have to wait while maxQueuedExecutions are already
+     *         queued, or the scheduler is shut down
+     */
+    void submit(ExecutionFuture future, SubmitOptions options, String type, Runnable task) {
+        Entry entry = new Entry(future, options.getPriority(), options.getOwner(),
+                type == null ? DEFAULT_TYPE : type, task);
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Workflow engine is shut down");
+            }
+            // One that can start at once only passes through the queue
+            if (queued >= maxQueuedExecutions && (running >= maxConcurrentExecutions || !hasRoom(entry.type))) {
+                rejected++;
+                throw new RejectedExecutionException("Too many queued executions (" + maxQueuedExecutions
+                        + "); rejected " + future.getPipelineName());
+            }
+            queues.get(entry.priority).computeIfAbsent(entry.owner, owner -> new ArrayDeque<>()).add(entry);
+            queued++;
+        }
+        // Cancelled while still queued: give up the place at once
+        future.whenComplete((result, error) -> {
+            if (future.leaveQueue()) {
+                dequeue(entry);
+            }
+        });
+        dispatch();
+    }
+
+    /**
+     * Start queued executions while there are free slots
+     */
+    private void dispatch() {
+        List<Entry> ready = new ArrayList<>();
+        synchronized (this) {
+            Entry entry;
+            while (running < maxConcurrentExecutions && (entry = next()) != null) {
+                if (!entry.future.leaveQueue()) {
+                    // Being cancelled; its completion handler settles the count
+                    continue;
+                }
+                queued--;
+                running++;
+                runningByType.merge(entry.type, 1, Integer::sum);
+                dispatchedByOwner.merge(entry.owner, 1L, Long::sum);
+                dispatchedByPriority[entry.priority.ordinal()]++;
+                waitNanosByPriority[entry.priority.ordinal()] += System.nanoTime() - entry.queuedAt;
+                ready.add(entry);
+            }
+        }
+        for (Entry entry : ready) {
+            start(entry);
+        }
+    }
+
+    private void start(Entry entry) {
+        FutureTask<Void> task = new FutureTask<>(entry.task, null);
+        try {
+            // The slot is freed when the thread is, even if the task was cancelled before it ran
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    finished(entry);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            finished(entry);
+            entry.future.complete(new ExecutionResult(false, "Workflow engine shut down", null));
+            return;
+        }
+        entry.future.bind(task);
+    }
+
+    private void finished(Entry entry) {
+        synchronized (this) {
+            running--;
+            runningByType.merge(entry.type, -1, Integer::sum);
+            notifyAll();
+        }
+        dispatch();
+    }
+
+    private synchronized void dequeue(Entry entry) {
+        ArrayDeque<Entry> queue = queues.get(entry.priority).get(entry.owner);
+        if (queue != null && queue.remove(entry) && queue.isEmpty()) {
+            queues.get(entry.priority).remove(entry.owner);
+            credits.get(entry.priority).remove(entry.owner);
+        }
+        queued--;
+        notifyAll();
+    }
+
+    /**
+     * Take the next execution to run: highest class first, then the owner with the most credit
+     */
+    private Entry next() {
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            LinkedHashMap<String, ArrayDeque<Entry>> owners = queues.get(priority);
+            if (owners.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> credit = credits.get(priority);
+            String chosen = null;
+            long chosenCredit = Long.MIN_VALUE;
+            long totalWeight = 0;
+            for (Map.Entry<String, ArrayDeque<Entry>> owner : owners.entrySet()) {
+                if (eligible(owner.getValue()) == null) {
+                    continue;
+                }
+                int weight = weightOf(owner.getKey());
+                totalWeight += weight;
+                long ownerCredit = credit.merge(owner.getKey(), (long) weight, Long::sum);
+                if (ownerCredit > chosenCredit) {
+                    chosen = owner.getKey();
+                    chosenCredit = ownerCredit;
+                }
+            }
+            if (chosen == null) {
+                continue;
+            }
+            credit.merge(chosen, -totalWeight, Long::sum);
+            ArrayDeque<Entry> queue = owners.get(chosen);
+            Entry entry = eligible(queue);
+            queue.remove(entry);
+            if (queue.isEmpty()) {
+                owners.remove(chosen);
+                credit.remove(chosen);
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Get the owner's oldest execution whose pipeline type is under its limit
+     */
+    private Entry eligible(ArrayDeque<Entry> queue) {
+        for (Iterator<Entry> it = queue.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (hasRoom(entry.type)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasRoom(String type) {
+        Integer limit = concurrencyLimits.get(type);
+        return limit == null || runningByType.getOrDefault(type, 0) < limit;
+    }
+
+    private int weightOf(String owner) {
+        return shareWeights.getOrDefault(owner, 1);
+    }
+
+    /**
+     * Give an owner this many turns for every one turn of an owner with weight 1 (the default)
+     */
+    public void setShareWeight(String owner, int weight) {
+        if (owner == null || weight <= 0) {
+            throw new IllegalArgumentException("Share weight must be positive");
+        }
+        synchronized (this) {
+            shareWeights.put(owner, weight);
+        }
+    }
+
+    public synchronized int getShareWeight(String owner) {
+        return weightOf(owner);
+    }
+
+    /**
+     * Run at most this many executions of a pipeline type at once; 0 or less removes the limit
+     * @param type Pipeline type (Pipeline.getType), or DEFAULT_TYPE for pipelines without one
+     */
+    public void setConcurrencyLimit(String type, int limit) {
+        if (type == null) {
+            throw new IllegalArgumentException("Pipeline type cannot be null");
+        }
+        synchronized (this) {
+            if (limit > 0) {
+                concurrencyLimits.put(type, limit);
+            } else {
+                concurrencyLimits.remove(type);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Get a pipeline type's concurrency limit, or 0 if it has none
+     */
+    public synchronized int getConcurrencyLimit(String type) {
+        return concurrencyLimits.getOrDefault(type, 0);
+    }
+
+    /**
+     * Run at most this many executions at once, across all owners and types
+     */
+    public void setMaxConcurrentExecutions(int maxConcurrentExecutions) {
+        if (maxConcurrentExecutions <= 0) {
+            throw new IllegalArgumentException("Max concurrent executions must be positive");
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            if (maxConcurrentExecutions > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(maxConcurrentExecutions);
+                pool.setCorePoolSize(maxConcurrentExecutions);
+            } else {
+                pool.setCorePoolSize(maxConcurrentExecutions);
+                pool.setMaximumPoolSize(maxConcurrentExecutions);
+            }
+        }
+        synchronized (this) {
+            this.maxConcurrentExecutions = maxConcurrentExecutions;
+        }
+        dispatch();
+    }
+
+    public synchronized int getMaxConcurrentExecutions() {
+        return maxConcurrentExecutions;
+    }
+
+    /**
+     * Limit the executions waiting to be scheduled; further submissions are rejected
+     * unless they can start at once
+     */
+    public void setMaxQueuedExecutions(int maxQueuedExecutions) {
+        if (maxQueuedExecutions < 0) {
+            throw new IllegalArgumentException("Max queued executions cannot be negative");
+        }
+        synchronized (this) {
+            this.maxQueuedExecutions = maxQueuedExecutions;
+        }
+    }
+
+    public synchronized int getMaxQueuedExecutions() {
+        return maxQueuedExecutions;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Get the scheduler's queues, running executions and decisions so far
+     */
+    synchronized SchedulerSnapshot snapshot(ResourcePool resources) {
+        Map<ExecutionPriority, Integer> queuedByPriority = new EnumMap<>(ExecutionPriority.class);
+        Map<String, Integer> queuedByOwner = new HashMap<>();
+        Map<ExecutionPriority, Long> dispatched = new EnumMap<>(ExecutionPriority.class);
+        Map<ExecutionPriority, Double> meanWait = new EnumMap<>(ExecutionPriority.class);
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            int count = 0;
+            for (Map.Entry<String, ArrayDeque<Entry>> owner : queues.get(priority).entrySet()) {
+                count += owner.getValue().size();
+                queuedByOwner.merge(owner.getKey(), owner.getValue().size(), Integer::sum);
+            }
+            queuedByPriority.put(priority, count);
+            long total = dispatchedByPriority[priority.ordinal()];
+            dispatched.put(priority, total);
+            meanWait.put(priority, total == 0 ? 0.0 : waitNanosByPriority[priority.ordinal()] / 1e6 / total);
+        }
+        Map<String, Integer> runningTypes = new HashMap<>();
+        for (Map.Entry<String, Integer> type : runningByType.entrySet()) {
+            if (type.getValue() > 0) {
+                runningTypes.put(type.getKey(), type.getValue());
+            }
+        }
+        return new SchedulerSnapshot(System.currentTimeMillis(), queued, running, queuedByPriority, queuedByOwner,
+                runningTypes, dispatched, new HashMap<>(dispatchedByOwner), meanWait, rejected, resources);
+    }
+
+    /**
+     * Stop accepting executions; queued ones still run
+     */
+    synchronized void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Wait until nothing is queued or running
+     * @return false if the timeout elapsed first
+     */
+    synchronized boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (queued > 0 || running > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final ExecutionFuture future;
+        final ExecutionPriority priority;
+        final String owner;
+        final String type;
+        final Runnable task;
+        final long queuedAt = System.nanoTime();
+
+        Entry(ExecutionFuture future, ExecutionPriority priority, String owner, String type, Runnable task) {
+            this.future = future;
+            this.priority = priority;
+            this.owner = owner;
+            this.type = type;
+            this.task = task;
+        }
+    }
+}
@@ -3,11 +3,16 @@
 package com.weave.workflow;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Pipeline class representing a workflow
+ * Steps form a dependency graph (see PipelineGraph): edges come from the
+ * keys steps consume and produce and from dependencies given by step name.
  */
 public class Pipeline {
     private final String id;
@@ -15,6 +20,7 @@ public class Pipeline {
     private String description;
     private String type;
     private List<PipelineStep> steps;
+    private final Map<String, List<String>> dependencies = new HashMap<>();
     private String status;
     
     public Pipeline(String name) {
@@ -39,11 +45,41 @@ public class Pipeline {
         steps.add(step);
     }
     
+    /**
+     * Add a step that runs once the named steps have completed
+     * The step no longer waits for the step added before it; with an empty
+     * list it only waits for the producers of the keys it consumes
+     */
+    public void addStep(PipelineStep step, Collection<String> dependsOn) {
+        addStep(step);
+        dependencies.put(step.getName(), new ArrayList<>(dependsOn));
+    }
+    
+    /**
+     * Make an already added step wait for another step, by name
+     */
+    public void addDependency(String step, String dependsOn) {
+        if (findStep(step) == null) {
+            throw new IllegalArgumentException("Unknown step: " + step);
+        }
+        dependencies.computeIfAbsent(step, k -> new ArrayList<>()).add(dependsOn);
+    }
+    
+    /**
+     * Get the explicit dependencies of a step, or null if it has none
+     */
+    public List<String> getDependencies(String step) {
+        List<String> names = dependencies.get(step);
+        return names != null ? new ArrayList<>(names) : null;
+    }
+    
     /**
      * Remove a step from the pipeline
      */
     public void removeStep(PipelineStep step) {
-        steps.remove(step);
+        if (steps.remove(step)) {
+            dependencies.remove(step.getName());
+        }
     }
     
     /**
@@ -51,8 +87,20 @@ public class Pipeline {
      */
     public void removeStep(int index) {
         if (index >= 0 && index < steps.size()) {
-            steps.remove(index);
+            dependencies.remove(steps.remove(index).getName());
+        }
+    }
+    
+    /**
+     * Get a step by name
+     */
+    public PipelineStep findStep(String name) {
+        for (PipelineStep step : steps) {
+            if (step.getName().equals(name)) {
+                return step;
+            }
         }
+        return null;
     }
     
     /**
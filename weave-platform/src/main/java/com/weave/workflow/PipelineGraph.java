@@ -0,0 +1,314 @@
+// FILE: src/main/java/com/weave/workflow/PipelineGraph.java
+
+package com.weave.workflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph of a pipeline's steps
+ * A step depends on
+ * - the steps named as its dependencies in the Pipeline,
+ * - for each key it consumes, the nearest step added before it that produces
+ *   the key (or else the first one added after it); keys nobody produces are
+ *   pipeline inputs,
+ * - if it declares neither, every step added before it, so undeclared
+ *   pipelines keep running in order.
+ * Building the graph rejects cycles, unknown dependencies and duplicate step
+ * names.
+ */
+public final class PipelineGraph {
+    private final List<PipelineStep> steps;
+    private final int[][] predecessors;
+    private final int[][] successors;
+    private final int[] order;
+
+    private PipelineGraph(List<PipelineStep> steps, List<Set<Integer>> edges) {
+        int n = steps.size();
+        this.steps = Collections.unmodifiableList(steps);
+        this.predecessors = new int[n][];
+        List<List<Integer>> next = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            next.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            predecessors[i] = toArray(edges.get(i));
+            for (int predecessor : predecessors[i]) {
+                next.get(predecessor).add(i);
+            }
+        }
+        this.successors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            successors[i] = toArray(next.get(i));
+        }
+        this.order = topologicalOrder();
+    }
+
+    /**
+     * Build the graph of a pipeline's current steps
+     * @throws IllegalArgumentException if step names repeat, a dependency is unknown or the steps form a cycle
+     */
+    public static PipelineGraph of(Pipeline pipeline) {
+        List<PipelineStep> steps = pipeline.getSteps();
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            if (byName.put(steps.get(i).getName(), i) != null) {
+                throw new IllegalArgumentException("Duplicate step name in pipeline: " + steps.get(i).getName());
+            }
+        }
+        List<Set<Integer>> edges = new ArrayList<>();
+        // Earlier steps nothing else waits for yet; an undeclared step waits for all of them
+        Set<Integer> frontier = new LinkedHashSet<>();
+        for (int i = 0; i < steps.size(); i++) {
+            PipelineStep step = steps.get(i);
+            List<String> explicit = pipeline.getDependencies(step.getName());
+            Set<String> consumed = step.getConsumedKeys();
+            Set<Integer> dependsOn = new LinkedHashSet<>();
+            if (explicit == null && consumed.isEmpty() && step.getProducedKeys().isEmpty()) {
+                dependsOn.addAll(frontier);
+            } else {
+                if (explicit != null) {
+                    for (String name : explicit) {
+                        Integer index = byName.get(name);
+                        if (index == null) {
+                            throw new IllegalArgumentException("Step '" + step.getName()
+                                    + "' depends on unknown step '" + name + "'");
+                        }
+                        dependsOn.add(index);
+                    }
+                }
+                for (String key : consumed) {
+                    int producer = producerOf(steps, key, i);
+                    if (producer >= 0) {
+                        dependsOn.add(producer);
+                    }
+                }
+            }
+            if (dependsOn.contains(i)) {
+                throw new IllegalArgumentException("Step depends on itself: " + step.getName());
+            }
+            edges.add(dependsOn);
+            frontier.removeAll(dependsOn);
+            frontier.add(i);
+        }
+        return new PipelineGraph(steps, edges);
+    }
+
+    private static int producerOf(List<PipelineStep> steps, String key, int consumer) {
+        for (int i = consumer - 1; i >= 0; i--) {
+            if (steps.get(i).getProducedKeys().contains(key)) {
+                return i;
+            }
+        }
+        for (int i = consumer + 1; i < steps.size(); i++) {
+            if (steps.get(i).getProducedKeys().contains(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Order the steps so each comes after its dependencies (Kahn's algorithm)
+     */
+    private int[] topologicalOrder() {
+        int n = steps.size();
+        int[] waiting = new int[n];
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            waiting[i] = predecessors[i].length;
+            if (waiting[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] sorted = new int[n];
+        int count = 0;
+        while (!ready.isEmpty()) {
+            int step = ready.poll();
+            sorted[count++] = step;
+            for (int successor : successors[step]) {
+                if (--waiting[successor] == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        if (count < n) {
+            throw new IllegalArgumentException("Pipeline has a dependency cycle: " + describeCycle(waiting));
+        }
+        return sorted;
+    }
+
+    /**
+     * Walk back through unfinished predecessors until a step repeats
+     */
+    private String describeCycle(int[] waiting) {
+        int step = 0;
+        while (waiting[step] == 0) {
+            step++;
+        }
+        List<Integer> path = new ArrayList<>();
+        Map<Integer, Integer> seen = new HashMap<>();
+        while (!seen.containsKey(step)) {
+            seen.put(step, path.size());
+            path.add(step);
+            for (int predecessor : predecessors[step]) {
+                if (waiting[predecessor] > 0) {
+                    step = predecessor;
+                    break;
+                }
+            }
+        }
+        List<Integer> cycle = path.subList(seen.get(step), path.size());
+        StringBuilder description = new StringBuilder(steps.get(step).getName());
+        for (int i = cycle.size() - 1; i >= 0; i--) {
+            description.append(" -> ").append(steps.get(cycle.get(i)).getName());
+        }
+        return description.toString();
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (int value : values) {
+            array[i++] = value;
+        }
+        return array;
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public List<PipelineStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the names of the steps a step waits for
+     */
+    public List<String> getDependencies(String step) {
+        List<String> names = new ArrayList<>();
+        for (int predecessor : predecessors[indexOf(step)]) {
+            names.add(steps.get(predecessor).getName());
+        }
+        return names;
+    }
+
+    /**
+     * Get the step names in an order that respects every dependency
+     */
+    public List<String> getExecutionOrder() {
+        List<String> names = new ArrayList<>();
+        for (int step : order) {
+            names.add(steps.get(step).getName());
+        }
+        return names;
+    }
+
+    /**
+     * Get the longest chain of dependent steps for estimated step durations
+     * Steps without an estimate count as zero
+     */
+    public CriticalPath criticalPath(Map<String, Long> estimatedMillis) {
+        long[] durations = new long[steps.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = estimatedMillis.getOrDefault(steps.get(i).getName(), 0L) * 1_000_000L;
+        }
+        return criticalPath(durations);
+    }
+
+    /**
+     * Get the longest chain of dependent steps, by step durations in nanoseconds
+     */
+    CriticalPath criticalPath(long[] durationNanos) {
+        int n = steps.size();
+        long[] finish = new long[n];
+        int[] via = new int[n];
+        int last = -1;
+        for (int step : order) {
+            long start = 0;
+            via[step] = -1;
+            for (int predecessor : predecessors[step]) {
+                if (via[step] < 0 || finish[predecessor] > start) {
+                    start = finish[predecessor];
+                    via[step] = predecessor;
+                }
+            }
+            finish[step] = start + durationNanos[step];
+            if (last < 0 || finish[step] > finish[last]) {
+                last = step;
+            }
+        }
+        List<String> path = new ArrayList<>();
+        for (int step = last; step >= 0; step = via[step]) {
+            path.add(steps.get(step).getName());
+        }
+        Collections.reverse(path);
+        return new CriticalPath(path, last >= 0 ? finish[last] : 0);
+    }
+
+    int indexOf(String step) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i).getName().equals(step)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown step: " + step);
+    }
+
+    int[] predecessorsOf(int step) {
+        return predecessors[step];
+    }
+
+    int[] successorsOf(int step) {
+        return successors[step];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("PipelineGraph{");
+        for (int step : order) {
+            if (description.length() > "PipelineGraph{".length()) {
+                description.append(", ");
+            }
+            description.append(steps.get(step).getName());
+            if (predecessors[step].length > 0) {
+                description.append(" <- ").append(getDependencies(steps.get(step).getName()));
+            }
+        }
+        return description.append('}').toString();
+    }
+
+    /**
+     * The chain of steps that bounds a run's wall time
+     */
+    public static final class CriticalPath {
+        private final List<String> steps;
+        private final long durationNanos;
+
+        CriticalPath(List<String> steps, long durationNanos) {
+            this.steps = Collections.unmodifiableList(steps);
+            this.durationNanos = durationNanos;
+        }
+
+        public List<String> getSteps() {
+            return steps;
+        }
+
+        public long getDurationMillis() {
+            return durationNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" -> ", steps) + " (" + getDurationMillis() + "ms)";
+        }
+    }
+}
@@ -0,0 +1,609 @@
+// FILE: src/main/java/com/weave/workflow/PipelineRun.java
+
+package com.weave.workflow;
+
+import com.weave.core.Message;
+import com.weave.core.WeaveMessageBus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One execution of a pipeline's step graph
+ * Every step whose dependencies have completed is handed to the executor,
+ * so independent steps overlap and the run takes about as long as its
+ * critical path. The step that finishes last among a step's dependencies
+ * schedules it. After a failure no further steps start; steps already
+ * running are allowed to finish. Steps that run nested pipelines (like
+ * ScatterGatherStep) start child runs that share the executor.
+ * With a StepCache, cacheable steps whose key is already cached are not
+ * executed; their stored outputs are put in the context instead. With a
+ * CheckpointStore, the context and the completed steps are saved after
+ * every step, and a resumed run starts from the steps not yet completed.
+ *
+ * Each step runs under its StepPolicy. An attempt that times out or is
+ * cancelled is abandoned: its thread is interrupted and the run moves on
+ * without waiting for it, so a hung step holds at most its own pool thread,
+ * never the execution. Retries wait on the timer and are resubmitted.
+ *
+ * A step with ResourceHints is submitted only once the engine's ResourcePool
+ * has reserved its cores and memory, at the run's priority. The reservation
+ * is returned when the attempt settles: when its thread is done, or as soon
+ * as a timeout or cancellation abandons it, so a hung step does not keep
+ * shrinking the node.
+ */
+final class PipelineRun {
+    private final String pipelineName;
+    private final String stepPrefix;
+    private final PipelineGraph graph;
+    private final ExecutionContext context;
+    private final WeaveMessageBus messageBus;
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final StepCache stepCache;
+    private final StepPolicy defaultPolicy;
+    private final ResourcePool resources;
+    private final AtomicIntegerArray waiting;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicReference<Failure> failure = new AtomicReference<>();
+    private final CompletableFuture<Failure> done = new CompletableFuture<>();
+    private final long[] startNanos;
+    private final long[] endNanos;
+    private final boolean[] cached;
+    private final boolean[] completed;
+    private final int[] retries;
+    private final Set<Attempt> running = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, ScheduledFuture<?>> pendingRetries = new ConcurrentHashMap<>();
+    private final Set<ResourcePool.Request> awaitingResources = ConcurrentHashMap.newKeySet();
+    private volatile ExecutionPriority priority = ExecutionPriority.NORMAL;
+    private CheckpointStore checkpoints;
+    private String executionId;
+    private long runStartNanos;
+
+    /**
+     * Create a run on the engine's step pool, timer, step cache, default step policy and resource pool
+     */
+    PipelineRun(String pipelineName, PipelineGraph graph, ExecutionContext context, WorkflowEngine engine) {
+        this(pipelineName, "", graph, context, engine.messageBus(), engine.stepExecutor(), engine.stepTimer(),
+                engine.getStepCache(), engine.getDefaultStepPolicy(), engine.getResourcePool());
+    }
+
+    private PipelineRun(String pipelineName, String stepPrefix, PipelineGraph graph, ExecutionContext context,
+                        WeaveMessageBus messageBus, Executor executor, ScheduledExecutorService timer,
+                        StepCache stepCache, StepPolicy defaultPolicy, ResourcePool resources) {
+        this.pipelineName = pipelineName;
+        this.stepPrefix = stepPrefix;
+        this.graph = graph;
+        this.context = context;
+        this.messageBus = messageBus;
+        this.executor = executor;
+        this.timer = timer;
+        this.stepCache = stepCache;
+        this.defaultPolicy = defaultPolicy;
+        this.resources = resources;
+        this.waiting = new AtomicIntegerArray(graph.size());
+        this.startNanos = new long[graph.size()];
+        this.endNanos = new long[graph.size()];
+        this.cached = new boolean[graph.size()];
+        this.completed = new boolean[graph.size()];
+        this.retries = new int[graph.size()];
+        context.attach(this);
+    }
+
+    /**
+     * Create a run of a nested pipeline on the same executor
+     * Its steps are reported as "prefix/step" under this run's pipeline name, at this run's priority
+     */
+    PipelineRun child(String prefix, PipelineGraph childGraph, ExecutionContext childContext) {
+        PipelineRun child = new PipelineRun(pipelineName, stepPrefix + prefix + "/", childGraph, childContext,
+                messageBus, executor, timer, stepCache, defaultPolicy, resources);
+        child.priority = priority;
+        return child;
+    }
+
+    /**
+     * Set the priority at which steps wait for resources; call before starting the run
+     */
+    void setPriority(ExecutionPriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Save a checkpoint to the store before the first step and after every completed step
+     * Call before starting the run
+     */
+    void checkpointTo(CheckpointStore store, String executionId) {
+        this.checkpoints = store;
+        this.executionId = executionId;
+    }
+
+    /**
+     * Treat steps completed by an earlier attempt as done; their outputs must already be in the context
+     * Call before starting the run. Names of steps no longer in the pipeline are ignored.
+     */
+    void restoreCompleted(Collection<String> steps) {
+        for (String name : steps) {
+            for (int i = 0; i < graph.size(); i++) {
+                if (graph.getSteps().get(i).getName().equals(name)) {
+                    completed[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the graph and wait for it to finish
+     * @return The first step failure, or null if every step completed
+     */
+    Failure run() {
+        CompletableFuture<Failure> result = start();
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            // The caller was cancelled; stop the steps and report the cancellation
+            cancel();
+            Thread.currentThread().interrupt();
+            return result.join();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pipeline run failed unexpectedly", e.getCause());
+        }
+    }
+
+    /**
+     * Cancel the run: start no more steps or retries and abandon running attempts
+     * Completes the run without waiting for steps that ignore the interrupt
+     */
+    void cancel() {
+        failure.compareAndSet(null, new Failure(null, new CancellationException("Execution cancelled")));
+        for (Attempt attempt : running) {
+            abandon(attempt, new CancellationException("Execution cancelled"));
+        }
+        withdrawPending();
+    }
+
+    /**
+     * Cancel retries waiting out their backoff and requests waiting for resources
+     * Called once a failure is recorded: those steps would only be skipped, and
+     * the run would wait for them first.
+     */
+    private void withdrawPending() {
+        for (Map.Entry<Integer, ScheduledFuture<?>> retry : pendingRetries.entrySet()) {
+            if (pendingRetries.remove(retry.getKey(), retry.getValue()) && retry.getValue().cancel(false)) {
+                finished();
+            }
+        }
+        for (ResourcePool.Request request : awaitingResources) {
+            if (awaitingResources.remove(request) && resources.cancel(request)) {
+                finished();
+            }
+        }
+    }
+
+    /**
+     * Start the graph's root steps without waiting
+     * @return Completes with the first step failure, or null, once no step is running
+     */
+    CompletableFuture<Failure> start() {
+        runStartNanos = System.nanoTime();
+        // A step waits only for predecessors that have not completed; count every root
+        // before submitting any, so an early finisher cannot complete the run
+        int roots = 0;
+        for (int i = 0; i < graph.size(); i++) {
+            int pending = 0;
+            for (int predecessor : graph.predecessorsOf(i)) {
+                if (!completed[predecessor]) {
+                    pending++;
+                }
+            }
+            waiting.set(i, pending);
+            if (pending == 0 && !completed[i]) {
+                roots++;
+            }
+        }
+        if (checkpoints != null) {
+            // Even a run that fails in its first step can then be resumed
+            saveCheckpoint();
+        }
+        if (roots == 0) {
+            done.complete(null);
+            return done;
+        }
+        active.set(roots);
+        for (int i = 0; i < graph.size(); i++) {
+            if (waiting.get(i) == 0 && !completed[i]) {
+                submit(i);
+            }
+        }
+        return done;
+    }
+
+    private void submit(int step) {
+        ResourceHints hints = graph.getSteps().get(step).getResources();
+        if (hints == null || resources == null) {
+            execute(step, null);
+            return;
+        }
+        ResourcePool.Request request = resources.acquire(hints, priority, granted -> {
+            awaitingResources.remove(granted);
+            execute(step, granted);
+        });
+        awaitingResources.add(request);
+        if (failure.get() != null && awaitingResources.remove(request) && resources.cancel(request)) {
+            // Cancelled while the request was being queued
+            finished();
+        }
+    }
+
+    private void execute(int step, ResourcePool.Request reserved) {
+        try {
+            executor.execute(() -> {
+                try {
+                    runStep(step, reserved);
+                } finally {
+                    if (reserved != null) {
+                        resources.release(reserved);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (reserved != null) {
+                resources.release(reserved);
+            }
+            failure.compareAndSet(null, new Failure(stepPrefix + graph.getSteps().get(step).getName(),
+                    new IllegalStateException("Workflow engine is shut down")));
+            finished();
+        }
+    }
+
+    private void runStep(int index, ResourcePool.Request reserved) {
+        PipelineStep step = graph.getSteps().get(index);
+        String stepName = stepPrefix + step.getName();
+        if (failure.get() != null) {
+            finished();
+            return;
+        }
+        Attempt attempt = new Attempt(index, Thread.currentThread(), reserved);
+        running.add(attempt);
+        if (failure.get() != null) {
+            // Cancelled or failed while this attempt was being registered
+            if (attempt.settle()) {
+                running.remove(attempt);
+                finished();
+            } else {
+                Thread.interrupted();
+            }
+            return;
+        }
+        StepPolicy policy = policyOf(step);
+        if (policy.getTimeout() != null) {
+            attempt.timeout = schedule(() -> abandon(attempt, new TimeoutException("Step '" + stepName
+                    + "' timed out after " + policy.getTimeout().toMillis() + "ms")), policy.getTimeout().toMillis());
+        }
+        if (retries[index] == 0) {
+            startNanos[index] = System.nanoTime();
+        }
+        Exception error = null;
+        String cacheKey = null;
+        System.out.println("Executing step: " + stepName);
+        try {
+            messageBus.publish("workflow.step.started",
+                new Message.Builder()
+                    .type("step_started")
+                    .addPayload("pipeline", pipelineName)
+                    .addPayload("step", stepName)
+                    .addPayload("attempt", retries[index] + 1)
+                    .build());
+        } catch (RuntimeException e) {
+            System.err.println("Unable to publish step start: " + e.getMessage());
+        }
+        try {
+            cacheKey = stepCache != null && StepCache.isCacheable(step) ? StepCache.keyOf(step, context) : null;
+            Map<String, Object> outputs = cacheKey != null ? stepCache.get(cacheKey) : null;
+            if (outputs != null) {
+                System.out.println("  Reusing cached outputs of " + stepName);
+                for (Map.Entry<String, Object> output : outputs.entrySet()) {
+                    context.setOutput(output.getKey(), output.getValue());
+                }
+                cached[index] = true;
+            } else {
+                step.execute(context);
+            }
+        } catch (Throwable t) {
+            error = t instanceof Exception ? (Exception) t : new ExecutionException(t);
+        }
+        boolean owner = attempt.settle();
+        // Clear an interrupt meant for this attempt before the thread runs anything else
+        Thread.interrupted();
+        running.remove(attempt);
+        if (attempt.timeout != null) {
+            attempt.timeout.cancel(false);
+        }
+        if (!owner) {
+            // Timed out or cancelled; whatever it produced is discarded
+            System.err.println("Abandoned attempt of step '" + stepName + "' has returned");
+            return;
+        }
+        if (error != null) {
+            attemptFailed(index, error);
+            return;
+        }
+        endNanos[index] = System.nanoTime();
+        if (cacheKey != null && !cached[index]) {
+            storeOutputs(cacheKey, step, stepName);
+        }
+        try {
+            messageBus.publish("workflow.step.completed",
+                new Message.Builder()
+                    .type("step_completed")
+                    .addPayload("pipeline", pipelineName)
+                    .addPayload("step", stepName)
+                    .addPayload("cached", cached[index])
+                    .build());
+        } catch (RuntimeException e) {
+            System.err.println("Unable to publish step completion: " + e.getMessage());
+        }
+        if (checkpoints != null) {
+            checkpointCompleted(index);
+        }
+        for (int successor : graph.successorsOf(index)) {
+            if (waiting.decrementAndGet(successor) == 0) {
+                active.incrementAndGet();
+                submit(successor);
+            }
+        }
+        finished();
+    }
+
+    /**
+     * Give up on a running attempt (timeout or cancellation) and handle it as failed
+     */
+    private void abandon(Attempt attempt, Exception error) {
+        if (!attempt.abandon()) {
+            return;
+        }
+        running.remove(attempt);
+        if (attempt.reserved != null) {
+            // The abandoned thread may never return; a retry needs the resources now
+            resources.release(attempt.reserved);
+        }
+        attemptFailed(attempt.index, error);
+    }
+
+    /**
+     * Retry the step if its policy allows, otherwise fail the run
+     */
+    private void attemptFailed(int index, Exception error) {
+        PipelineStep step = graph.getSteps().get(index);
+        String stepName = stepPrefix + step.getName();
+        StepPolicy policy = policyOf(step);
+        endNanos[index] = System.nanoTime();
+        if (failure.get() == null && policy.shouldRetry(error, retries[index])) {
+            long backoff = policy.getBackoffMillis(retries[index]);
+            retries[index]++;
+            System.err.println("Step '" + stepName + "' failed: " + error.getMessage() + "; retry "
+                    + retries[index] + " of " + policy.getMaxRetries() + " in " + backoff + "ms");
+            try {
+                messageBus.publish("workflow.step.retrying",
+                    new Message.Builder()
+                        .type("step_retrying")
+                        .addPayload("pipeline", pipelineName)
+                        .addPayload("step", stepName)
+                        .addPayload("attempt", retries[index] + 1)
+                        .addPayload("backoff_ms", backoff)
+                        .addPayload("error", error.getMessage())
+                        .build());
+            } catch (RuntimeException e) {
+                System.err.println("Unable to publish step retry: " + e.getMessage());
+            }
+            // Still active: the step is pending until the retry runs
+            ScheduledFuture<?> retry = schedule(() -> {
+                pendingRetries.remove(index);
+                submit(index);
+            }, backoff);
+            if (retry != null) {
+                pendingRetries.put(index, retry);
+                if (failure.get() != null) {
+                    // Another step failed while this retry was being scheduled
+                    withdrawPending();
+                }
+                return;
+            }
+            error = new IllegalStateException("Workflow engine is shut down");
+        }
+        System.err.println("Error in step '" + stepName + "': " + error.getMessage());
+        failure.compareAndSet(null, new Failure(stepName, error));
+        withdrawPending();
+        try {
+            messageBus.publish("workflow.step.failed",
+                new Message.Builder()
+                    .type("step_failed")
+                    .addPayload("pipeline", pipelineName)
+                    .addPayload("step", stepName)
+                    .addPayload("error", error.getMessage())
+                    .build());
+        } catch (RuntimeException e) {
+            System.err.println("Unable to publish step failure: " + e.getMessage());
+        }
+        finished();
+    }
+
+    private StepPolicy policyOf(PipelineStep step) {
+        StepPolicy policy = step.getPolicy();
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    /**
+     * @return The scheduled task, or null if the timer is shut down
+     */
+    private ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        try {
+            return timer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A cache that cannot be written only costs the next run a re-execution, so this never fails the step
+     */
+    private void storeOutputs(String cacheKey, PipelineStep step, String stepName) {
+        try {
+            stepCache.put(cacheKey, step, context);
+        } catch (IOException e) {
+            System.err.println("Failed to cache outputs of step '" + stepName + "': " + e.getMessage());
+        }
+    }
+
+    private synchronized void checkpointCompleted(int index) {
+        completed[index] = true;
+        saveCheckpoint();
+    }
+
+    /**
+     * Write the context and the completed steps; a failed write is logged and the run goes on
+     * Synchronized so that parallel steps cannot replace a newer checkpoint with an older one
+     */
+    private synchronized void saveCheckpoint() {
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < completed.length; i++) {
+            if (completed[i]) {
+                steps.add(graph.getSteps().get(i).getName());
+            }
+        }
+        try {
+            checkpoints.save(new Checkpoint(executionId, pipelineName, System.currentTimeMillis(),
+                    context.getInputs(), context.getOutputs(), context.getAllMetadata(), steps));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to checkpoint execution " + executionId + ": " + e.getMessage());
+        }
+    }
+
+    private void finished() {
+        if (active.decrementAndGet() == 0) {
+            done.complete(failure.get());
+        }
+    }
+
+    /**
+     * Get the chain of dependent steps that took longest in this run
+     */
+    PipelineGraph.CriticalPath getCriticalPath() {
+        long[] durations = new long[graph.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = endNanos[i] - startNanos[i];
+        }
+        return graph.criticalPath(durations);
+    }
+
+    /**
+     * Get how long each step that ran took, in milliseconds, in dependency order
+     */
+    Map<String, Long> getStepDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (String name : graph.getExecutionOrder()) {
+            int index = graph.indexOf(name);
+            if (startNanos[index] != 0) {
+                durations.put(name, (endNanos[index] - startNanos[index]) / 1_000_000L);
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Get the steps whose outputs came from the step cache, in dependency order
+     */
+    List<String> getCachedSteps() {
+        List<String> names = new ArrayList<>();
+        for (String name : graph.getExecutionOrder()) {
+            if (cached[graph.indexOf(name)]) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    ExecutionContext getContext() {
+        return context;
+    }
+
+    /**
+     * Get the pool this run's steps execute on
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    long getWallTimeMillis() {
+        return (System.nanoTime() - runStartNanos) / 1_000_000L;
+    }
+
+    /**
+     * One attempt at running a step, owned by whoever settles it first:
+     * the thread running it, or a timeout or cancellation abandoning it
+     */
+    private static final class Attempt {
+        final int index;
+        final ResourcePool.Request reserved;
+        private Thread thread;
+        private boolean settled;
+        volatile ScheduledFuture<?> timeout;
+
+        Attempt(int index, Thread thread, ResourcePool.Request reserved) {
+            this.index = index;
+            this.reserved = reserved;
+            this.thread = thread;
+        }
+
+        synchronized boolean settle() {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            thread = null;
+            return true;
+        }
+
+        /**
+         * Interrupt under the lock, so the interrupt cannot reach the thread after it has moved on
+         */
+        synchronized boolean abandon() {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            thread.interrupt();
+            thread = null;
+            return true;
+        }
+    }
+
+    /**
+     * The first step that failed and why; the step is null if the run was cancelled
+     */
+    static final class Failure {
+        final String step;
+        final Exception error;
+
+        Failure(String step, Exception error) {
+            this.step = step;
+            this.error = error;
+        }
+    }
+}
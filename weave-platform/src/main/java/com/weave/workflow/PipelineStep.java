@@ -2,8 +2,17 @@
 
 package com.weave.workflow;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Interface for pipeline steps
+ * Steps that declare the context keys they consume and produce run as soon
+ * as the steps producing their inputs have finished, in parallel with
+ * anything independent of them. Steps that declare neither (and have no
+ * explicit dependencies in their Pipeline) run after every step added
+ * before them, as in a sequential pipeline.
  */
 public interface PipelineStep {
     /**
@@ -18,8 +27,65 @@ public interface PipelineStep {
         return "";
     }
     
+    /**
+     * Get the keys this step reads: pipeline inputs or outputs of other steps
+     */
+    default Set<String> getConsumedKeys() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Get the output keys this step sets
+     */
+    default Set<String> getProducedKeys() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Whether the engine may skip this step and reuse its outputs from a StepCache
+     * when its name, version, configuration and consumed values are unchanged.
+     * Only steps that declare their consumed and produced keys, and whose outputs
+     * depend on nothing else, should opt in.
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+    
+    /**
+     * Get the step version; bump it when a change to the step changes its outputs
+     */
+    default String getVersion() {
+        return "1";
+    }
+    
+    /**
+     * Get settings that affect the step's outputs (tool versions, parameters, reference builds)
+     * Part of the step's cache key
+     */
+    default Map<String, Object> getConfiguration() {
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * Get the timeout and retry policy of this step, or null for the engine's default
+     */
+    default StepPolicy getPolicy() {
+        return null;
+    }
+    
+    /**
+     * Get the cores and memory this step needs, or null if it needs no reservation
+     * A step with hints waits until the engine's node has them free.
+     */
+    default ResourceHints getResources() {
+        return null;
+    }
+    
     /**
      * Execute the step
+     * Steps without a dependency between them may run at the same time on the same context.
+     * A step that times out or whose execution is cancelled is interrupted; long-running
+     * steps should let InterruptedException propagate and stop external processes they started.
      * @param context Execution context containing inputs and outputs
      * @throws Exception if execution fails
      */
@@ -0,0 +1,36 @@
+// FILE: src/main/java/com/weave/workflow/ResourceHints.java
+
+package com.weave.workflow;
+
+/**
+ * Cores and memory a step needs while it runs, e.g. for the external tool it starts
+ */
+public final class ResourceHints {
+    private final int cores;
+    private final long memoryMb;
+
+    private ResourceHints(int cores, long memoryMb) {
+        this.cores = cores;
+        this.memoryMb = memoryMb;
+    }
+
+    public static ResourceHints of(int cores, long memoryMb) {
+        if (cores < 0 || memoryMb < 0) {
+            throw new IllegalArgumentException("Resource hints cannot be negative");
+        }
+        return new ResourceHints(cores, memoryMb);
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public long getMemoryMb() {
+        return memoryMb;
+    }
+
+    @Override
+    public String toString() {
+        return cores + " cores, " + memoryMb + "MB";
+    }
+}
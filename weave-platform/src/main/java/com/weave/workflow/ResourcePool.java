@@ -0,0 +1,232 @@
+// FILE: src/main/java/com/weave/workflow/ResourcePool.java
+
+package com.weave.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Cores and memory of the node, shared by the steps of all executions
+ * A step with ResourceHints starts only once its cores and memory are free.
+ * Waiting steps are granted in priority order, then arrival order, but any
+ * waiting step that fits is started (first fit), so small steps fill the
+ * gaps left by large ones. Once a step has waited longer than the backfill
+ * limit, nothing queued behind it is started until it fits, so a stream of
+ * small steps cannot starve a large one. A request larger than the node is
+ * trimmed to the whole node and runs alone. Steps without hints are not
+ * accounted.
+ */
+public final class ResourcePool {
+    private final TreeSet<Request> waiting = new TreeSet<>(
+            Comparator.comparing((Request request) -> request.priority).thenComparingLong(request -> request.seq));
+    private int cores;
+    private long memoryMb;
+    private int coresInUse;
+    private long memoryInUse;
+    private long seq;
+    private long granted;
+    private long totalWaitNanos;
+    private long maxBackfillWaitNanos = Duration.ofSeconds(30).toNanos();
+
+    ResourcePool(int cores, long memoryMb) {
+        setCapacity(cores, memoryMb);
+    }
+
+    /**
+     * Resize the node; steps already running keep what they hold
+     */
+    public void setCapacity(int cores, long memoryMb) {
+        if (cores <= 0 || memoryMb <= 0) {
+            throw new IllegalArgumentException("Node capacity must be positive");
+        }
+        List<Request> ready;
+        synchronized (this) {
+            this.cores = cores;
+            this.memoryMb = memoryMb;
+            ready = grantWaiting();
+        }
+        start(ready);
+    }
+
+    /**
+     * Let later steps start ahead of a waiting one for at most this long; then it reserves the node
+     */
+    public synchronized void setMaxBackfillWait(Duration maxBackfillWait) {
+        if (maxBackfillWait == null || maxBackfillWait.isNegative()) {
+            throw new IllegalArgumentException("Max backfill wait cannot be null or negative");
+        }
+        this.maxBackfillWaitNanos = maxBackfillWait.toNanos();
+    }
+
+    public synchronized Duration getMaxBackfillWait() {
+        return Duration.ofNanos(maxBackfillWaitNanos);
+    }
+
+    /**
+     * Run the callback (on this or a releasing thread) once the resources are reserved
+     * @return The request, which can be cancelled while it waits
+     */
+    Request acquire(ResourceHints hints, ExecutionPriority priority, Consumer<Request> onGranted) {
+        Request request;
+        synchronized (this) {
+            request = new Request(hints, priority, seq++, onGranted);
+            waiting.add(request);
+            if (!fits(request) || waiting.first() != request && !fitsBehind(request)) {
+                return request;
+            }
+            waiting.remove(request);
+            grant(request);
+        }
+        request.onGranted.accept(request);
+        return request;
+    }
+
+    /**
+     * Return a granted request's resources and start whatever now fits
+     * Releasing a request more than once has no effect.
+     */
+    void release(Request request) {
+        List<Request> ready;
+        synchronized (this) {
+            if (request.released) {
+                return;
+            }
+            request.released = true;
+            coresInUse -= request.cores;
+            memoryInUse -= request.memoryMb;
+            ready = grantWaiting();
+        }
+        start(ready);
+    }
+
+    /**
+     * Withdraw a waiting request
+     * @return false if it has already been granted
+     */
+    synchronized boolean cancel(Request request) {
+        return waiting.remove(request);
+    }
+
+    private List<Request> grantWaiting() {
+        List<Request> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Iterator<Request> it = waiting.iterator(); it.hasNext(); ) {
+            Request request = it.next();
+            if (fits(request)) {
+                it.remove();
+                grant(request);
+                ready.add(request);
+            } else if (isStarving(request, now)) {
+                // Let running steps drain until it fits
+                break;
+            }
+        }
+        return ready;
+    }
+
+    private static void start(List<Request> ready) {
+        for (Request request : ready) {
+            request.onGranted.accept(request);
+        }
+    }
+
+    /**
+     * A new request that fits may start ahead of earlier ones only if those do not
+     * fit anyway and none of them has waited past the backfill limit
+     */
+    private boolean fitsBehind(Request request) {
+        long now = System.nanoTime();
+        for (Request earlier : waiting.headSet(request)) {
+            if (fits(earlier) || isStarving(earlier, now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStarving(Request request, long now) {
+        return now - request.queuedAt > maxBackfillWaitNanos;
+    }
+
+    private boolean fits(Request request) {
+        request.cores = Math.min(request.hints.getCores(), cores);
+        request.memoryMb = Math.min(request.hints.getMemoryMb(), memoryMb);
+        return request.cores <= cores - coresInUse && request.memoryMb <= memoryMb - memoryInUse;
+    }
+
+    private void grant(Request request) {
+        coresInUse += request.cores;
+        memoryInUse += request.memoryMb;
+        granted++;
+        totalWaitNanos += System.nanoTime() - request.queuedAt;
+    }
+
+    public synchronized int getCores() {
+        return cores;
+    }
+
+    public synchronized long getMemoryMb() {
+        return memoryMb;
+    }
+
+    public synchronized int getCoresInUse() {
+        return coresInUse;
+    }
+
+    public synchronized long getMemoryInUse() {
+        return memoryInUse;
+    }
+
+    /**
+     * Steps waiting for cores or memory
+     */
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized long getGrantedCount() {
+        return granted;
+    }
+
+    /**
+     * Mean time steps waited for their resources, in milliseconds
+     */
+    public synchronized double getMeanWaitMillis() {
+        return granted == 0 ? 0 : totalWaitNanos / 1e6 / granted;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResourcePool{" +
+                "cores=" + coresInUse + "/" + cores +
+                ", memoryMb=" + memoryInUse + "/" + memoryMb +
+                ", waiting=" + waiting.size() +
+                '}';
+    }
+
+    /**
+     * A step's claim on the pool; holds what was actually reserved once granted
+     */
+    static final class Request {
+        final ResourceHints hints;
+        final ExecutionPriority priority;
+        final long seq;
+        final Consumer<Request> onGranted;
+        final long queuedAt = System.nanoTime();
+        int cores;
+        long memoryMb;
+        boolean released;
+
+        Request(ResourceHints hints, ExecutionPriority priority, long seq, Consumer<Request> onGranted) {
+            this.hints = hints;
+            this.priority = priority;
+            this.seq = seq;
+            this.onGranted = onGranted;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+// FILE: src/main/java/com/weave/workflow/ScatterGatherStep.java
+
+package com.weave.workflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Step that fans a sub-pipeline out over the items of a collection
+ * The collection (samples, chromosomes, file chunks) is split into shards;
+ * each shard runs the sub-pipeline with its own context, whose inputs are
+ * the parent's inputs and outputs plus the shard under the item key and its
+ * index under "shard_index". At most maxConcurrency shards run at once, on
+ * the engine's step pool. When all have finished, their outputs are merged
+ * into the parent context: by default every output key becomes a list with
+ * one value per shard, in shard order.
+ *
+ * If a shard fails no further shards start, and the step fails with the
+ * first shard's error once the running ones have finished. If the step is
+ * interrupted (timeout or cancellation) its running shards are cancelled.
+ */
+public class ScatterGatherStep implements PipelineStep {
+    public static final String SHARD_INDEX_KEY = "shard_index";
+
+    private final String name;
+    private final String description;
+    private final String sourceKey;
+    private final Function<ExecutionContext, ? extends Collection<?>> splitter;
+    private final String itemKey;
+    private final int shardSize;
+    private final int maxConcurrency;
+    private final Pipeline pipeline;
+    private final ShardGatherer gatherer;
+    private final Set<String> consumedKeys;
+    private final Set<String> producedKeys;
+
+    private ScatterGatherStep(Builder builder) {
+        this.name = builder.name;
+        this.description = builder.description;
+        this.sourceKey = builder.sourceKey;
+        this.splitter = builder.splitter;
+        this.itemKey = builder.itemKey;
+        this.shardSize = builder.shardSize;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.pipeline = builder.pipeline;
+        this.gatherer = builder.gatherer;
+        Set<String> consumed = new LinkedHashSet<>(builder.consumedKeys);
+        if (sourceKey != null) {
+            consumed.add(sourceKey);
+        }
+        this.consumedKeys = Collections.unmodifiableSet(consumed);
+        this.producedKeys = Collections.unmodifiableSet(new LinkedHashSet<>(builder.producedKeys));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Set<String> getConsumedKeys() {
+        return consumedKeys;
+    }
+
+    @Override
+    public Set<String> getProducedKeys() {
+        return producedKeys;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void execute(ExecutionContext context) throws Exception {
+        PipelineRun parent = context.getRun();
+        if (parent == null) {
+            throw new IllegalStateException("Scatter/gather step '" + name + "' must run in a WorkflowEngine");
+        }
+        List<Object> shards = split(context);
+        PipelineGraph graph = PipelineGraph.of(pipeline);
+        Map<String, Object> base = context.getInputs();
+        base.putAll(context.getOutputs());
+
+        System.out.println("  Scattering " + name + " over " + shards.size() + " shards (max " + maxConcurrency + " at once)");
+        List<Map<String, Object>> outputs = new ArrayList<>(Collections.nCopies(shards.size(), null));
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<ShardFailure> failure = new AtomicReference<>();
+        Set<PipelineRun> running = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(maxConcurrency, shards.size())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = runLane(parent, graph, base, shards, outputs, next, failure, running);
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(lanes);
+        try {
+            all.get();
+        } catch (InterruptedException e) {
+            // Timed out or cancelled: stop launching shards and cancel the running ones
+            next.set(shards.size());
+            for (PipelineRun run : running) {
+                run.cancel();
+            }
+            throw e;
+        }
+
+        ShardFailure failed = failure.get();
+        if (failed != null) {
+            throw new ExecutionException("Shard " + failed.shard + " of '" + name + "' failed at step '"
+                    + failed.cause.step + "': " + failed.cause.error.getMessage(), failed.cause.error);
+        }
+        if (gatherer != null) {
+            gatherer.gather(outputs, context);
+        } else {
+            gatherLists(outputs, context);
+        }
+    }
+
+    /**
+     * Run shards one after another, taking the next unstarted one each time, until none are left
+     * The next shard starts from the step pool, so runs that complete while starting
+     * (such as on an engine that is shutting down) cannot recurse down the caller's stack.
+     */
+    private CompletableFuture<Void> runLane(PipelineRun parent, PipelineGraph graph, Map<String, Object> base,
+                                            List<Object> shards, List<Map<String, Object>> outputs,
+                                            AtomicInteger next, AtomicReference<ShardFailure> failure,
+                                            Set<PipelineRun> running) {
+        int shard = next.getAndIncrement();
+        if (shard >= shards.size() || failure.get() != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Map<String, Object> inputs = new LinkedHashMap<>(base);
+        inputs.put(itemKey, shards.get(shard));
+        inputs.put(SHARD_INDEX_KEY, shard);
+        ExecutionContext shardContext = new ExecutionContext(inputs);
+        shardContext.setMetadata(SHARD_INDEX_KEY, shard);
+        PipelineRun run = parent.child(name + "[" + shard + "]", graph, shardContext);
+        running.add(run);
+        return run.start()
+                .thenComposeAsync(stepFailure -> {
+                    running.remove(run);
+                    if (stepFailure != null) {
+                        failure.compareAndSet(null, new ShardFailure(shard, stepFailure));
+                    } else {
+                        synchronized (outputs) {
+                            outputs.set(shard, shardContext.getOutputs());
+                        }
+                    }
+                    return runLane(parent, graph, base, shards, outputs, next, failure, running);
+                }, parent.getExecutor());
+    }
+
+    private List<Object> split(ExecutionContext context) {
+        Collection<?> items;
+        if (splitter != null) {
+            items = splitter.apply(context);
+        } else {
+            Object source = context.hasOutput(sourceKey) ? context.getOutput(sourceKey) : context.getInput(sourceKey);
+            if (source instanceof Collection) {
+                items = (Collection<?>) source;
+            } else if (source instanceof Object[]) {
+                items = Arrays.asList((Object[]) source);
+            } else if (source == null) {
+                throw new IllegalArgumentException("Scatter input '" + sourceKey + "' is missing");
+            } else {
+                throw new IllegalArgumentException("Scatter input '" + sourceKey + "' is not a collection: "
+                        + source.getClass().getName());
+            }
+        }
+        List<Object> list = new ArrayList<>(items);
+        if (shardSize == 1) {
+            return list;
+        }
+        List<Object> shards = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += shardSize) {
+            shards.add(new ArrayList<>(list.subList(from, Math.min(list.size(), from + shardSize))));
+        }
+        return shards;
+    }
+
+    /**
+     * Set every key any shard produced to the list of per-shard values (null where a shard did not set it)
+     */
+    private static void gatherLists(List<Map<String, Object>> outputs, ExecutionContext context) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Map<String, Object> shardOutputs : outputs) {
+            keys.addAll(shardOutputs.keySet());
+        }
+        for (String key : keys) {
+            List<Object> values = new ArrayList<>(outputs.size());
+            for (Map<String, Object> shardOutputs : outputs) {
+                values.add(shardOutputs.get(key));
+            }
+            context.setOutput(key, values);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterGatherStep{" +
+                "name='" + name + '\'' +
+                ", source=" + (sourceKey != null ? sourceKey : "custom") +
+                ", shardSize=" + shardSize +
+                ", maxConcurrency=" + maxConcurrency +
+                ", steps=" + pipeline.getStepCount() +
+                '}';
+    }
+
+    private static final class ShardFailure {
+        final int shard;
+        final PipelineRun.Failure cause;
+
+        ShardFailure(int shard, PipelineRun.Failure cause) {
+            this.shard = shard;
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * Builder for scatter/gather steps
+     */
+    public static class Builder {
+        private String name;
+        private String description = "";
+        private String sourceKey;
+        private Function<ExecutionContext, ? extends Collection<?>> splitter;
+        private String itemKey = "shard";
+        private int shardSize = 1;
+        private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+        private Pipeline pipeline;
+        private ShardGatherer gatherer;
+        private final Set<String> consumedKeys = new LinkedHashSet<>();
+        private final Set<String> producedKeys = new LinkedHashSet<>();
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Fan out over the collection or array stored under this input or output key
+         */
+        public Builder scatter(String key) {
+            this.sourceKey = key;
+            this.splitter = null;
+            return this;
+        }
+
+        /**
+         * Fan out over items computed from the context, e.g. chunks of a file
+         */
+        public Builder scatter(Function<ExecutionContext, ? extends Collection<?>> splitter) {
+            this.splitter = splitter;
+            this.sourceKey = null;
+            return this;
+        }
+
+        /**
+         * Input key under which each shard's sub-pipeline finds its item (or list of items)
+         */
+        public Builder as(String itemKey) {
+            this.itemKey = itemKey;
+            return this;
+        }
+
+        /**
+         * Items per shard; above 1 each shard gets a list
+         */
+        public Builder shardSize(int shardSize) {
+            this.shardSize = shardSize;
+            return this;
+        }
+
+        /**
+         * Shards running at once; defaults to the number of cores
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Steps each shard runs
+         */
+        public Builder pipeline(Pipeline pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        /**
+         * Merge shard outputs with this instead of collecting each key into a list
+         */
+        public Builder gather(ShardGatherer gatherer) {
+            this.gatherer = gatherer;
+            return this;
+        }
+
+        /**
+         * Further keys the sub-pipeline reads from the parent context, for step ordering
+         */
+        public Builder consumes(String... keys) {
+            consumedKeys.addAll(Arrays.asList(keys));
+            return this;
+        }
+
+        /**
+         * Keys the gathered outputs are stored under, for step ordering
+         */
+        public Builder produces(String... keys) {
+            producedKeys.addAll(Arrays.asList(keys));
+            return this;
+        }
+
+        public ScatterGatherStep build() {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Step name cannot be null or empty");
+            }
+            if (sourceKey == null && splitter == null) {
+                throw new IllegalArgumentException("Scatter source is required");
+            }
+            if (pipeline == null) {
+                throw new IllegalArgumentException("Shard pipeline is required");
+            }
+            if (pipeline.getStepCount() == 0) {
+                throw new IllegalArgumentException("Shard pipeline must have at least one step");
+            }
+            if (itemKey == null || itemKey.isEmpty()) {
+                throw new IllegalArgumentException("Item key cannot be null or empty");
+            }
+            if (shardSize <= 0 || maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Shard size and max concurrency must be positive");
+            }
+            PipelineGraph.of(pipeline);
+            return new ScatterGatherStep(this);
+        }
+    }
+}
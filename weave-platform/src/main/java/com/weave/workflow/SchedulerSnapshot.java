@@ -0,0 +1,147 @@
+// FILE: src/main/java/com/weave/workflow/SchedulerSnapshot.java
+
+package com.weave.workflow;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time view of a WorkflowEngine's scheduler and node resources
+ * Dispatch counts and queue waits are totals since the engine started.
+ */
+public final class SchedulerSnapshot {
+    private final long timestamp;
+    private final int queuedExecutions;
+    private final int runningExecutions;
+    private final Map<ExecutionPriority, Integer> queuedByPriority;
+    private final Map<String, Integer> queuedByOwner;
+    private final Map<String, Integer> runningByType;
+    private final Map<ExecutionPriority, Long> dispatchedByPriority;
+    private final Map<String, Long> dispatchedByOwner;
+    private final Map<ExecutionPriority, Double> meanQueueWaitMillis;
+    private final long rejectedExecutions;
+    private final int cores;
+    private final int coresInUse;
+    private final long memoryMb;
+    private final long memoryInUse;
+    private final int stepsWaitingForResources;
+    private final double meanResourceWaitMillis;
+
+    SchedulerSnapshot(long timestamp, int queuedExecutions, int runningExecutions,
+                      Map<ExecutionPriority, Integer> queuedByPriority, Map<String, Integer> queuedByOwner,
+                      Map<String, Integer> runningByType, Map<ExecutionPriority, Long> dispatchedByPriority,
+                      Map<String, Long> dispatchedByOwner, Map<ExecutionPriority, Double> meanQueueWaitMillis,
+                      long rejectedExecutions, ResourcePool resources) {
+        this.timestamp = timestamp;
+        this.queuedExecutions = queuedExecutions;
+        this.runningExecutions = runningExecutions;
+        this.queuedByPriority = Collections.unmodifiableMap(queuedByPriority);
+        this.queuedByOwner = Collections.unmodifiableMap(queuedByOwner);
+        this.runningByType = Collections.unmodifiableMap(runningByType);
+        this.dispatchedByPriority = Collections.unmodifiableMap(dispatchedByPriority);
+        this.dispatchedByOwner = Collections.unmodifiableMap(dispatchedByOwner);
+        this.meanQueueWaitMillis = Collections.unmodifiableMap(meanQueueWaitMillis);
+        this.rejectedExecutions = rejectedExecutions;
+        synchronized (resources) {
+            this.cores = resources.getCores();
+            this.coresInUse = resources.getCoresInUse();
+            this.memoryMb = resources.getMemoryMb();
+            this.memoryInUse = resources.getMemoryInUse();
+            this.stepsWaitingForResources = resources.getWaitingCount();
+            this.meanResourceWaitMillis = resources.getMeanWaitMillis();
+        }
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getQueuedExecutions() {
+        return queuedExecutions;
+    }
+
+    public int getRunningExecutions() {
+        return runningExecutions;
+    }
+
+    public Map<ExecutionPriority, Integer> getQueuedByPriority() {
+        return queuedByPriority;
+    }
+
+    public Map<String, Integer> getQueuedByOwner() {
+        return queuedByOwner;
+    }
+
+    /**
+     * Get the running executions per pipeline type
+     */
+    public Map<String, Integer> getRunningByType() {
+        return runningByType;
+    }
+
+    public Map<ExecutionPriority, Long> getDispatchedByPriority() {
+        return dispatchedByPriority;
+    }
+
+    /**
+     * Get the executions started per owner, i.e. each owner's share so far
+     */
+    public Map<String, Long> getDispatchedByOwner() {
+        return dispatchedByOwner;
+    }
+
+    /**
+     * Get the mean time executions of each class waited in the queue, in milliseconds
+     */
+    public Map<ExecutionPriority, Double> getMeanQueueWaitMillis() {
+        return meanQueueWaitMillis;
+    }
+
+    /**
+     * Get the submissions rejected because the queue was full
+     */
+    public long getRejectedExecutions() {
+        return rejectedExecutions;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public int getCoresInUse() {
+        return coresInUse;
+    }
+
+    /**
+     * Get the node's memory in MB, Long.MAX_VALUE if it is not limited
+     */
+    public long getMemoryMb() {
+        return memoryMb;
+    }
+
+    public long getMemoryInUse() {
+        return memoryInUse;
+    }
+
+    public int getStepsWaitingForResources() {
+        return stepsWaitingForResources;
+    }
+
+    public double getMeanResourceWaitMillis() {
+        return meanResourceWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerSnapshot{" +
+                "queued=" + queuedByPriority +
+                ", running=" + runningExecutions + " " + runningByType +
+                ", dispatched=" + dispatchedByOwner +
+                ", meanQueueWaitMs=" + meanQueueWaitMillis +
+                ", rejected=" + rejectedExecutions +
+                ", cores=" + coresInUse + "/" + cores +
+                ", memoryMb=" + memoryInUse + "/" + (memoryMb == Long.MAX_VALUE ? "unlimited" : memoryMb) +
+                ", stepsWaiting=" + stepsWaitingForResources +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+// FILE: src/main/java/com/weave/workflow/ShardGatherer.java
+
+package com.weave.workflow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the outputs of a ScatterGatherStep's shards into the parent context
+ */
+@FunctionalInterface
+public interface ShardGatherer {
+    /**
+     * @param shardOutputs Outputs of each shard's sub-pipeline, in shard order
+     * @param context The context of the pipeline the scatter/gather step belongs to
+     */
+    void gather(List<Map<String, Object>> shardOutputs, ExecutionContext context) throws Exception;
+}
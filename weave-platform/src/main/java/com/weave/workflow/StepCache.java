@@ -0,0 +1,316 @@
+// FILE: src/main/java/com/weave/workflow/StepCache.java
+
+package com.weave.workflow;
+
+import com.weave.core.Message;
+import com.weave.core.MessageCodec;
+import com.weave.core.StringTable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-disk cache of step outputs, addressed by what the step was run with
+ * A step's key is the SHA-256 of its name, version, configuration and the
+ * values of the keys it consumes, so a step is only skipped when none of
+ * these changed. Only the step's produced keys are stored, one file per entry,
+ * encoded with MessageCodec: values should be strings, numbers, booleans,
+ * lists or maps (anything else comes back as its toString()).
+ *
+ * Entries are evicted least recently used first once the directory grows
+ * past maxBytes. Inputs are hashed by value, so a step reading a file by
+ * path should put something that changes with the file (size, modification
+ * time, checksum) in its configuration.
+ */
+public final class StepCache {
+    private static final String SUFFIX = ".out";
+
+    private final Path directory;
+    private final long maxBytes;
+    // Key to entry size, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long sizeBytes;
+
+    private StepCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Open (or create) a cache directory, picking up entries left by earlier runs
+     * @param maxBytes Size above which least recently used entries are evicted
+     */
+    public static StepCache open(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        Files.createDirectories(directory);
+        StepCache cache = new StepCache(directory, maxBytes);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Oldest first, so the access order matches last use across restarts
+        files.sort(Comparator.comparing(StepCache::lastModified));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            cache.entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+            cache.sizeBytes += size;
+        }
+        cache.evict();
+        return cache;
+    }
+
+    /**
+     * Whether the engine consults the cache for a step
+     * Only steps that opt in and declare what they produce can be cached
+     */
+    static boolean isCacheable(PipelineStep step) {
+        return step.isCacheable() && !step.getProducedKeys().isEmpty();
+    }
+
+    /**
+     * Compute a step's cache key for the current context
+     * Consumed keys are looked up among outputs first, then inputs
+     */
+    public static String keyOf(PipelineStep step, ExecutionContext context) {
+        MessageDigest digest = sha256();
+        update(digest, step.getName());
+        update(digest, step.getVersion());
+        update(digest, step.getConfiguration());
+        TreeMap<String, Object> consumed = new TreeMap<>();
+        for (String key : step.getConsumedKeys()) {
+            consumed.put(key, context.hasOutput(key) ? context.getOutput(key) : context.getInput(key));
+        }
+        update(digest, consumed);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Feed a value to the digest with a type tag, so "1" and 1 hash differently
+     * Maps are walked in key order, so equal maps hash alike however they were built
+     */
+    private static void update(MessageDigest digest, Object value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else if (value instanceof Map) {
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            digest.update((byte) 'm');
+            updateLength(digest, sorted.size());
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                update(digest, entry.getKey());
+                update(digest, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            digest.update((byte) 'l');
+            updateLength(digest, values.size());
+            for (Object element : values) {
+                update(digest, element);
+            }
+        } else if (value instanceof Object[]) {
+            update(digest, Arrays.asList((Object[]) value));
+        } else {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            digest.update(value instanceof String ? (byte) 's' : value instanceof Number ? (byte) 'n' : (byte) 'o');
+            updateLength(digest, bytes.length);
+            digest.update(bytes);
+        }
+    }
+
+    private static void updateLength(MessageDigest digest, int length) {
+        digest.update(new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+    }
+
+    /**
+     * Get the outputs stored under a key
+     * @return The outputs, or null if nothing is cached (or the entry is unreadable)
+     */
+    public Map<String, Object> get(String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses.increment();
+                return null;
+            }
+        }
+        Path file = fileOf(key);
+        try {
+            Message stored = new MessageCodec(new StringTable(0)).decode(Files.readAllBytes(file));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.increment();
+            return new LinkedHashMap<>(stored.getPayload());
+        } catch (NoSuchFileException e) {
+            // Evicted since the lookup
+            misses.increment();
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Discarding unreadable step cache entry " + key + ": " + e.getMessage());
+            remove(key);
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Store outputs under a key, evicting old entries if the cache is over size
+     * Written to a temporary file and moved into place, so readers never see a partial entry
+     */
+    public void put(String key, Map<String, Object> outputs) throws IOException {
+        byte[] bytes = new MessageCodec(new StringTable(0)).toBytes(new Message("step_outputs", outputs));
+        Path file = fileOf(key);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        synchronized (this) {
+            Long previous = entries.put(key, (long) bytes.length);
+            sizeBytes += bytes.length - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    /**
+     * Store a step's produced outputs from the context under its key
+     */
+    void put(String key, PipelineStep step, ExecutionContext context) throws IOException {
+        Map<String, Object> outputs = new LinkedHashMap<>();
+        for (String produced : step.getProducedKeys()) {
+            if (context.hasOutput(produced)) {
+                outputs.put(produced, context.getOutput(produced));
+            }
+        }
+        put(key, outputs);
+    }
+
+    /**
+     * Remove one entry
+     */
+    public synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            sizeBytes -= size;
+            delete(fileOf(key));
+        }
+    }
+
+    /**
+     * Remove every entry
+     */
+    public synchronized void clear() {
+        for (String key : entries.keySet()) {
+            delete(fileOf(key));
+        }
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    /**
+     * Drop least recently used entries until the cache fits; keeps the newest even if it alone is too big
+     * Called with the lock held
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && entries.size() > 1) {
+            Map.Entry<String, Long> entry = eldest.next();
+            sizeBytes -= entry.getValue();
+            delete(fileOf(entry.getKey()));
+            eldest.remove();
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete step cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StepCache{" +
+                "directory=" + directory +
+                ", entries=" + getEntryCount() +
+                ", sizeBytes=" + getSizeBytes() +
+                ", maxBytes=" + maxBytes +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                '}';
+    }
+}
@@ -0,0 +1,175 @@
+// FILE: src/main/java/com/weave/workflow/StepPolicy.java
+
+package com.weave.workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timeout and retry policy for pipeline steps
+ * A step that runs past its timeout is interrupted and fails with a
+ * TimeoutException; the run does not wait for it to return. A failed
+ * attempt whose exception is one of the retryable types is tried again
+ * after an exponentially growing backoff, up to maxRetries times. Backoff
+ * waits on the engine's timer, not on a pool thread.
+ */
+public class StepPolicy {
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final double backoffMultiplier;
+    private final Duration maxBackoff;
+    private final List<Class<? extends Exception>> retryOn;
+
+    private StepPolicy(Builder builder) {
+        this.timeout = builder.timeout;
+        this.maxRetries = builder.maxRetries;
+        this.initialBackoff = builder.initialBackoff;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.maxBackoff = builder.maxBackoff;
+        this.retryOn = Collections.unmodifiableList(new ArrayList<>(builder.retryOn));
+    }
+
+    /**
+     * No timeout and no retries
+     */
+    public static StepPolicy defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * Get the timeout of one attempt, or null if attempts may run indefinitely
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public List<Class<? extends Exception>> getRetryOn() {
+        return retryOn;
+    }
+
+    /**
+     * Whether an attempt that failed with this error should be retried
+     * @param retriesSoFar Retries already made
+     */
+    public boolean shouldRetry(Exception error, int retriesSoFar) {
+        if (retriesSoFar >= maxRetries) {
+            return false;
+        }
+        for (Class<? extends Exception> type : retryOn) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the wait before a retry: initialBackoff * multiplier^retriesSoFar, capped at maxBackoff
+     */
+    public long getBackoffMillis(int retriesSoFar) {
+        double backoff = initialBackoff.toMillis() * Math.pow(backoffMultiplier, retriesSoFar);
+        return (long) Math.min(backoff, maxBackoff.toMillis());
+    }
+
+    @Override
+    public String toString() {
+        return "StepPolicy{" +
+                "timeout=" + timeout +
+                ", maxRetries=" + maxRetries +
+                ", initialBackoff=" + initialBackoff +
+                ", backoffMultiplier=" + backoffMultiplier +
+                ", maxBackoff=" + maxBackoff +
+                '}';
+    }
+
+    /**
+     * Builder for step policies
+     */
+    public static class Builder {
+        private Duration timeout;
+        private int maxRetries = 0;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private double backoffMultiplier = 2.0;
+        private Duration maxBackoff = Duration.ofMinutes(1);
+        private List<Class<? extends Exception>> retryOn = Collections.singletonList(Exception.class);
+
+        /**
+         * Fail an attempt that takes longer than this; null for no limit
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Retry only failures of these types (and their subtypes); any exception by default
+         */
+        @SafeVarargs // Only read into a new list, never stored
+        public final Builder retryOn(Class<? extends Exception>... types) {
+            if (types == null) {
+                throw new IllegalArgumentException("Retryable exception types cannot be null");
+            }
+            List<Class<? extends Exception>> copy = new ArrayList<>(types.length);
+            for (Class<? extends Exception> type : types) {
+                if (type == null) {
+                    throw new IllegalArgumentException("Retryable exception type cannot be null");
+                }
+                copy.add(type);
+            }
+            this.retryOn = copy;
+            return this;
+        }
+
+        public StepPolicy build() {
+            if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries cannot be negative");
+            }
+            if (initialBackoff.isNegative() || maxBackoff.isNegative() || backoffMultiplier < 1.0) {
+                throw new IllegalArgumentException("Backoff must be non-negative and must not shrink");
+            }
+            return new StepPolicy(this);
+        }
+    }
+}
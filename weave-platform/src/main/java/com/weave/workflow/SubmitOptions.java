@@ -0,0 +1,73 @@
+// FILE: src/main/java/com/weave/workflow/SubmitOptions.java
+
+package com.weave.workflow;
+
+/**
+ * How an asynchronous execution is scheduled: its priority class and the
+ * user or project whose fair share it counts against
+ */
+public class SubmitOptions {
+    public static final String DEFAULT_OWNER = "default";
+
+    private final ExecutionPriority priority;
+    private final String owner;
+
+    private SubmitOptions(Builder builder) {
+        this.priority = builder.priority;
+        this.owner = builder.owner;
+    }
+
+    /**
+     * Normal priority, default owner
+     */
+    public static SubmitOptions defaults() {
+        return new Builder().build();
+    }
+
+    public ExecutionPriority getPriority() {
+        return priority;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        return "SubmitOptions{" +
+                "priority=" + priority +
+                ", owner='" + owner + '\'' +
+                '}';
+    }
+
+    /**
+     * Builder for submit options
+     */
+    public static class Builder {
+        private ExecutionPriority priority = ExecutionPriority.NORMAL;
+        private String owner = DEFAULT_OWNER;
+
+        public Builder priority(ExecutionPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * User or project the execution is billed to for fair sharing
+         */
+        public Builder owner(String owner) {
+            this.owner = owner;
+            return this;
+        }
+
+        public SubmitOptions build() {
+            if (priority == null) {
+                throw new IllegalArgumentException("Priority cannot be null");
+            }
+            if (owner == null || owner.isEmpty()) {
+                throw new IllegalArgumentException("Owner cannot be null or empty");
+            }
+            return new SubmitOptions(this);
+        }
+    }
+}
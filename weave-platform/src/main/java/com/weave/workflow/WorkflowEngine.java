@@ -2,27 +2,78 @@
 
 package com.weave.workflow;
 
+import com.weave.core.WeaveExecutors;
 import com.weave.core.WeaveMessageBus;
 import com.weave.core.Message;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.*;
 
 /**
  * Workflow Engine - Executes multi-step pipelines
  * Similar to TIBCO BusinessWorks
+ *
+ * Pipelines run as dependency graphs (PipelineGraph): independent steps run
+ * in parallel on a shared work-stealing pool, and every run reports its
+ * critical path. With a StepCache set, cacheable steps whose inputs have
+ * not changed since an earlier run are skipped and their outputs reused.
+ * With a CheckpointStore set, every execution is checkpointed after each
+ * step and a failed one can be resumed by id. Steps run under a StepPolicy
+ * (timeout, retries with backoff). Asynchronous executions return an
+ * ExecutionFuture that can be cancelled; the engine bounds how many may
+ * queue and how long finished ones are kept. Queued executions are started
+ * by an ExecutionScheduler (priority classes, fair share between owners,
+ * limits per pipeline type), and steps that declare ResourceHints are packed
+ * onto the node's cores and memory by a ResourcePool.
  */
 public class WorkflowEngine {
     private final WeaveMessageBus messageBus;
     private final Map<String, Pipeline> pipelines;
     private final ExecutorService executorService;
-    private final Map<String, Future<ExecutionResult>> runningExecutions;
+    private final ExecutorService stepExecutor;
+    private final ScheduledExecutorService stepTimer;
+    private final ExecutionRegistry executions;
+    private final ExecutionScheduler scheduler;
+    private final ResourcePool resourcePool;
+    private volatile StepCache stepCache;
+    private volatile CheckpointStore checkpointStore;
+    private volatile StepPolicy defaultStepPolicy = StepPolicy.defaults();
     
     public WorkflowEngine(WeaveMessageBus messageBus) {
+        // Steps mostly wait on external tools, so run more of them than there are cores
+        this(messageBus, Math.max(8, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    /**
+     * @param stepParallelism Number of steps that may run at once across all executions
+     */
+    public WorkflowEngine(WeaveMessageBus messageBus, int stepParallelism) {
+        if (stepParallelism <= 0) {
+            throw new IllegalArgumentException("Step parallelism must be positive");
+        }
         this.messageBus = messageBus;
         this.pipelines = new ConcurrentHashMap<>();
-        this.executorService = Executors.newFixedThreadPool(5);
-        this.runningExecutions = new ConcurrentHashMap<>();
+        this.executorService = WeaveExecutors.newExecutor("weave-workflow", 5);
+        this.scheduler = new ExecutionScheduler(executorService, 5);
+        // Memory is not limited until the node's is set
+        this.resourcePool = new ResourcePool(Runtime.getRuntime().availableProcessors(), Long.MAX_VALUE);
+        this.stepExecutor = WeaveExecutors.newWorkStealingExecutor("weave-step", stepParallelism);
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "weave-step-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Steps that finish in time cancel their timeouts; don't keep them queued
+        timer.setRemoveOnCancelPolicy(true);
+        this.stepTimer = timer;
+        this.executions = new ExecutionRegistry(Duration.ofMinutes(10), 1000);
+        // Completions evict too; this catches results that expire while the engine is idle
+        timer.scheduleAtFixedRate(executions::evict, 1, 1, TimeUnit.SECONDS);
     }
     
     /**
@@ -35,6 +86,8 @@ public class WorkflowEngine {
         if (pipeline == null) {
             throw new IllegalArgumentException("Pipeline cannot be null");
         }
+        // Reject cycles and unknown dependencies now rather than on first run
+        PipelineGraph.of(pipeline);
         
         pipelines.put(name, pipeline);
         System.out.println("Registered pipeline: " + name + " with " + pipeline.getSteps().size() + " steps");
@@ -57,64 +110,111 @@ public class WorkflowEngine {
     
     /**
      * Execute a pipeline synchronously
+     * Steps run on the engine's work-stealing pool as soon as their
+     * dependencies complete, so independent branches overlap. The result's
+     * metadata holds the execution id, each step's duration and the run's
+     * critical path.
      */
     public ExecutionResult execute(String pipelineName, Map<String, Object> inputs) {
+        return execute(UUID.randomUUID().toString(), pipelineName, inputs, ExecutionPriority.NORMAL);
+    }
+    
+    private ExecutionResult execute(String executionId, String pipelineName, Map<String, Object> inputs,
+                                    ExecutionPriority priority) {
+        ExecutionContext context = new ExecutionContext(inputs);
+        context.setMetadata("pipeline_name", pipelineName);
+        return run(executionId, pipelineName, context, Collections.emptyList(), priority);
+    }
+    
+    /**
+     * Resume a failed or interrupted execution from its checkpoint
+     * Steps that completed before are not run again; their outputs come from
+     * the checkpoint. Steps are matched by name against the pipeline as it
+     * is registered now.
+     */
+    public ExecutionResult resume(String executionId) {
+        CheckpointStore store = checkpointStore;
+        if (store == null) {
+            return new ExecutionResult(false, "Checkpointing is not enabled", null);
+        }
+        Checkpoint checkpoint;
+        try {
+            checkpoint = store.load(executionId);
+        } catch (IOException | IllegalArgumentException e) {
+            return new ExecutionResult(false, "Failed to load checkpoint of execution " + executionId + ": "
+                    + e.getMessage(), e);
+        }
+        if (checkpoint == null) {
+            return new ExecutionResult(false, "No checkpoint for execution: " + executionId, null);
+        }
+        System.out.println("Resuming execution " + executionId + " of " + checkpoint.getPipelineName()
+                + " after " + checkpoint.getCompletedSteps().size() + " completed steps");
+        ExecutionContext context = checkpoint.toContext();
+        context.setMetadata("resumed_at", System.currentTimeMillis());
+        ExecutionResult result = run(executionId, checkpoint.getPipelineName(), context, checkpoint.getCompletedSteps(),
+                ExecutionPriority.NORMAL);
+        result.addMetadata("resumed_steps", checkpoint.getCompletedSteps());
+        return result;
+    }
+    
+    private ExecutionResult run(String executionId, String pipelineName, ExecutionContext context,
+                                List<String> completedSteps, ExecutionPriority priority) {
         Pipeline pipeline = pipelines.get(pipelineName);
         if (pipeline == null) {
             return new ExecutionResult(false, "Pipeline not found: " + pipelineName, null);
         }
+        PipelineGraph graph;
+        try {
+            graph = PipelineGraph.of(pipeline);
+        } catch (IllegalArgumentException e) {
+            return new ExecutionResult(false, "Invalid pipeline " + pipelineName + ": " + e.getMessage(), e);
+        }
         
         System.out.println("Executing pipeline: " + pipelineName);
         
-        // Create execution context
-        ExecutionContext context = new ExecutionContext(inputs);
-        context.setMetadata("pipeline_name", pipelineName);
+        context.setMetadata("execution_id", executionId);
         context.setMetadata("start_time", System.currentTimeMillis());
         
         // Publish start event
-        messageBus.publish("workflow.started", 
+        publishEvent("workflow.started", 
             new Message.Builder()
                 .type("workflow_started")
                 .addPayload("pipeline", pipelineName)
+                .addPayload("execution_id", executionId)
                 .build());
         
-        // Execute each step
-        for (PipelineStep step : pipeline.getSteps()) {
+        PipelineRun run = new PipelineRun(pipelineName, graph, context, this);
+        run.restoreCompleted(completedSteps);
+        run.setPriority(priority);
+        CheckpointStore store = checkpointStore;
+        if (store != null) {
+            run.checkpointTo(store, executionId);
+        }
+        PipelineRun.Failure failure = run.run();
+        PipelineGraph.CriticalPath criticalPath = run.getCriticalPath();
+        if (failure != null) {
+            String message = failure.error instanceof CancellationException
+                    ? "Execution cancelled" : "Failed at step: " + failure.step;
+            ExecutionResult result = new ExecutionResult(false, message, failure.error);
+            addRunMetadata(result, executionId, run, criticalPath);
+            if (store != null) {
+                System.err.println("Execution " + executionId + " can be resumed from its checkpoint");
+            }
+            publishEvent("workflow.failed",
+                new Message.Builder()
+                    .type("workflow_failed")
+                    .addPayload("pipeline", pipelineName)
+                    .addPayload("execution_id", executionId)
+                    .addPayload("step", failure.step)
+                    .addPayload("error", message)
+                    .build());
+            return result;
+        }
+        if (store != null) {
             try {
-                System.out.println("Executing step: " + step.getName());
-                
-                // Publish step start event
-                messageBus.publish("workflow.step.started", 
-                    new Message.Builder()
-                        .type("step_started")
-                        .addPayload("pipeline", pipelineName)
-                        .addPayload("step", step.getName())
-                        .build());
-                
-                // Execute step
-                step.execute(context);
-                
-                // Publish step completed event
-                messageBus.publish("workflow.step.completed", 
-                    new Message.Builder()
-                        .type("step_completed")
-                        .addPayload("pipeline", pipelineName)
-                        .addPayload("step", step.getName())
-                        .build());
-                
-            } catch (Exception e) {
-                System.err.println("Error in step '" + step.getName() + "': " + e.getMessage());
-                
-                // Publish step failed event
-                messageBus.publish("workflow.step.failed", 
-                    new Message.Builder()
-                        .type("step_failed")
-                        .addPayload("pipeline", pipelineName)
-                        .addPayload("step", step.getName())
-                        .addPayload("error", e.getMessage())
-                        .build());
-                
-                return new ExecutionResult(false, "Failed at step: " + step.getName(), e);
+                store.delete(executionId);
+            } catch (IOException e) {
+                System.err.println("Failed to delete checkpoint of execution " + executionId + ": " + e.getMessage());
             }
         }
         
@@ -124,55 +224,246 @@ public class WorkflowEngine {
         context.setMetadata("duration_ms", duration);
         
         // Publish completed event
-        messageBus.publish("workflow.completed", 
+        publishEvent("workflow.completed", 
             new Message.Builder()
                 .type("workflow_completed")
                 .addPayload("pipeline", pipelineName)
+                .addPayload("execution_id", executionId)
                 .addPayload("duration_ms", duration)
                 .build());
         
-        System.out.println("Pipeline completed successfully in " + duration + "ms");
-        return new ExecutionResult(true, "Pipeline completed successfully", context.getOutputs());
+        System.out.println("Pipeline completed successfully in " + duration + "ms (critical path: " + criticalPath + ")");
+        ExecutionResult result = new ExecutionResult(true, "Pipeline completed successfully", context.getOutputs());
+        addRunMetadata(result, executionId, run, criticalPath);
+        return result;
+    }
+    
+    /**
+     * Publish a lifecycle event; a slow or full subscriber must not fail the execution
+     */
+    private void publishEvent(String topic, Message event) {
+        try {
+            messageBus.publish(topic, event);
+        } catch (RuntimeException e) {
+            System.err.println("Unable to publish " + topic + ": " + e.getMessage());
+        }
+    }
+    
+    private static void addRunMetadata(ExecutionResult result, String executionId, PipelineRun run,
+                                       PipelineGraph.CriticalPath criticalPath) {
+        result.addMetadata("execution_id", executionId);
+        result.addMetadata("wall_time_ms", run.getWallTimeMillis());
+        result.addMetadata("step_durations_ms", run.getStepDurations());
+        result.addMetadata("critical_path", criticalPath.getSteps());
+        result.addMetadata("critical_path_ms", criticalPath.getDurationMillis());
+        result.addMetadata("cached_steps", run.getCachedSteps());
+    }
+    
+    /**
+     * Reuse outputs of cacheable steps from this cache; null turns caching off
+     */
+    public void setStepCache(StepCache stepCache) {
+        this.stepCache = stepCache;
+    }
+    
+    public StepCache getStepCache() {
+        return stepCache;
+    }
+    
+    /**
+     * Checkpoint every execution to this store so failed ones can be resumed; null turns checkpointing off
+     * A checkpoint is deleted once its execution completes.
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+    
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+    
+    /**
+     * Set the timeout and retry policy of steps that do not define their own
+     */
+    public void setDefaultStepPolicy(StepPolicy defaultStepPolicy) {
+        if (defaultStepPolicy == null) {
+            throw new IllegalArgumentException("Default step policy cannot be null");
+        }
+        this.defaultStepPolicy = defaultStepPolicy;
+    }
+    
+    public StepPolicy getDefaultStepPolicy() {
+        return defaultStepPolicy;
+    }
+    
+    WeaveMessageBus messageBus() {
+        return messageBus;
+    }
+    
+    ExecutorService stepExecutor() {
+        return stepExecutor;
+    }
+    
+    ScheduledExecutorService stepTimer() {
+        return stepTimer;
+    }
+    
+    /**
+     * Get the scheduler of asynchronous executions, to set share weights and per-type limits
+     */
+    public ExecutionScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Get the pool of node cores and memory that steps with ResourceHints reserve from
+     */
+    public ResourcePool getResourcePool() {
+        return resourcePool;
+    }
+    
+    /**
+     * Set the cores and memory (MB) steps may reserve; by default all cores and unlimited memory
+     */
+    public void setNodeResources(int cores, long memoryMb) {
+        resourcePool.setCapacity(cores, memoryMb);
+    }
+    
+    /**
+     * Get the scheduler's queues, decisions and the node's resource use
+     */
+    public SchedulerSnapshot getSchedulerMetrics() {
+        return scheduler.snapshot(resourcePool);
     }
     
     /**
      * Execute a pipeline asynchronously
+     * @return The execution id; see submit for a future to wait on
+     * @throws RejectedExecutionException if too many executions are queued or the engine is shut down
      */
     public String executeAsync(String pipelineName, Map<String, Object> inputs) {
-        String executionId = java.util.UUID.randomUUID().toString();
-        
-        Future<ExecutionResult> future = executorService.submit(() -> {
-            return execute(pipelineName, inputs);
+        return submit(pipelineName, inputs).getExecutionId();
+    }
+    
+    /**
+     * Execute a pipeline asynchronously at normal priority for the default owner
+     * @see #submit(String, Map, SubmitOptions)
+     */
+    public ExecutionFuture submit(String pipelineName, Map<String, Object> inputs) {
+        return submit(pipelineName, inputs, SubmitOptions.defaults());
+    }
+    
+    /**
+     * Execute a pipeline asynchronously
+     * The execution is queued in its priority class under its owner and
+     * started when the scheduler picks it. The future completes with the
+     * execution's result, failed ones included, whose metadata holds how long
+     * it was queued (queue_wait_ms); cancelling it interrupts the execution.
+     * @throws RejectedExecutionException if maxQueuedExecutions are already waiting
+     *         for a workflow thread, or the engine is shut down
+     */
+    public ExecutionFuture submit(String pipelineName, Map<String, Object> inputs, SubmitOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Submit options cannot be null");
+        }
+        ExecutionFuture future = new ExecutionFuture(UUID.randomUUID().toString(), pipelineName);
+        Pipeline pipeline = pipelines.get(pipelineName);
+        String type = pipeline != null ? pipeline.getType() : null;
+        long submittedAt = System.nanoTime();
+        scheduler.submit(future, options, type, () -> {
+            long queueWait = (System.nanoTime() - submittedAt) / 1_000_000L;
+            try {
+                ExecutionResult result = execute(future.getExecutionId(), pipelineName, inputs, options.getPriority());
+                result.addMetadata("queue_wait_ms", queueWait);
+                result.addMetadata("priority", options.getPriority().name());
+                result.addMetadata("owner", options.getOwner());
+                future.complete(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
         });
-        
-        runningExecutions.put(executionId, future);
-        return executionId;
+        executions.register(future);
+        return future;
+    }
+    
+    /**
+     * Get an asynchronous execution that is running or recently finished
+     * @return The execution, or null if it is unknown or its result has been evicted
+     */
+    public ExecutionFuture getExecution(String executionId) {
+        return executions.get(executionId);
     }
     
     /**
      * Get result of asynchronous execution
      */
     public ExecutionResult getExecutionResult(String executionId) throws InterruptedException, ExecutionException {
-        Future<ExecutionResult> future = runningExecutions.get(executionId);
+        ExecutionFuture future = executions.get(executionId);
         if (future == null) {
             return new ExecutionResult(false, "Execution not found: " + executionId, null);
         }
         
-        if (future.isDone()) {
+        if (future.isCancelled()) {
+            return new ExecutionResult(false, "Execution cancelled", null);
+        } else if (future.isDone()) {
             return future.get();
         } else {
             return new ExecutionResult(false, "Execution still in progress", null);
         }
     }
     
+    /**
+     * Cancel an asynchronous execution
+     * Running steps are interrupted and abandoned, so the execution's pool
+     * thread is freed even if a step ignores the interrupt; no further steps
+     * or retries start. A checkpointed execution can still be resumed later.
+     * @return false if the execution is unknown or already finished
+     */
+    public boolean cancel(String executionId) {
+        ExecutionFuture future = executions.get(executionId);
+        return future != null && future.cancel(true);
+    }
+    
     /**
      * Check if execution is complete
      */
     public boolean isExecutionComplete(String executionId) {
-        Future<ExecutionResult> future = runningExecutions.get(executionId);
+        ExecutionFuture future = executions.get(executionId);
         return future != null && future.isDone();
     }
     
+    /**
+     * Limit the executions waiting for a workflow thread; further submissions are rejected
+     * unless a thread is free for them
+     */
+    public void setMaxQueuedExecutions(int maxQueuedExecutions) {
+        scheduler.setMaxQueuedExecutions(maxQueuedExecutions);
+    }
+    
+    public int getMaxQueuedExecutions() {
+        return scheduler.getMaxQueuedExecutions();
+    }
+    
+    /**
+     * Keep finished asynchronous executions for lookup by id for this long, and at most this many
+     */
+    public void setResultRetention(Duration retention, int maxRetained) {
+        executions.setRetention(retention, maxRetained);
+        executions.evict();
+    }
+    
+    public int getQueuedExecutionCount() {
+        return scheduler.getQueuedCount();
+    }
+    
+    public int getRunningExecutionCount() {
+        return scheduler.getRunningCount();
+    }
+    
+    public int getRetainedExecutionCount() {
+        return executions.getRetainedCount();
+    }
+    
     /**
      * Get all registered pipeline names
      */
@@ -181,16 +472,37 @@ public class WorkflowEngine {
     }
     
     /**
-     * Shutdown the workflow engine
+     * Shutdown the workflow engine, giving running and queued executions up to 60 seconds
      */
     public void shutdown() {
-        executorService.shutdown();
+        shutdown(Duration.ofSeconds(60));
+    }
+    
+    /**
+     * Shutdown the workflow engine
+     * Executions not finished within the timeout are interrupted
+     */
+    public void shutdown(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Shutdown timeout cannot be null or negative");
+        }
+        // Queued executions still run; new ones are rejected
+        scheduler.shutdown();
         try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
+            if (scheduler.awaitIdle(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                executorService.shutdown();
+            } else {
                 executorService.shutdownNow();
             }
         } catch (InterruptedException e) {
             executorService.shutdownNow();
         }
+        // Asynchronous executions have finished, and with them their steps
+        stepExecutor.shutdown();
+        stepTimer.shutdownNow();
+        // Executions dropped from the queue by shutdownNow would otherwise never complete
+        for (ExecutionFuture future : executions.pending()) {
+            future.complete(new ExecutionResult(false, "Workflow engine shut down", null));
+        }
     }
 }
@@ -0,0 +1,267 @@
+// FILE: src/test/java/com/weave/core/BusBridgeTest.java
+
+package com.weave.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusBridgeTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<WeaveMessageBus> buses = new ArrayList<>();
+    private final List<BusBridge> bridges = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (BusBridge bridge : bridges) {
+            bridge.close();
+        }
+        for (WeaveMessageBus bus : buses) {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void deliversInOrderAcrossMesh() throws Exception {
+        BusBridge a = bridge("a");
+        BusBridge b = bridge("b");
+        BusBridge c = bridge("c");
+        int portA = a.listen(0);
+        int portB = b.listen(0);
+        b.connect("localhost", portA);
+        c.connect("localhost", portA);
+        c.connect("localhost", portB);
+        assertTrue(a.awaitConnected(2, TIMEOUT));
+        assertTrue(b.awaitConnected(2, TIMEOUT));
+        assertTrue(c.awaitConnected(2, TIMEOUT));
+
+        List<Integer> atB = record(bus(b), "orders.created");
+        List<Integer> atC = record(bus(c), "orders.created");
+        List<Integer> atA = record(bus(a), "orders.shipped");
+        for (int i = 0; i < 2000; i++) {
+            bus(a).publish("orders.created", message(i));
+            bus(c).publish("orders.shipped", message(i));
+        }
+
+        awaitSize(atB, 2000);
+        awaitSize(atC, 2000);
+        awaitSize(atA, 2000);
+        assertEquals(sequence(2000), atB);
+        assertEquals(sequence(2000), atC);
+        assertEquals(sequence(2000), atA);
+        // Received messages are not forwarded again, so nothing arrives twice
+        Thread.sleep(100);
+        assertEquals(2000, atB.size());
+        assertEquals(2000, a.getReceivedCount());
+        assertEquals(4000, b.getReceivedCount());
+        assertEquals(2000, c.getReceivedCount());
+    }
+
+    @Test
+    void dropsResentBatchesAfterReconnect() throws Exception {
+        BusBridge a = bridge("a");
+        BusBridge b = bridge("b");
+        Relay relay = new Relay(b.listen(0));
+        a.connect("localhost", relay.port);
+        assertTrue(a.awaitConnected(1, TIMEOUT));
+        assertTrue(b.awaitConnected(1, TIMEOUT));
+
+        List<Integer> atB = record(bus(b), "orders.created");
+        relay.dropReplies = true;
+        for (int i = 0; i < 500; i++) {
+            bus(a).publish("orders.created", message(i));
+        }
+        awaitSize(atB, 500);
+        // B published and acknowledged everything, but A heard none of it
+        assertTrue(a.getPendingCount() > 0);
+
+        relay.dropReplies = false;
+        relay.disconnect();
+        awaitTrue(() -> a.getPendingCount() == 0);
+        for (int i = 500; i < 1000; i++) {
+            bus(a).publish("orders.created", message(i));
+        }
+
+        awaitSize(atB, 1000);
+        Thread.sleep(100);
+        assertEquals(sequence(1000), atB);
+        assertTrue(a.getResentCount() > 0);
+        assertTrue(b.getDuplicateCount() > 0);
+        relay.close();
+    }
+
+    @Test
+    void blockedSubscriberStallsOnlyItsPeer() throws Exception {
+        BusBridge a = bridge("a");
+        BusBridge b = bridge("b");
+        BusBridge c = bridge("c");
+        int portA = a.listen(0);
+        b.connect("localhost", portA);
+        c.connect("localhost", portA);
+        assertTrue(a.awaitConnected(2, TIMEOUT));
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bus(a).subscribe("orders.created", message -> {
+                    blocked.countDown();
+                    release.await();
+                },
+                new SubscriptionConfig.Builder()
+                        .mailboxCapacity(1)
+                        .overflow(OverflowStrategy.BLOCK)
+                        .build());
+        List<Integer> fromC = record(bus(a), "orders.shipped");
+        for (int i = 0; i < 100; i++) {
+            bus(b).publish("orders.created", message(i));
+        }
+        assertTrue(blocked.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            bus(c).publish("orders.shipped", message(i));
+        }
+        awaitSize(fromC, 100);
+        assertEquals(sequence(100), fromC);
+        release.countDown();
+        awaitTrue(() -> a.getReceivedCount() == 200);
+    }
+
+    private BusBridge bridge(String nodeId) {
+        WeaveMessageBus bus = new WeaveMessageBus();
+        buses.add(bus);
+        BusBridge bridge = new BusBridge(bus, new BridgeConfig.Builder()
+                .nodeId(nodeId)
+                .forward("orders.>")
+                .maxBatchSize(64)
+                .reconnectDelay(Duration.ofMillis(20))
+                .build());
+        bridges.add(bridge);
+        return bridge;
+    }
+
+    private WeaveMessageBus bus(BusBridge bridge) {
+        return buses.get(bridges.indexOf(bridge));
+    }
+
+    private static List<Integer> record(WeaveMessageBus bus, String topic) {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(topic, message -> received.add(((Number) message.getPayloadValue("n")).intValue()),
+                new SubscriptionConfig.Builder()
+                        .mailboxCapacity(10_000)
+                        .overflow(OverflowStrategy.BLOCK)
+                        .build());
+        return received;
+    }
+
+    private static Message message(int n) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("n", n);
+        return new Message("order", payload);
+    }
+
+    private static List<Integer> sequence(int count) {
+        List<Integer> expected = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expected.add(i);
+        }
+        return expected;
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        awaitTrue(() -> list.size() >= size);
+    }
+
+    private static void awaitTrue(Condition condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.holds()) {
+            assertTrue(System.nanoTime() - deadline < 0, "Timed out waiting for the bridge");
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+
+    /**
+     * TCP relay in front of a bridge that can lose the bridge's replies and cut its connections
+     */
+    private static final class Relay {
+        private final ServerSocket server;
+        private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        final int port;
+        volatile boolean dropReplies;
+
+        Relay(int targetPort) throws IOException {
+            server = new ServerSocket(0);
+            port = server.getLocalPort();
+            Thread acceptor = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try {
+                        Socket client = server.accept();
+                        Socket target = new Socket();
+                        target.connect(new InetSocketAddress("localhost", targetPort));
+                        sockets.add(client);
+                        sockets.add(target);
+                        pipe(client, target, false);
+                        pipe(target, client, true);
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "relay-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private void pipe(Socket from, Socket to, boolean replies) {
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                    int n;
+                    while ((n = in.read(buffer)) >= 0) {
+                        if (!(replies && dropReplies)) {
+                            out.write(buffer, 0, n);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Closed by disconnect()
+                }
+            }, "relay-pipe");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void disconnect() throws IOException {
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+                sockets.clear();
+            }
+        }
+
+        void close() throws IOException {
+            server.close();
+            disconnect();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// FILE: src/test/java/com/weave/integration/APIConnectorTest.java
+
+package com.weave.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.weave.model.DataSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class APIConnectorTest {
+    private HttpServer server;
+    private ExecutorService handlers;
+    private APIConnector connector;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final List<Long> requestTimes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        handlers = Executors.newFixedThreadPool(8);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+        connector = new APIConnector("http://localhost:" + server.getAddress().getPort());
+        connector.connect();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    /**
+     * GET /{behaviour}?ids=a,b,c answers with one row per ID:
+     * "slow" delays early batches longest, "throttled" answers 429 once per ID list, "missing" answers 404
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        synchronized (requestTimes) {
+            requestTimes.add(System.nanoTime());
+        }
+        String behaviour = exchange.getRequestURI().getPath().substring(1);
+        String query = exchange.getRequestURI().getQuery();
+        String[] ids = query.substring("ids=".length()).split(",");
+        int hit = hits.computeIfAbsent(query, key -> new AtomicInteger()).incrementAndGet();
+        try {
+            if ("missing".equals(behaviour)) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+            if ("throttled".equals(behaviour) && hit == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "{}");
+                return;
+            }
+            if ("slow".equals(behaviour)) {
+                // Later batches answer first
+                Thread.sleep(Math.max(0, 200 - 10 * Integer.parseInt(ids[0].substring(2))));
+            }
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < ids.length; i++) {
+                body.append(i > 0 ? "," : "").append("{\"id\":\"").append(ids[i]).append("\"}");
+            }
+            respond(exchange, 200, body.append("]").toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void keepsIdOrderAcrossBatches() throws Exception {
+        List<String> ids = ids(20);
+        DataSet result = connector.batchRead(ids, lookup("slow", 1000).batchSize(2).parallelism(8).build());
+
+        List<Object> returned = new ArrayList<>();
+        for (Map<String, Object> row : result.getRows()) {
+            returned.add(row.get("id"));
+        }
+        assertEquals(new ArrayList<Object>(ids), returned);
+        assertEquals(10, result.getMetadata("batches"));
+    }
+
+    @Test
+    void retriesTooManyRequestsAfterRetryAfter() throws Exception {
+        long start = System.nanoTime();
+        DataSet result = connector.batchRead(ids(2), lookup("throttled", 1000).batchSize(2).build());
+
+        assertEquals(2, result.getRowCount());
+        assertEquals(2, hits.get("ids=id0,id1").get());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(950).toNanos(), "Retry-After was not honoured");
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        APIException error = assertThrows(APIException.class,
+                () -> connector.batchRead(ids(2), lookup("missing", 1000).batchSize(2).build()));
+
+        assertEquals(404, error.getStatusCode());
+        assertEquals(1, hits.get("ids=id0,id1").get());
+    }
+
+    @Test
+    void respectsRequestRate() throws Exception {
+        connector.batchRead(ids(11), lookup("ok", 20).batchSize(1).parallelism(4).build());
+
+        assertEquals(11, requestTimes.size());
+        // One token up front, then one every 50ms
+        long elapsed = requestTimes.get(10) - requestTimes.get(0);
+        assertTrue(elapsed >= Duration.ofMillis(450).toNanos(), "11 requests at 20/s took only " + elapsed / 1_000_000 + "ms");
+    }
+
+    private static BatchLookup.Builder lookup(String behaviour, double requestsPerSecond) {
+        return new BatchLookup.Builder()
+                .path(ids -> behaviour + "?ids=" + String.join(",", ids))
+                .requestsPerSecond(requestsPerSecond)
+                .maxRetries(2)
+                .baseBackoff(Duration.ofMillis(10));
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("id" + i);
+        }
+        return ids;
+    }
+}